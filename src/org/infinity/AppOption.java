@@ -4,8 +4,10 @@
 
 package org.infinity;
 
+import java.awt.Dimension;
 import java.awt.Font;
 import java.awt.Frame;
+import java.awt.GraphicsEnvironment;
 import java.awt.Toolkit;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -27,6 +29,7 @@
 import org.infinity.gui.menu.ViewMode;
 import org.infinity.resource.Profile;
 import org.infinity.resource.are.viewer.AreaViewer;
+import org.infinity.resource.key.AbstractBIFFReader;
 import org.infinity.updater.UpdaterSettings;
 import org.infinity.util.Misc;
 import org.infinity.util.Weidu;
@@ -75,6 +78,13 @@ public class AppOption {
     return Math.max(min, Math.min(max, (Integer) scale));
   };
 
+  // Ensures consistency of any given BIFF cache limit
+  private static final Function<Object, Object> BIFF_CACHE_LIMIT_VALIDATOR = limit -> {
+    final int min = Arrays.stream(OptionsMenuItem.getBiffCacheLimits()).min().orElse(1);
+    final int max = Arrays.stream(OptionsMenuItem.getBiffCacheLimits()).max().orElse(1);
+    return Math.max(min, Math.min(max, (Integer) limit));
+  };
+
   // Constructs a fully defined default string for the Game Languages option if empty value is assigned
   private static final Function<Object, Object> GAME_LANGUAGES_VALIDATOR = lang -> {
     if (lang == null || ((String) lang).isEmpty()) {
@@ -151,6 +161,12 @@ public class AppOption {
   /** Menu Options > Resources: CacheOverride (Boolean, Default: true) */
   public static final AppOption CACHE_OVERRIDE = new AppOption(OptionsMenuItem.OPTION_CACHEOVERRIDE,
       "Autocheck for Overrides", true);
+  /** Menu Options > Resources: WatchOverride (Boolean, Default: false) */
+  public static final AppOption WATCH_OVERRIDE = new AppOption(OptionsMenuItem.OPTION_WATCHOVERRIDE,
+      "Watch Override Folders for Changes", false);
+  /** Menu Options > Resources: BiffCacheLimit (Integer, Default: 512) */
+  public static final AppOption BIFF_CACHE_LIMIT = new AppOption(OptionsMenuItem.OPTION_BIFFCACHELIMIT,
+      "Max. Number of Open BIFF Files", AbstractBIFFReader.DEFAULT_CACHE_LIMIT, BIFF_CACHE_LIMIT_VALIDATOR);
   /** Menu Options > Resources: ShowLastIdsSymbol (Boolean, Default: true) */
   public static final AppOption IDS_SYMBOL_DISPLAY = new AppOption(OptionsMenuItem.OPTION_IDS_SYMBOL_DISPLAY,
       "Use Last Available IDS Symbol for Display", true);
@@ -356,17 +372,17 @@ public class AppOption {
   // Application settings
   /** Application: WindowSizeX (Integer, Default: 67% of screen width) */
   public static final AppOption APP_WINDOW_SIZE_X = new AppOption(NearInfinity.WINDOW_SIZEX, "Application Window Width",
-      Math.max(800, (int) Toolkit.getDefaultToolkit().getScreenSize().getWidth() * 2 / 3), PREFS_APP);
+      Math.max(800, (int) getScreenSize().getWidth() * 2 / 3), PREFS_APP);
   /** Application: WindowSizeY (Integer, Default: 67% of screen height) */
   public static final AppOption APP_WINDOW_SIZE_Y = new AppOption(NearInfinity.WINDOW_SIZEY, "Application Window Height",
-      Math.max(600, (int) Toolkit.getDefaultToolkit().getScreenSize().getHeight() * 2 / 3), PREFS_APP);
+      Math.max(600, (int) getScreenSize().getHeight() * 2 / 3), PREFS_APP);
   /** Application: WindowPosX (Integer, Default: screen center) */
   public static final AppOption APP_WINDOW_POS_X = new AppOption(NearInfinity.WINDOW_POSX, "Application Window X",
-      ((int) Toolkit.getDefaultToolkit().getScreenSize().getWidth() - (Integer) APP_WINDOW_SIZE_X.getValue()) / 2,
+      ((int) getScreenSize().getWidth() - (Integer) APP_WINDOW_SIZE_X.getValue()) / 2,
       PREFS_APP);
   /** Application: WindowPosY (Integer, Default: screen center) */
   public static final AppOption APP_WINDOW_POS_Y = new AppOption(NearInfinity.WINDOW_POSY, "Application Window Y",
-      ((int) Toolkit.getDefaultToolkit().getScreenSize().getHeight() - (Integer) APP_WINDOW_SIZE_Y.getValue()) / 2,
+      ((int) getScreenSize().getHeight() - (Integer) APP_WINDOW_SIZE_Y.getValue()) / 2,
       PREFS_APP);
   /** Application: WindowState (Integer, Default: Frame.NORMAL) */
   public static final AppOption APP_WINDOW_STATE = new AppOption(NearInfinity.WINDOW_STATE, "Application Window State",
@@ -920,4 +936,12 @@ private Object validate(Object value) throws ClassCastException {
     final String t = (value != null) ? value.getClass().getSimpleName() : "(null)";
     throw new ClassCastException("Unsupported value type: " + t);
   }
+
+  /** Returns the screen size, or a common desktop resolution if no display is available. */
+  private static Dimension getScreenSize() {
+    if (GraphicsEnvironment.isHeadless()) {
+      return new Dimension(1920, 1080);
+    }
+    return Toolkit.getDefaultToolkit().getScreenSize();
+  }
 }
@@ -0,0 +1,44 @@
+// Near Infinity - An Infinity Engine Browser and Editor
+// Copyright (C) 2001 Jon Olav Hauglid
+// See LICENSE.txt for license information
+
+package org.infinity;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+import org.infinity.check.BatchChecker;
+
+/**
+ * Entry point of the application.
+ *
+ * <p>
+ * Selects between the batch mode and the GUI before any AWT class is initialized. {@link NearInfinity} extends
+ * {@code JFrame}, which initializes AWT as soon as the class is loaded. The headless mode of AWT has to be enabled
+ * before that, since it can't be changed afterwards. For this reason this class must not depend on AWT or Swing
+ * classes.
+ * </p>
+ */
+public final class Launcher {
+  /** Command line option that enables the batch mode. */
+  public static final String OPTION_CHECK = "-check";
+
+  public static void main(String[] args) {
+    for (int idx = 0; idx < args.length; idx++) {
+      final String arg = args[idx].toLowerCase(Locale.ENGLISH);
+      if (arg.equals(OPTION_CHECK)) {
+        // batch mode must never show GUI elements, even if a display is available
+        System.setProperty("java.awt.headless", "true");
+        // remaining arguments are processed by the batch checker
+        System.exit(BatchChecker.run(Arrays.copyOfRange(args, idx + 1, args.length)));
+      } else if (arg.equals("-v") || arg.equals("-version") || arg.equals("-h") || arg.equals("-help")) {
+        // options preceding the batch mode option are processed by the GUI application
+        break;
+      }
+    }
+    NearInfinity.main(args);
+  }
+
+  private Launcher() {
+  }
+}
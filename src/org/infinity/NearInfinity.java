@@ -79,6 +79,7 @@
 import javax.swing.filechooser.FileFilter;
 import javax.swing.plaf.FontUIResource;
 
+import org.infinity.check.BatchChecker;
 import org.infinity.datatype.IdsBitmap;
 import org.infinity.datatype.ProRef;
 import org.infinity.datatype.ResourceRef;
@@ -351,6 +352,8 @@ public static void printHelp(String jarFile) {
     System.out.println("\nOptions:");
     System.out.println("  -v, -version      Display version information.");
     System.out.println("  -h, -help         Display this help.");
+    System.out.println("  -check [options]  Check game resources without GUI and write a report.");
+    System.out.println("                    (Use \"-check -help\" to display available options.)");
     System.out.println("  -no-update        Disables the update check option in the menu bar.");
     System.out.println("  -no-launch-game   Hides the \"Launch game\" button.");
     System.out.println("  -t type           Force the current or specified game to be of");
@@ -362,6 +365,8 @@ public static void printHelp(String jarFile) {
     System.out.println("\nExamples:");
     System.out.format("Specify game path: java -jar %s \"C:\\Games\\Baldurs Gate II\"", jarFile).println();
     System.out.format("Force game type:   java -jar %s -t bg2tob", jarFile).println();
+    System.out.format("Check resources:   java -jar %s -check -o report.json \"C:\\Games\\Baldurs Gate II\"", jarFile)
+        .println();
     System.out.format("Display version:   java -jar %s -v", jarFile).println();
     System.out.format("Display help:      java -jar %s -help", jarFile).println();
   }
@@ -394,6 +399,10 @@ public static void main(String[] args) {
           }
           printHelp(jarFile);
           System.exit(0);
+        case Launcher.OPTION_CHECK:
+          // AWT has been initialized with this class already, which rules out the headless mode
+          System.err.println("Batch mode must be started by " + Launcher.class.getName() + ", e.g. by \"java -jar\".");
+          System.exit(BatchChecker.EXIT_USAGE);
         case "-no-update":
           enableUpdate = false;
           break;
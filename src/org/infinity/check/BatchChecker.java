@@ -0,0 +1,546 @@
+// Near Infinity - An Infinity Engine Browser and Editor
+// Copyright (C) 2001 Jon Olav Hauglid
+// See LICENSE.txt for license information
+
+package org.infinity.check;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import org.infinity.AppOption;
+import org.infinity.Launcher;
+import org.infinity.NearInfinity;
+import org.infinity.datatype.ResourceRef;
+import org.infinity.resource.AbstractAbility;
+import org.infinity.resource.AbstractStruct;
+import org.infinity.resource.Profile;
+import org.infinity.resource.Resource;
+import org.infinity.resource.ResourceFactory;
+import org.infinity.resource.effects.BaseOpcode;
+import org.infinity.resource.key.ResourceEntry;
+import org.infinity.updater.Utils;
+import org.infinity.util.CreMapCache;
+import org.infinity.util.DebugTimer;
+import org.infinity.util.Logger;
+import org.infinity.util.Threading;
+import org.infinity.util.WorkScheduler;
+import org.infinity.util.io.FileEx;
+import org.infinity.util.io.FileManager;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+/**
+ * Performs resource checks without GUI, e.g. to validate mod builds on a build server.
+ *
+ * <p>
+ * The game is opened without creating the main window and all selected checks are performed in parallel. Problems are
+ * written to a JSON or CSV report. The return value of {@link #run(String[])} is intended to be used as process exit
+ * code, which is non-zero if problems have been found.
+ * </p>
+ */
+public final class BatchChecker {
+  /** Exit code if no problems have been found. */
+  public static final int EXIT_OK = 0;
+  /** Exit code if problems have been found. */
+  public static final int EXIT_FINDINGS = 1;
+  /** Exit code for invalid command line arguments. */
+  public static final int EXIT_USAGE = 2;
+  /** Exit code if the game could not be opened or the report could not be written. */
+  public static final int EXIT_FAILURE = 10;
+
+  /** Available checks. */
+  public enum Check {
+    /** Resource references to missing or illegal resources. See {@link ResRefChecker}. */
+    RESREF("resref", ResRefChecker.FILE_TYPES),
+    /** Overlapping, unused or out-of-range data of structured resources. See {@link StructChecker}. */
+    STRUCT("struct", StructChecker.FILETYPES),
+    /** Abilities of items and spells with mis-indexed effects. See {@link EffectsIndexChecker}. */
+    EFFECTS_INDEX("effects-index", EffectsIndexChecker.FILE_TYPES),
+    /** Compiler errors and warnings of scripts. See {@link ScriptChecker}. */
+    SCRIPT("script", new String[] { "BCS", "BS" }),
+    /** Compiler errors and warnings of dialog triggers and actions. See {@link DialogChecker}. */
+    DIALOG("dialog", new String[] { "DLG" });
+
+    private final String id;
+    private final String[] fileTypes;
+
+    Check(String id, String[] fileTypes) {
+      this.id = id;
+      this.fileTypes = fileTypes;
+    }
+
+    /** Returns the name of the check as used on the command line and in reports. */
+    public String getId() {
+      return id;
+    }
+
+    /** Returns the resource types supported by the check. */
+    public String[] getFileTypes() {
+      return fileTypes.clone();
+    }
+
+    /** Returns the check of the specified name. Returns {@code null} if no check of the name exists. */
+    public static Check find(String id) {
+      for (final Check check : values()) {
+        if (check.id.equalsIgnoreCase(id)) {
+          return check;
+        }
+      }
+      return null;
+    }
+
+    @Override
+    public String toString() {
+      return id;
+    }
+  }
+
+  /** Available report formats. */
+  public enum Format {
+    JSON, CSV;
+
+    /** Returns the default file extension of the format. */
+    public String getExtension() {
+      return name().toLowerCase(Locale.ENGLISH);
+    }
+  }
+
+  /** Severity of a problem. */
+  public enum Severity {
+    ERROR, WARNING;
+
+    @Override
+    public String toString() {
+      return name().toLowerCase(Locale.ENGLISH);
+    }
+  }
+
+  /** A problem found by a check. */
+  public static final class Finding {
+    /** Sort order of findings in reports. */
+    private static final Comparator<Finding> ORDER = Comparator
+        .comparing((Finding f) -> f.entry.getResourceName(), String.CASE_INSENSITIVE_ORDER)
+        .thenComparing(f -> f.check)
+        .thenComparing(f -> f.offset, Comparator.nullsFirst(Comparator.naturalOrder()))
+        .thenComparing(f -> f.line, Comparator.nullsFirst(Comparator.naturalOrder()))
+        .thenComparing(f -> f.message);
+
+    private final Check check;
+    private final ResourceEntry entry;
+    private final Severity severity;
+    private final Integer offset;
+    private final String field;
+    private final Integer line;
+    private final String message;
+
+    public Finding(Check check, ResourceEntry entry, Severity severity, Integer offset, String field, Integer line,
+        String message) {
+      this.check = Objects.requireNonNull(check);
+      this.entry = Objects.requireNonNull(entry);
+      this.severity = Objects.requireNonNull(severity);
+      this.offset = offset;
+      this.field = field;
+      this.line = line;
+      this.message = Objects.toString(message, "");
+    }
+
+    /** Returns the check that reported the problem. */
+    public Check getCheck() {
+      return check;
+    }
+
+    /** Returns the resource that contains the problem. */
+    public ResourceEntry getResourceEntry() {
+      return entry;
+    }
+
+    /** Returns the severity of the problem. */
+    public Severity getSeverity() {
+      return severity;
+    }
+
+    /** Returns the offset of the problem in the resource data, or {@code null} if not available. */
+    public Integer getOffset() {
+      return offset;
+    }
+
+    /** Returns the name of the resource field that contains the problem, or {@code null} if not available. */
+    public String getField() {
+      return field;
+    }
+
+    /** Returns the source line of the problem in scripts and dialog code, or {@code null} if not available. */
+    public Integer getLine() {
+      return line;
+    }
+
+    /** Returns the description of the problem. */
+    public String getMessage() {
+      return message;
+    }
+
+    @Override
+    public String toString() {
+      return String.format("%s: %s [%s]: %s", entry.getResourceName(), severity, check, message);
+    }
+  }
+
+  private final Set<Check> checks;
+  private final boolean overrideOnly;
+  private final Queue<Finding> findings = new ConcurrentLinkedQueue<>();
+
+  private List<String> spawnGroups;
+  private int resourceCount;
+
+  /**
+   * Creates a new batch checker for the currently opened game.
+   *
+   * @param checks       The checks to perform.
+   * @param overrideOnly Specify {@code true} to check only resources that are available in an override folder.
+   */
+  public BatchChecker(Collection<Check> checks, boolean overrideOnly) {
+    this.checks = checks.isEmpty() ? EnumSet.noneOf(Check.class) : EnumSet.copyOf(checks);
+    this.overrideOnly = overrideOnly;
+  }
+
+  /** Returns the number of resources checked by the last call of {@link #check()}. */
+  public int getResourceCount() {
+    return resourceCount;
+  }
+
+  /**
+   * Performs all checks on the resources of the currently opened game. Resources are processed in parallel.
+   *
+   * @return List of problems, sorted by resource name.
+   * @throws InterruptedException if the current thread has been interrupted.
+   */
+  public List<Finding> check() throws InterruptedException {
+    findings.clear();
+
+    // each resource is loaded once for all checks of its type
+    final Map<String, List<Check>> checksByType = new HashMap<>();
+    final Set<ResourceEntry> entries = new LinkedHashSet<>();
+    for (final Check check : checks) {
+      for (final String type : check.fileTypes) {
+        checksByType.computeIfAbsent(type, t -> new ArrayList<>()).add(check);
+        for (final ResourceEntry entry : ResourceFactory.getResources(type)) {
+          if (!overrideOnly || entry.hasOverride()) {
+            entries.add(entry);
+          }
+        }
+      }
+    }
+    resourceCount = entries.size();
+
+    if (checks.contains(Check.RESREF)) {
+      spawnGroups = ResRefChecker.getSpawnGroups();
+    }
+
+    final List<Check> noChecks = Collections.emptyList();
+    new WorkScheduler(Threading.Priority.NORMAL, true).execute(entries,
+        entry -> checksByType.getOrDefault(entry.getExtension(), noChecks).forEach(check -> check(check, entry)),
+        null, ResourceEntry::getResourceSize);
+
+    final List<Finding> retVal = new ArrayList<>(findings);
+    retVal.sort(Finding.ORDER);
+    return retVal;
+  }
+
+  // Performs a single check on a resource. Called concurrently by the worker threads.
+  private void check(Check check, ResourceEntry entry) {
+    try {
+      switch (check) {
+        case RESREF: {
+          final Resource resource = ResourceFactory.getResource(entry);
+          if (resource instanceof AbstractStruct) {
+            ResRefChecker.search((AbstractStruct) resource, spawnGroups, (ResourceRef ref) ->
+                findings.add(new Finding(check, entry, Severity.ERROR, ref.getOffset(), ref.getName(), null,
+                    "Illegal resource reference: " + ref.getResourceName())));
+          }
+          break;
+        }
+        case STRUCT: {
+          final Resource resource = ResourceFactory.getResource(entry);
+          if (resource instanceof AbstractStruct) {
+            StructChecker.search(entry, (AbstractStruct) resource, corruption ->
+                findings.add(new Finding(check, entry, Severity.ERROR, corruption.getOffset(), null, null,
+                    corruption.getMessage())));
+          }
+          break;
+        }
+        case EFFECTS_INDEX:
+          EffectsIndexChecker.search(entry, (AbstractAbility abil) ->
+              findings.add(new Finding(check, entry, Severity.ERROR, abil.getOffset(), abil.getName(), null,
+                  "Mis-indexed effects")));
+          break;
+        case SCRIPT:
+          ScriptChecker.check(entry, line ->
+              findings.add(new Finding(check, entry,
+                  (line.getType() == ScriptChecker.ScriptErrorsTableLine.Type.ERROR) ? Severity.ERROR
+                      : Severity.WARNING,
+                  null, null, line.getLineNr(), line.getMessage())));
+          break;
+        case DIALOG:
+          DialogChecker.check(entry, problem ->
+              findings.add(new Finding(check, entry,
+                  (problem.getType() == DialogChecker.Problem.Type.ERROR) ? Severity.ERROR : Severity.WARNING,
+                  problem.getProblemEntry().getOffset(), problem.getProblemEntry().getName(), problem.getLineNr(),
+                  problem.getMessage())));
+          break;
+      }
+    } catch (Exception e) {
+      Logger.error(e, "Error checking {}", entry);
+      findings.add(new Finding(check, entry, Severity.ERROR, null, null, null, "Resource could not be checked: " + e));
+    }
+  }
+
+  /**
+   * Writes the specified problems as report of the given format.
+   *
+   * @param findings Problems to write.
+   * @param format   Format of the report.
+   * @param writer   Output of the report.
+   * @throws IOException if an I/O error occurs.
+   */
+  public void writeReport(List<Finding> findings, Format format, Writer writer) throws IOException {
+    if (format == Format.CSV) {
+      writer.write("check,resource,severity,offset,field,line,message\r\n");
+      for (final Finding f : findings) {
+        writer.write(String.join(",", csv(f.check.getId()), csv(f.entry.getResourceName()),
+            csv(f.severity.toString()), csv(f.offset), csv(f.field), csv(f.line), csv(f.message)));
+        writer.write("\r\n");
+      }
+    } else {
+      final JSONArray list = new JSONArray();
+      for (final Finding f : findings) {
+        final JSONObject o = new JSONObject();
+        o.put("check", f.check.getId());
+        o.put("resource", f.entry.getResourceName());
+        o.put("severity", f.severity.toString());
+        o.putOpt("offset", f.offset);
+        o.putOpt("field", f.field);
+        o.putOpt("line", f.line);
+        o.put("message", f.message);
+        list.put(o);
+      }
+
+      final JSONArray checkList = new JSONArray();
+      checks.forEach(check -> checkList.put(check.getId()));
+
+      final JSONObject report = new JSONObject();
+      report.put("game", Objects.toString(Profile.getProperty(Profile.Key.GET_GAME_TITLE), ""));
+      report.put("gameRoot", Objects.toString(Profile.getGameRoot(), ""));
+      report.put("checks", checkList);
+      report.put("resources", resourceCount);
+      report.put("findings", list);
+      writer.write(report.toString(2));
+      writer.write(System.lineSeparator());
+    }
+    writer.flush();
+  }
+
+  /**
+   * Opens a game, performs the checks and writes the report as specified by the command line arguments. This method
+   * never shows GUI elements. It expects AWT to run in headless mode, which is enabled by {@link Launcher}.
+   *
+   * @param args Command line arguments as described by {@link #printHelp()}.
+   * @return One of the exit codes {@link #EXIT_OK}, {@link #EXIT_FINDINGS}, {@link #EXIT_USAGE} or
+   *         {@link #EXIT_FAILURE}.
+   */
+  public static int run(String[] args) {
+    final Set<Check> checks = EnumSet.noneOf(Check.class);
+    Format format = Format.JSON;
+    Path output = null;
+    Path gamePath = null;
+    Profile.Game forcedGame = null;
+    boolean overrideOnly = false;
+    boolean ignoreWarnings = false;
+
+    for (int idx = 0; idx < args.length; idx++) {
+      final String arg = args[idx];
+      switch (arg.toLowerCase(Locale.ENGLISH)) {
+        case "-checks":
+          if (++idx >= args.length) {
+            return usageError("Missing argument for option '-checks'.");
+          }
+          for (final String id : args[idx].split(",")) {
+            final Check check = Check.find(id.trim());
+            if (check == null) {
+              return usageError("Unknown check: " + id);
+            }
+            checks.add(check);
+          }
+          break;
+        case "-format":
+          if (++idx >= args.length) {
+            return usageError("Missing argument for option '-format'.");
+          }
+          try {
+            format = Format.valueOf(args[idx].toUpperCase(Locale.ENGLISH));
+          } catch (IllegalArgumentException e) {
+            return usageError("Unsupported report format: " + args[idx]);
+          }
+          break;
+        case "-o":
+          if (++idx >= args.length) {
+            return usageError("Missing argument for option '-o'.");
+          }
+          output = FileManager.resolve(args[idx]);
+          break;
+        case "-t":
+          if (++idx >= args.length) {
+            return usageError("Missing argument for option '-t'.");
+          }
+          for (final Profile.Game game : Profile.Game.values()) {
+            if (game.toString().equalsIgnoreCase(args[idx])) {
+              forcedGame = game;
+              break;
+            }
+          }
+          if (forcedGame == null) {
+            return usageError("Unknown game type: " + args[idx]);
+          }
+          break;
+        case "-h":
+        case "-help":
+          printHelp();
+          return EXIT_OK;
+        case "-override-only":
+          overrideOnly = true;
+          break;
+        case "-ignore-warnings":
+          ignoreWarnings = true;
+          break;
+        default:
+          if (arg.startsWith("-") || gamePath != null) {
+            return usageError("Invalid argument: " + arg);
+          }
+          gamePath = FileManager.resolve(arg);
+      }
+    }
+
+    if (gamePath == null) {
+      return usageError("Missing game path.");
+    }
+    final Path keyFile = FileEx.create(gamePath).isFile() ? gamePath : gamePath.resolve(NearInfinity.KEYFILENAME);
+    if (!FileEx.create(keyFile).isFile()) {
+      System.err.println("No game found: " + gamePath);
+      return EXIT_FAILURE;
+    }
+    if (checks.isEmpty()) {
+      checks.addAll(EnumSet.allOf(Check.class));
+    }
+    if (output == null) {
+      output = FileManager.resolve("check-report." + format.getExtension());
+    }
+
+    if (!openGame(keyFile, forcedGame)) {
+      System.err.println("Unable to open the game: " + keyFile);
+      return EXIT_FAILURE;
+    }
+
+    final BatchChecker checker = new BatchChecker(checks, overrideOnly);
+    final List<Finding> findings;
+    final DebugTimer timer = new DebugTimer();
+    try {
+      findings = checker.check();
+    } catch (InterruptedException e) {
+      Logger.error(e);
+      return EXIT_FAILURE;
+    }
+    Logger.info(timer.getTimerFormatted("Checking resources"));
+
+    try (final BufferedWriter writer = Files.newBufferedWriter(output, StandardCharsets.UTF_8)) {
+      checker.writeReport(findings, format, writer);
+    } catch (IOException e) {
+      Logger.error(e);
+      System.err.println("Unable to write the report: " + output);
+      return EXIT_FAILURE;
+    }
+
+    final long numErrors = findings.stream().filter(f -> f.getSeverity() == Severity.ERROR).count();
+    final long numWarnings = findings.size() - numErrors;
+    System.out.format("%d resource(s) checked: %d error(s), %d warning(s). Report: %s", checker.getResourceCount(),
+        numErrors, numWarnings, output).println();
+
+    if (numErrors > 0 || (numWarnings > 0 && !ignoreWarnings)) {
+      return EXIT_FINDINGS;
+    }
+    return EXIT_OK;
+  }
+
+  /** Prints a description of the command line arguments of {@link #run(String[])}. */
+  public static void printHelp() {
+    String jarFile = Utils.getJarFileName(Launcher.class);
+    if (jarFile.isEmpty() || !jarFile.toLowerCase(Locale.ENGLISH).endsWith(".jar")) {
+      jarFile = "NearInfinity.jar";
+    } else {
+      jarFile = FileManager.resolve(jarFile).getFileName().toString();
+    }
+    System.out.format("Usage: java -jar %s -check [options] game_path", jarFile).println();
+    System.out.println("\nChecks the resources of the specified game without GUI and writes a report.");
+    System.out.println("\nOptions:");
+    System.out.println("  -checks list      Comma-separated list of checks to perform. (Default: all)");
+    System.out.println("                    Available checks:");
+    for (final Check check : Check.values()) {
+      System.out.println("                      " + check.getId());
+    }
+    System.out.println("  -format type      Report format: json or csv. (Default: json)");
+    System.out.println("  -o file           Report file. (Default: check-report.json or check-report.csv)");
+    System.out.println("  -override-only    Check only resources in override folders.");
+    System.out.println("  -ignore-warnings  Report warnings without a non-zero exit code.");
+    System.out.println("  -t type           Force the game to be of specific type. (See -help)");
+    System.out.println("\nExit codes:");
+    System.out.println("  " + EXIT_OK + "   No problems found.");
+    System.out.println("  " + EXIT_FINDINGS + "   Problems found.");
+    System.out.println("  " + EXIT_USAGE + "   Invalid arguments.");
+    System.out.println("  " + EXIT_FAILURE + "  Game could not be opened or report could not be written.");
+  }
+
+  // Returns the specified value as CSV field
+  private static String csv(Object value) {
+    final String s = Objects.toString(value, "");
+    if (s.indexOf(',') >= 0 || s.indexOf('"') >= 0 || s.indexOf('\n') >= 0 || s.indexOf('\r') >= 0) {
+      return '"' + s.replace("\"", "\"\"") + '"';
+    }
+    return s;
+  }
+
+  // Prints the specified error message for invalid arguments and returns the associated exit code
+  private static int usageError(String message) {
+    System.err.println(message);
+    System.err.println("Use '-check -help' to display available options.");
+    return EXIT_USAGE;
+  }
+
+  // Initializes the game without the main window, in the same order as the GUI startup sequence
+  private static boolean openGame(Path keyFile, Profile.Game forcedGame) {
+    // application options are read directly, since the menu bar is not available
+    AppOption.getInstances();
+
+    if (!Profile.openGame(keyFile, null, forcedGame)) {
+      return false;
+    }
+    CreMapCache.reset();
+    BaseOpcode.initOpcodes();
+    return true;
+  }
+}
@@ -10,6 +10,7 @@
 import java.awt.event.ActionListener;
 import java.awt.event.MouseEvent;
 import java.util.List;
+import java.util.function.Consumer;
 
 import javax.swing.JButton;
 import javax.swing.JOptionPane;
@@ -206,12 +207,15 @@ public void run() {
   protected Runnable newWorker(ResourceEntry entry) {
     return () -> {
       try {
-        final DlgResource dialog = new DlgResource(entry);
-        for (final StructEntry o : dialog.getFields()) {
-          if (o instanceof AbstractCode) {
-            checkCode(entry, (AbstractCode) o);
+        check(entry, problem -> {
+          synchronized (this) {
+            if (problem.getType() == Problem.Type.ERROR) {
+              errorTable.addTableItem(problem);
+            } else {
+              warningTable.addTableItem(problem);
+            }
           }
-        }
+        });
       } catch (Exception e) {
         Logger.error(e);
       }
@@ -219,25 +223,39 @@ protected Runnable newWorker(ResourceEntry entry) {
     };
   }
 
+  /**
+   * Compiles all triggers and actions of the specified dialog and reports the compiler errors and warnings. This method
+   * does not depend on the GUI and may be called concurrently.
+   *
+   * @param entry Pointer to dialog resource for check. Never {@code null}
+   * @param sink  Receives the errors and warnings.
+   * @throws Exception if the dialog could not be loaded.
+   */
+  static void check(ResourceEntry entry, Consumer<Problem> sink) throws Exception {
+    final DlgResource dialog = new DlgResource(entry);
+    for (final StructEntry o : dialog.getFields()) {
+      if (o instanceof AbstractCode) {
+        checkCode(entry, (AbstractCode) o, sink);
+      }
+    }
+  }
+
   /**
    * Performs code checking. This method can be called from several threads
    *
    * @param entry Pointer to dialog resource for check. Never {@code null}
    * @param code  Code of action or trigger in dialog. Never {@code null}
+   * @param sink  Receives the errors and warnings.
    */
-  private void checkCode(ResourceEntry entry, AbstractCode code) {
+  private static void checkCode(ResourceEntry entry, AbstractCode code, Consumer<Problem> sink) {
     final ScriptType type = code instanceof Action ? ScriptType.ACTION : ScriptType.TRIGGER;
     final Compiler compiler = new Compiler(code.getText(), type);
     compiler.compile();
-    synchronized (this) {
-      for (final ScriptMessage sm : compiler.getErrors()) {
-        errorTable.addTableItem(new Problem(entry, code, sm.getLine(), sm.getMessage(), Problem.Type.ERROR));
-      }
+    for (final ScriptMessage sm : compiler.getErrors()) {
+      sink.accept(new Problem(entry, code, sm.getLine(), sm.getMessage(), Problem.Type.ERROR));
     }
-    synchronized (this) {
-      for (final ScriptMessage sm : compiler.getWarnings()) {
-        warningTable.addTableItem(new Problem(entry, code, sm.getLine(), sm.getMessage(), Problem.Type.WARNING));
-      }
+    for (final ScriptMessage sm : compiler.getWarnings()) {
+      sink.accept(new Problem(entry, code, sm.getLine(), sm.getMessage(), Problem.Type.WARNING));
     }
   }
 
@@ -300,7 +318,8 @@ private ResultPane<SortableTable> getSelectedResultsPane() {
 
   // -------------------------- INNER CLASSES --------------------------
 
-  private static final class Problem implements TableItem {
+  /** Describes a compiler error or warning in the code of a dialog. */
+  static final class Problem implements TableItem {
     public enum Type {
       ERROR, WARNING,
     }
@@ -324,6 +343,22 @@ private Problem(ResourceEntry resourceEntry, StructEntry problemEntry, Integer l
       this.type = type;
     }
 
+    public StructEntry getProblemEntry() {
+      return problemEntry;
+    }
+
+    public Integer getLineNr() {
+      return lineNr;
+    }
+
+    public String getMessage() {
+      return message;
+    }
+
+    public Type getType() {
+      return type;
+    }
+
     @Override
     public Object getObjectAt(int columnIndex) {
       switch (columnIndex) {
@@ -5,7 +5,10 @@
 package org.infinity.check;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import org.infinity.NearInfinity;
 import org.infinity.datatype.EffectBitmap;
@@ -15,6 +18,7 @@
 import org.infinity.resource.Profile;
 import org.infinity.resource.Resource;
 import org.infinity.resource.ResourceFactory;
+import org.infinity.resource.ResourceView;
 import org.infinity.resource.StructEntry;
 import org.infinity.resource.effects.BaseOpcode;
 import org.infinity.resource.effects.DefaultOpcode;
@@ -25,6 +29,9 @@
  * Checks for invalid effect opcodes.
  */
 public class EffectValidationChecker extends AbstractChecker {
+  /** Effect opcodes which may reference other opcodes in parameter 2. */
+  private static final Set<Integer> OPCODE_REFS = new HashSet<>(Arrays.asList(101, 198, 261, 276, 337));
+
   /** Window with check results. */
   private final ReferenceHitFrame hitFrame;
 
@@ -45,14 +52,47 @@ public void run() {
   @Override
   protected Runnable newWorker(ResourceEntry entry) {
     return () -> {
-      final Resource resource = ResourceFactory.getResource(entry);
-      if (resource instanceof AbstractStruct) {
-        search(entry, (AbstractStruct) resource);
+      // full resource is only needed to report invalid opcodes
+      final ResourceView view = getResourceView(entry);
+      if (view == null || !isValid(view)) {
+        final Resource resource = ResourceFactory.getResource(entry);
+        if (resource instanceof AbstractStruct) {
+          search(entry, (AbstractStruct) resource);
+        }
       }
       advanceProgress();
     };
   }
 
+  /**
+   * Returns whether all opcode references of the resource are valid. Parameter 2 is considered for every effect type
+   * that may reference an opcode. Returns {@code false} if validity cannot be determined.
+   */
+  private boolean isValid(ResourceView view) {
+    try {
+      final int[] offsets = view.getEffectOffsets();
+      if (offsets == null) {
+        return false;
+      }
+      for (final int offset : offsets) {
+        final int opcode = view.getEffectOpcode(offset);
+        if (isInvalidOpcode(opcode)) {
+          return false;
+        }
+        if (OPCODE_REFS.contains(opcode) && isInvalidOpcode(view.getEffectParameter2(offset))) {
+          return false;
+        }
+      }
+      return true;
+    } catch (IndexOutOfBoundsException e) {
+      return false;
+    }
+  }
+
+  private static boolean isInvalidOpcode(int value) {
+    return BaseOpcode.getOpcode(value) instanceof DefaultOpcode;
+  }
+
   private void search(ResourceEntry entry, AbstractStruct struct) {
     for (final StructEntry field : struct.getFlatFields()) {
       if (field instanceof EffectType || field instanceof EffectBitmap) {
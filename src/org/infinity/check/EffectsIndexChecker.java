@@ -4,23 +4,29 @@
 
 package org.infinity.check;
 
+import java.util.function.Consumer;
+
 import org.infinity.NearInfinity;
 import org.infinity.datatype.IsNumeric;
 import org.infinity.resource.AbstractAbility;
 import org.infinity.resource.AbstractStruct;
 import org.infinity.resource.Resource;
 import org.infinity.resource.ResourceFactory;
+import org.infinity.resource.ResourceView;
 import org.infinity.resource.StructEntry;
 import org.infinity.resource.key.ResourceEntry;
 import org.infinity.resource.spl.SplResource;
 import org.infinity.search.ReferenceHitFrame;
 
 public class EffectsIndexChecker extends AbstractChecker {
+  /** Resource types supported by the checker. */
+  static final String[] FILE_TYPES = { "ITM", "SPL" };
+
   /** Window with check results. */
   private final ReferenceHitFrame hitFrame;
 
   public EffectsIndexChecker() {
-    super("Effects Index Checker", new String[] { "ITM", "SPL" });
+    super("Effects Index Checker", FILE_TYPES);
     hitFrame = new ReferenceHitFrame("Mis-indexed Effects", NearInfinity.getInstance());
   }
 
@@ -40,24 +46,54 @@ public void run() {
   @Override
   protected Runnable newWorker(ResourceEntry entry) {
     return () -> {
+      search(entry, abil -> {
+        synchronized (hitFrame) {
+          hitFrame.addHit(entry, entry.getSearchString(), abil);
+        }
+      });
+      advanceProgress();
+    };
+  }
+
+  /**
+   * Reports every ability of the specified resource with a mis-indexed effects list. This method does not depend on the
+   * GUI and may be called concurrently.
+   */
+  static void search(ResourceEntry entry, Consumer<AbstractAbility> sink) {
+    // full resource is only needed to report mis-indexed abilities
+    final ResourceView view = ResourceFactory.getResourceView(entry);
+    if (view == null || !isValid(view)) {
       final Resource resource = ResourceFactory.getResource(entry);
       if (resource instanceof AbstractStruct) {
-        search(entry, (AbstractStruct) resource);
+        search((AbstractStruct) resource, sink);
       }
-      advanceProgress();
-    };
+    }
+  }
+
+  // Returns whether the effect indices of all abilities are valid. Returns false if validity cannot be determined.
+  private static boolean isValid(ResourceView view) {
+    try {
+      int expectedEffectsIndex = view.getGlobalEffectCount();
+      for (final int abilOffset : view.getAbilityOffsets()) {
+        if (view.getAbilityFirstEffectIndex(abilOffset) != expectedEffectsIndex) {
+          return false;
+        }
+        expectedEffectsIndex += view.getAbilityEffectCount(abilOffset);
+      }
+      return true;
+    } catch (IndexOutOfBoundsException e) {
+      return false;
+    }
   }
 
-  private void search(ResourceEntry entry, AbstractStruct struct) {
+  private static void search(AbstractStruct struct, Consumer<AbstractAbility> sink) {
     int expectedEffectsIndex = ((IsNumeric) struct.getAttribute(SplResource.SPL_NUM_GLOBAL_EFFECTS)).getValue();
     for (final StructEntry e : struct.getFields()) {
       if (e instanceof AbstractAbility) {
         final AbstractAbility abil = (AbstractAbility) e;
         final int effectsIndex = ((IsNumeric) abil.getAttribute(AbstractAbility.ABILITY_FIRST_EFFECT_INDEX)).getValue();
         if (effectsIndex != expectedEffectsIndex) {
-          synchronized (hitFrame) {
-            hitFrame.addHit(entry, entry.getSearchString(), abil);
-          }
+          sink.accept(abil);
         }
         expectedEffectsIndex += abil.getEffectsCount();
       }
@@ -5,6 +5,7 @@
 package org.infinity.check;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 import org.infinity.NearInfinity;
 import org.infinity.datatype.ResourceRef;
@@ -17,10 +18,12 @@
 import org.infinity.resource.key.ResourceEntry;
 import org.infinity.resource.text.PlainTextResource;
 import org.infinity.search.ReferenceHitFrame;
+import org.infinity.util.Logger;
 
 public final class ResRefChecker extends AbstractChecker {
-  private static final String[] FILE_TYPES = { "ARE", "CHR", "CHU", "CRE", "DLG", "EFF", "GAM", "ITM", "PRO", "SPL",
-                                               "STO", "VEF", "VVC", "WED", "WMP" };
+  /** Resource types supported by the checker. */
+  static final String[] FILE_TYPES = { "ARE", "CHR", "CHU", "CRE", "DLG", "EFF", "GAM", "ITM", "PRO", "SPL",
+                                       "STO", "VEF", "VVC", "WED", "WMP" };
 
   /** Window with check results. */
   private final ReferenceHitFrame hitFrame;
@@ -30,19 +33,28 @@ public final class ResRefChecker extends AbstractChecker {
   public ResRefChecker() {
     super("ResRef Checker", FILE_TYPES);
     hitFrame = new ReferenceHitFrame("Illegal ResourceRefs", NearInfinity.getInstance());
+    extraValues = getSpawnGroups();
+  }
 
+  /** Returns the spawn group names defined by SPAWNGRP.2DA, or {@code null} if not available. */
+  static List<String> getSpawnGroups() {
     final ResourceEntry spawnRef = ResourceFactory.getResourceEntry("SPAWNGRP.2DA");
     if (spawnRef != null) {
       PlainTextResource spawn = (PlainTextResource) ResourceFactory.getResource(spawnRef);
-      extraValues = spawn.extract2DAHeaders();
+      return spawn.extract2DAHeaders();
     }
+    return null;
   }
 
   // --------------------- Begin Interface Runnable ---------------------
 
   @Override
   public void run() {
-    if (runCheck(getFiles())) {
+    final boolean cancelled = runCheck(getFiles());
+    Logger.debug("Missing resource cache: hits={}, misses={}, hit rate={}",
+        ResourceFactory.getMissingResourceCacheHits(), ResourceFactory.getMissingResourceCacheMisses(),
+        String.format("%.1f%%", ResourceFactory.getMissingResourceCacheHitRate() * 100.0));
+    if (cancelled) {
       hitFrame.close();
     } else {
       hitFrame.setVisible(true);
@@ -56,13 +68,25 @@ protected Runnable newWorker(ResourceEntry entry) {
     return () -> {
       final Resource resource = ResourceFactory.getResource(entry);
       if (resource instanceof AbstractStruct) {
-        search(entry, (AbstractStruct) resource);
+        search((AbstractStruct) resource, extraValues, ref -> {
+          synchronized (hitFrame) {
+            hitFrame.addHit(entry, entry.getSearchString(), ref);
+          }
+        });
       }
       advanceProgress();
     };
   }
 
-  private void search(ResourceEntry entry, AbstractStruct struct) {
+  /**
+   * Reports every resource reference of the specified resource that points to a missing or illegal resource. This
+   * method does not depend on the GUI and may be called concurrently.
+   *
+   * @param struct      The resource to check.
+   * @param extraValues Spawn group names which are legal values of spawn references. May be {@code null}.
+   * @param sink        Receives the illegal references.
+   */
+  static void search(AbstractStruct struct, List<String> extraValues, Consumer<ResourceRef> sink) {
     for (final StructEntry e : struct.getFlatFields()) {
       if (!(e instanceof ResourceRef)) {
         continue;
@@ -90,9 +114,7 @@ private void search(ResourceEntry entry, AbstractStruct struct) {
 
       final ResourceEntry resource = ResourceFactory.getResourceEntry(resourceName);
       if (!ref.isLegalEntry(resource)) {
-        synchronized (hitFrame) {
-          hitFrame.addHit(entry, entry.getSearchString(), ref);
-        }
+        sink.accept(ref);
       }
     }
   }
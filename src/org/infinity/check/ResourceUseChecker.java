@@ -206,6 +206,7 @@ public void run() {
   @Override
   protected Runnable newWorker(ResourceEntry entry) {
     return () -> {
+      // each resource is visited only once, which would only evict useful entries from the resource cache
       final Resource resource = ResourceFactory.getResource(entry);
       if (resource instanceof DlgResource) {
         checkDialog((DlgResource) resource);
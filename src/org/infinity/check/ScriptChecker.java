@@ -10,6 +10,7 @@
 import java.awt.event.ActionListener;
 import java.awt.event.MouseEvent;
 import java.util.List;
+import java.util.function.Consumer;
 
 import javax.swing.JButton;
 import javax.swing.JOptionPane;
@@ -197,25 +198,15 @@ public void run() {
   protected Runnable newWorker(ResourceEntry entry) {
     return () -> {
       try {
-        final BcsResource script = new BcsResource(entry);
-        final Decompiler decompiler = new Decompiler(script.getCode(), true);
-        decompiler.setGenerateComments(false);
-        decompiler.setGenerateResourcesUsed(false);
-
-        final Compiler compiler = new Compiler(decompiler.decompile());
-        compiler.compile();
-        synchronized (this) {
-          for (final ScriptMessage sm : compiler.getErrors()) {
-            errorTable.addTableItem(
-                new ScriptErrorsTableLine(entry, sm.getLine(), sm.getMessage(), ScriptErrorsTableLine.Type.ERROR));
+        check(entry, line -> {
+          synchronized (this) {
+            if (line.getType() == ScriptErrorsTableLine.Type.ERROR) {
+              errorTable.addTableItem(line);
+            } else {
+              warningTable.addTableItem(line);
+            }
           }
-        }
-        synchronized (this) {
-          for (final ScriptMessage sm : compiler.getWarnings()) {
-            warningTable.addTableItem(
-                new ScriptErrorsTableLine(entry, sm.getLine(), sm.getMessage(), ScriptErrorsTableLine.Type.WARNING));
-          }
-        }
+        });
       } catch (Exception e) {
         Logger.error(e);
       }
@@ -223,6 +214,30 @@ protected Runnable newWorker(ResourceEntry entry) {
     };
   }
 
+  /**
+   * Recompiles the specified script and reports all compiler errors and warnings. This method does not depend on the
+   * GUI and may be called concurrently.
+   *
+   * @param entry The script resource.
+   * @param sink  Receives the errors and warnings.
+   * @throws Exception if the script could not be loaded.
+   */
+  static void check(ResourceEntry entry, Consumer<ScriptErrorsTableLine> sink) throws Exception {
+    final BcsResource script = new BcsResource(entry);
+    final Decompiler decompiler = new Decompiler(script.getCode(), true);
+    decompiler.setGenerateComments(false);
+    decompiler.setGenerateResourcesUsed(false);
+
+    final Compiler compiler = new Compiler(decompiler.decompile());
+    compiler.compile();
+    for (final ScriptMessage sm : compiler.getErrors()) {
+      sink.accept(new ScriptErrorsTableLine(entry, sm.getLine(), sm.getMessage(), ScriptErrorsTableLine.Type.ERROR));
+    }
+    for (final ScriptMessage sm : compiler.getWarnings()) {
+      sink.accept(new ScriptErrorsTableLine(entry, sm.getLine(), sm.getMessage(), ScriptErrorsTableLine.Type.WARNING));
+    }
+  }
+
   /** Updates controls based on the table state in the specified {@link ResultPane}. */
   private void performTableChanged(ResultPane<SortableTable> resultsPane) {
     if (resultsPane == null) {
@@ -282,7 +297,8 @@ private ResultPane<SortableTable> getSelectedResultsPane() {
 
   // -------------------------- INNER CLASSES --------------------------
 
-  private static final class ScriptErrorsTableLine implements TableItem {
+  /** Describes a compiler error or warning of a script. */
+  static final class ScriptErrorsTableLine implements TableItem {
     public enum Type {
       ERROR, WARNING,
     }
@@ -299,6 +315,18 @@ private ScriptErrorsTableLine(ResourceEntry resourceEntry, Integer lineNr, Strin
       this.type = type;
     }
 
+    public Integer getLineNr() {
+      return lineNr;
+    }
+
+    public String getMessage() {
+      return error;
+    }
+
+    public Type getType() {
+      return type;
+    }
+
     @Override
     public Object getObjectAt(int columnIndex) {
       if (columnIndex == 0) {
@@ -10,10 +10,12 @@
 import java.awt.event.ActionListener;
 import java.awt.event.MouseEvent;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Comparator;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.IntStream;
 
 import javax.swing.JButton;
 import javax.swing.JOptionPane;
@@ -48,12 +50,26 @@ public class StringDuplicatesChecker extends AbstractSearcher
   /** Index of "Save" button */
   private static final int BUTTON_SAVE      = 2;
 
+  /** Whether strings are compared without regard to case and whitespace. */
+  private final boolean nearDuplicates;
+
   private ChildFrame resultFrame;
   private ResultPane<SortableTable> resultPane;
   private StringSet stringSet;
 
   public StringDuplicatesChecker(Component parent) {
+    this(false, parent);
+  }
+
+  /**
+   * Creates and starts a new duplicate strings check.
+   *
+   * @param nearDuplicates Specify {@code true} to ignore differences in case and whitespace.
+   * @param parent         Parent component of the progress monitor.
+   */
+  public StringDuplicatesChecker(boolean nearDuplicates, Component parent) {
     super(CHECK_MULTI_TYPE_FORMAT, parent);
+    this.nearDuplicates = nearDuplicates;
     new Thread(this).start();
   }
 
@@ -96,7 +112,7 @@ public void run() {
       final List<ResourceEntry> files = new ArrayList<>();
       files.add(new FileResourceEntry(Profile.getProperty(Profile.Key.GET_GAME_DIALOG_FILE)));  // dummy entry
 
-      stringSet = new StringSet();
+      stringSet = new StringSet(nearDuplicates);
       if (runSearch("Checking strings", files)) {
         return;
       }
@@ -160,12 +176,7 @@ public void run() {
   @Override
   protected Runnable newWorker(ResourceEntry entry) {
     if (entry != null) {
-      return () -> {
-        for (int strref = 0, count = StringTable.getNumEntries(); strref < count; strref++) {
-          stringSet.register(strref);
-        }
-        stringSet.cleanup();
-      };
+      return () -> stringSet.build(StringTable.getNumEntries());
     } else {
       return () -> {};
     }
@@ -193,62 +204,165 @@ private void performTableAction(MouseEvent event) {
 
   // -------------------------- INNER CLASSES --------------------------
 
-  /** Tracks and manages duplicate strings. */
+  /**
+   * Tracks and manages duplicate strings.
+   *
+   * <p>
+   * Duplicates are determined in two passes. The first pass computes a 64-bit hash of the normalized text and sound
+   * reference of each string in parallel and groups strings with equal hashes. The second pass compares the actual
+   * content of grouped strings to rule out hash collisions. Content of unique strings is never retained.
+   * </p>
+   */
   private static final class StringSet {
-    // Map: String -> list of duplicate strrefs
-    private final Map<String, List<Integer>> strings = new HashMap<>();
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+    /** Separates text and sound reference in the hash. */
+    private static final char SEPARATOR = '\uffff';
 
-    public StringSet() {
-    }
+    private final boolean nearDuplicates;
+    // List of duplicate strrefs per group
+    private final List<List<Integer>> groups = new ArrayList<>();
 
-    /** Registers the specified strref in the string set. */
-    public void register(int strref) {
-      final String s = getInternalString(strref);
-      List<Integer> list = strings.computeIfAbsent(s, k -> new ArrayList<>());
-      list.add(strref);
+    public StringSet(boolean nearDuplicates) {
+      this.nearDuplicates = nearDuplicates;
     }
 
-    /** Removes all entries without duplicates. */
-    public void cleanup() {
-      strings.entrySet().removeIf(entry -> entry.getValue().size() < 2);
+    /** Determines all duplicate strings among the specified number of strrefs. */
+    public void build(int numStrings) {
+      groups.clear();
+
+      // first pass: hashing strings
+      final long[] hashes = new long[numStrings];
+      IntStream.range(0, numStrings).parallel().forEach(strref -> hashes[strref] = getHash(strref));
+
+      // grouping strrefs by hash: open addressing table of hash -> first strref, next[] links strrefs of the same group
+      int capacity = 16;
+      while (capacity < numStrings * 2) {
+        capacity <<= 1;
+      }
+      final int mask = capacity - 1;
+      final long[] keys = new long[capacity];
+      final int[] heads = new int[capacity];
+      final int[] counts = new int[capacity];
+      final int[] next = new int[numStrings];
+      Arrays.fill(heads, -1);
+      for (int strref = numStrings - 1; strref >= 0; strref--) {
+        final long hash = hashes[strref];
+        int slot = (int) (hash ^ (hash >>> 32)) & mask;
+        while (heads[slot] >= 0 && keys[slot] != hash) {
+          slot = (slot + 1) & mask;
+        }
+        keys[slot] = hash;
+        next[strref] = heads[slot];
+        heads[slot] = strref;
+        counts[slot]++;
+      }
+
+      // second pass: confirming duplicates by content
+      for (int slot = 0; slot < capacity; slot++) {
+        if (counts[slot] < 2) {
+          continue;
+        }
+        final Map<String, List<Integer>> contents = new LinkedHashMap<>();
+        for (int strref = heads[slot]; strref >= 0; strref = next[strref]) {
+          contents.computeIfAbsent(getInternalString(strref), k -> new ArrayList<>()).add(strref);
+        }
+        for (final List<Integer> list : contents.values()) {
+          if (list.size() > 1) {
+            groups.add(list);
+          }
+        }
+      }
     }
 
     /** Returns the number of duplicate string instances. */
     public int size() {
-      return strings.size();
+      return groups.size();
     }
 
     /** Converts current set of stringrefs to a grouped list and returns it. */
     public List<List<Integer>> toList() {
-      final List<List<Integer>> retVal = new ArrayList<>();
-
-      for (final Map.Entry<String, List<Integer>> entry : strings.entrySet()) {
-        retVal.add(entry.getValue());
-      }
+      final List<List<Integer>> retVal = new ArrayList<>(groups);
       retVal.sort(Comparator.comparingInt(a -> a.get(0)));
-
       return retVal;
     }
 
+    private long getHash(int strref) {
+      final long hash = normalize(StringTable.getStringRef(strref, StringTable.Format.NONE), nearDuplicates, null);
+      return hashString(StringTable.getSoundResource(strref), hashChar(hash, SEPARATOR));
+    }
+
     private String getInternalString(int strref) {
-      final String text = normalize(StringTable.getStringRef(strref, StringTable.Format.NONE));
-      final String sound = StringTable.getSoundResource(strref);
-      return '"' + text + "\"[" + sound + "]";
+      final StringBuilder sb = new StringBuilder();
+      normalize(StringTable.getStringRef(strref, StringTable.Format.NONE), nearDuplicates, sb);
+      return sb.append(SEPARATOR).append(StringTable.getSoundResource(strref)).toString();
     }
 
     /**
-     * Returns a normalized version of the given string.
-     * A {@code null} string reference returns an empty string. Otherwise, whitespace is trimmed from the given string.
+     * Normalizes the given string and returns the hash of the result. Leading and trailing whitespace as well as
+     * carriage return characters are ignored. In near-duplicate mode all whitespace sequences are reduced to a single
+     * space and characters are converted to lower case.
      *
-     * @param s String to normalize.
-     * @return the normalized string.
+     * @param s              String to normalize.
+     * @param nearDuplicates Whether case and whitespace differences are ignored.
+     * @param sb             Optional buffer that receives the normalized string.
+     * @return the hash of the normalized string.
      */
-    public static String normalize(String s) {
+    private static long normalize(String s, boolean nearDuplicates, StringBuilder sb) {
+      long hash = FNV_OFFSET;
       if (s == null) {
-        return "";
-      } else {
-        return s.trim().replace("\r", "");
+        return hash;
+      }
+
+      int start = 0;
+      int end = s.length();
+      while (start < end && s.charAt(start) <= ' ') {
+        start++;
       }
+      while (end > start && s.charAt(end - 1) <= ' ') {
+        end--;
+      }
+
+      boolean space = false;
+      for (int i = start; i < end; i++) {
+        char ch = s.charAt(i);
+        if (nearDuplicates) {
+          if (ch <= ' ' || Character.isWhitespace(ch)) {
+            space = true;
+            continue;
+          }
+          if (space) {
+            hash = hashChar(hash, ' ');
+            if (sb != null) {
+              sb.append(' ');
+            }
+            space = false;
+          }
+          ch = Character.toLowerCase(ch);
+        } else if (ch == '\r') {
+          continue;
+        }
+        hash = hashChar(hash, ch);
+        if (sb != null) {
+          sb.append(ch);
+        }
+      }
+      return hash;
+    }
+
+    private static long hashString(String s, long hash) {
+      if (s != null) {
+        for (int i = 0, len = s.length(); i < len; i++) {
+          hash = hashChar(hash, s.charAt(i));
+        }
+      }
+      return hash;
+    }
+
+    // FNV-1a hash over both bytes of the character
+    private static long hashChar(long hash, char ch) {
+      hash = (hash ^ (ch & 0xff)) * FNV_PRIME;
+      return (hash ^ (ch >>> 8)) * FNV_PRIME;
     }
   }
 
@@ -11,6 +11,7 @@
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.function.Consumer;
 
 import javax.swing.JButton;
 import javax.swing.JOptionPane;
@@ -62,8 +63,9 @@ public final class StructChecker extends AbstractChecker implements ListSelectio
   /** Index of "Save" button */
   private static final int BUTTON_SAVE      = 2;
 
-  private static final String[] FILETYPES = { "ARE", "CHR", "CHU", "CRE", "DLG", "EFF", "GAM", "ITM", "PRO", "SPL",
-                                              "STO", "VEF", "VVC", "WED", "WMP" };
+  /** Resource types supported by the checker. */
+  static final String[] FILETYPES = { "ARE", "CHR", "CHU", "CRE", "DLG", "EFF", "GAM", "ITM", "PRO", "SPL",
+                                      "STO", "VEF", "VVC", "WED", "WMP" };
 
   private static final HashMap<String, StructInfo> FILE_INFO = new HashMap<>();
 
@@ -200,13 +202,21 @@ protected Runnable newWorker(ResourceEntry entry) {
     return () -> {
       final Resource resource = ResourceFactory.getResource(entry);
       if (resource instanceof AbstractStruct) {
-        search(entry, (AbstractStruct) resource);
+        search(entry, (AbstractStruct) resource, corruption -> {
+          synchronized (table) {
+            table.addTableItem(corruption);
+          }
+        });
       }
       advanceProgress();
     };
   }
 
-  private void search(ResourceEntry entry, AbstractStruct struct) {
+  /**
+   * Checks the structure of the specified resource and reports every corruption to the specified consumer. This method
+   * does not depend on the GUI and may be called concurrently.
+   */
+  static void search(ResourceEntry entry, AbstractStruct struct, Consumer<Corruption> sink) {
     final List<StructEntry> flatList = struct.getFlatFields();
     if (flatList.size() < 2) {
       return;
@@ -219,18 +229,14 @@ private void search(ResourceEntry entry, AbstractStruct struct) {
       if (!entry2.getName().equals(AbstractStruct.COMMON_UNUSED_BYTES)) {
         int delta = entry2.getOffset() - offset;
         if (entry2.getSize() > 0 && delta < 0) {
-          synchronized (table) {
-            table.addTableItem(new Corruption(entry, entry1.getOffset(),
-                entry1.getName() + '(' + Integer.toHexString(entry1.getOffset()) + "h)" + " overlaps "
-                    + entry2.getName() + '(' + Integer.toHexString(entry2.getOffset()) + "h)" + " by " + -delta
-                    + " bytes"));
-          }
+          sink.accept(new Corruption(entry, entry1.getOffset(),
+              entry1.getName() + '(' + Integer.toHexString(entry1.getOffset()) + "h)" + " overlaps "
+                  + entry2.getName() + '(' + Integer.toHexString(entry2.getOffset()) + "h)" + " by " + -delta
+                  + " bytes"));
         } else if (delta > 0) {
-          synchronized (table) {
-            table.addTableItem(new Corruption(entry, entry1.getOffset(),
-                delta + " unused bytes between " + entry1.getName() + '(' + Integer.toHexString(entry1.getOffset())
-                    + "h)" + " and " + entry2.getName() + '(' + Integer.toHexString(entry2.getOffset()) + "h)"));
-          }
+          sink.accept(new Corruption(entry, entry1.getOffset(),
+              delta + " unused bytes between " + entry1.getName() + '(' + Integer.toHexString(entry1.getOffset())
+                  + "h)" + " and " + entry2.getName() + '(' + Integer.toHexString(entry2.getOffset()) + "h)"));
         }
         // Using max() as shared data regions may confuse the consistency check algorithm
         offset = Math.max(offset, entry2.getOffset() + entry2.getSize());
@@ -239,10 +245,8 @@ private void search(ResourceEntry entry, AbstractStruct struct) {
     }
     StructEntry last = flatList.get(flatList.size() - 1);
     if (last.getName().equals(AbstractStruct.COMMON_UNUSED_BYTES)) {
-      synchronized (table) {
-        table.addTableItem(new Corruption(entry, last.getOffset(), last.getSize() + " unused bytes after "
-            + entry1.getName() + '(' + Integer.toHexString(entry1.getOffset()) + "h)"));
-      }
+      sink.accept(new Corruption(entry, last.getOffset(), last.getSize() + " unused bytes after "
+          + entry1.getName() + '(' + Integer.toHexString(entry1.getOffset()) + "h)"));
     }
 
     // Checking signature and version fields
@@ -253,15 +257,11 @@ private void search(ResourceEntry entry, AbstractStruct struct) {
         String ver = struct.getAttribute(AbstractStruct.COMMON_VERSION).toString();
         if (!info.isVersion(ver)) {
           // invalid version?
-          synchronized (table) {
-            table.addTableItem(new Corruption(entry, 4, "Unsupported or invalid version: \"" + ver + "\""));
-          }
+          sink.accept(new Corruption(entry, 4, "Unsupported or invalid version: \"" + ver + "\""));
         }
       } else {
         // invalid signature?
-        synchronized (table) {
-          table.addTableItem(new Corruption(entry, 0, "Invalid signature: \"" + sig + "\""));
-        }
+        sink.accept(new Corruption(entry, 0, "Invalid signature: \"" + sig + "\""));
       }
     }
 
@@ -309,43 +309,29 @@ private void search(ResourceEntry entry, AbstractStruct struct) {
       if (field instanceof SectionOffset) {
         final SectionOffset so = (SectionOffset) field;
         if (so.getValue() + ofsOffset < headerSize) {
-          synchronized (table) {
-            table.addTableItem(new Corruption(entry, so.getOffset(),
-                "Offset field points to header data (field name: \"" + so.getName() + "\", offset: "
-                    + Integer.toHexString(so.getValue()) + "h, header size: "
-                    + Integer.toHexString(headerSize - ofsOffset) + "h)"));
-          }
+          sink.accept(new Corruption(entry, so.getOffset(),
+              "Offset field points to header data (field name: \"" + so.getName() + "\", offset: "
+                  + Integer.toHexString(so.getValue()) + "h, header size: "
+                  + Integer.toHexString(headerSize - ofsOffset) + "h)"));
         } else if (so.getValue() + ofsOffset > struct.getSize()) {
-          synchronized (table) {
-            table.addTableItem(new Corruption(entry, so.getOffset(),
-                "Offset field value is out of range (field name: \"" + so.getName() + "\", offset: "
-                    + Integer.toHexString(so.getValue()) + "h, resource size: "
-                    + Integer.toHexString(struct.getSize() - ofsOffset) + "h)"));
-          }
+          sink.accept(new Corruption(entry, so.getOffset(),
+              "Offset field value is out of range (field name: \"" + so.getName() + "\", offset: "
+                  + Integer.toHexString(so.getValue()) + "h, resource size: "
+                  + Integer.toHexString(struct.getSize() - ofsOffset) + "h)"));
         }
       }
     }
 
     // Type-specific checks
     if (entry.getExtension().equalsIgnoreCase("WED")) {
-      List<Corruption> list = getWedCorruption(entry, struct);
-      synchronized (table) {
-        for (Corruption corruption : list) {
-          table.addTableItem(corruption);
-        }
-      }
+      getWedCorruption(entry, struct).forEach(sink);
     } else if (entry.getExtension().equalsIgnoreCase("STO")) {
-      List<Corruption> list = getStoCorruption(entry, struct);
-      synchronized (table) {
-        for (Corruption corruption : list) {
-          table.addTableItem(corruption);
-        }
-      }
+      getStoCorruption(entry, struct).forEach(sink);
     }
   }
 
   // Checking for invalid trigger strings in STO V1.1 resources
-  private List<Corruption> getStoCorruption(ResourceEntry entry, AbstractStruct struct) {
+  private static List<Corruption> getStoCorruption(ResourceEntry entry, AbstractStruct struct) {
     final List<Corruption> list = new ArrayList<>();
     if (entry.getExtension().equalsIgnoreCase("STO")) {
       String version = ((IsTextual) struct.getAttribute(AbstractStruct.COMMON_VERSION)).getText();
@@ -376,7 +362,7 @@ private List<Corruption> getStoCorruption(ResourceEntry entry, AbstractStruct st
   }
 
   // Checking for WED-specific corruptions
-  private List<Corruption> getWedCorruption(ResourceEntry entry, AbstractStruct struct) {
+  private static List<Corruption> getWedCorruption(ResourceEntry entry, AbstractStruct struct) {
     final List<Corruption> list = new ArrayList<>();
     if (entry.getExtension().equalsIgnoreCase("WED")) {
       final int ovlSize = 0x18; // size of an Overlay structure
@@ -571,7 +557,8 @@ private ResourceEntry getResourceEntryAt(int row) {
 
   // -------------------------- INNER CLASSES --------------------------
 
-  private static final class Corruption implements TableItem {
+  /** Describes a corruption of a structured resource. */
+  static final class Corruption implements TableItem {
     private final ResourceEntry resourceEntry;
     private final int offset;
     private final String offsetString;
@@ -603,7 +590,6 @@ public int getOffset() {
       return offset;
     }
 
-    @SuppressWarnings("unused")
     public String getMessage() {
       return errorMsg;
     }
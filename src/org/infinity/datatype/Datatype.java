@@ -107,6 +107,9 @@ public String getName() {
   public void setName(String newName) {
     if (newName != null) {
       name = newName;
+      if (parent != null) {
+        parent.fieldChanged();
+      }
     } else {
       throw new NullPointerException("Name of struct field must not be null");
     }
@@ -140,6 +143,9 @@ public List<StructEntry> getStructChain() {
   @Override
   public void setOffset(int newoffset) {
     offset = newoffset;
+    if (parent != null) {
+      parent.fieldChanged();
+    }
   }
 
   @Override
@@ -12,7 +12,6 @@
 import java.awt.Dialog;
 import java.awt.FlowLayout;
 import java.awt.Font;
-import java.awt.Graphics2D;
 import java.awt.GridBagConstraints;
 import java.awt.GridBagLayout;
 import java.awt.Insets;
@@ -40,7 +39,6 @@
 import java.util.List;
 import java.util.Locale;
 import java.util.Set;
-import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.regex.Pattern;
@@ -65,6 +63,7 @@
 import javax.swing.ProgressMonitor;
 import javax.swing.ScrollPaneConstants;
 import javax.swing.SwingUtilities;
+import javax.swing.Timer;
 import javax.swing.UIManager;
 import javax.swing.event.DocumentEvent;
 import javax.swing.event.DocumentListener;
@@ -107,6 +106,7 @@
 import org.infinity.util.Misc;
 import org.infinity.util.StaticSimpleXorDecryptor;
 import org.infinity.util.Threading;
+import org.infinity.util.WorkScheduler;
 import org.infinity.util.io.FileEx;
 import org.infinity.util.io.FileManager;
 import org.infinity.util.io.StreamUtils;
@@ -114,6 +114,9 @@
 
 public final class MassExporter extends ChildFrame implements ActionListener, ListSelectionListener, DocumentListener, Runnable {
   private static final String FMT_PROGRESS = "Processing resource %d/%d";
+
+  /** Interval (in ms) for updating the progress dialog. */
+  private static final int PROGRESS_INTERVAL = 100;
   private static final String LABEL_EXPORT_DEFAULT  = "Export";
   private static final String LABEL_EXPORT_FILTER   = "Export...";
 
@@ -150,8 +153,7 @@ public final class MassExporter extends ChildFrame implements ActionListener, Li
 
   private Path outputPath;
   private List<String> selectedTypes;
-  private ProgressMonitor progress;
-  private int progressIndex;
+  private volatile ProgressMonitor progress;
   private List<ResourceEntry> selectedFiles;
   private Pattern pattern;
 
@@ -269,45 +271,33 @@ public void run() {
         return;
       }
 
-      // executing multithreaded search
+      // executing multithreaded export
       boolean isCancelled = false;
-      try (final Threading threadPool = new Threading()) {
-        progress = new ProgressMonitor(parentComponent, "Exporting...",
-            String.format(FMT_PROGRESS, getResourceCount(), getResourceCount()), 0, selectedFiles.size());
-        progress.setMillisToDecideToPopup(0);
-        progress.setMillisToPopup(0);
-        progress.setProgress(0);
-        progress.setNote(String.format(FMT_PROGRESS, 0, getResourceCount()));
+      progress = new ProgressMonitor(parentComponent, "Exporting...",
+          String.format(FMT_PROGRESS, getResourceCount(), getResourceCount()), 0, selectedFiles.size());
+      progress.setMillisToDecideToPopup(0);
+      progress.setMillisToPopup(0);
+      progress.setProgress(0);
+      progress.setNote(String.format(FMT_PROGRESS, 0, getResourceCount()));
+
+      // progress is polled instead of being pushed by the workers
+      final WorkScheduler scheduler = new WorkScheduler(Threading.Priority.NORMAL, true);
+      final WorkScheduler.CancellationToken token = new WorkScheduler.CancellationToken();
+      final Timer timer = new Timer(PROGRESS_INTERVAL, e -> updateProgress(scheduler.getCompletedCount(), token));
+      timer.start();
+      try {
         DebugTimer.getInstance().timerReset();
-        for (int i = 0, count = getResourceCount(); i < count; i++) {
-          threadPool.submit(new Worker(selectedFiles.get(i)));
-          if (progress.isCanceled()) {
-            isCancelled = true;
-            break;
-          }
-        }
-
-        // enforcing thread termination if process has been cancelled
-        if (isCancelled) {
-          threadPool.shutdownNow();
-        } else {
-          threadPool.shutdown();
-        }
-
-        // waiting for pending threads to terminate
-        while (!threadPool.isTerminated()) {
-          if (!isCancelled && progress.isCanceled()) {
-            isCancelled = true;
-            threadPool.shutdownNow();
-          }
-          try {
-            threadPool.awaitTermination(10L, TimeUnit.MILLISECONDS);
-          } catch (InterruptedException e) {
-            Logger.trace(e);
+        // large resources first, so that they don't delay completion of the export at the end
+        isCancelled = scheduler.execute(selectedFiles, entry -> {
+          if (entry != null) {
+            export(entry);
           }
-        }
-      } catch (Exception e) {
+        }, token, ResourceEntry::getResourceSize);
+      } catch (InterruptedException e) {
         Logger.trace(e);
+        isCancelled = true;
+      } finally {
+        timer.stop();
       }
 
       if (isCancelled) {
@@ -319,7 +309,7 @@ public void run() {
             JOptionPane.INFORMATION_MESSAGE);
       }
     } finally {
-      advanceProgress(true);
+      closeProgress();
       if (selectedFiles != null) {
         selectedFiles.clear();
       }
@@ -634,20 +624,25 @@ private void updateTextFieldColor(JTextField tf) {
     }
   }
 
-  private synchronized void advanceProgress(boolean finished) {
-    if (progress != null) {
-      if (finished) {
-        progressIndex = 0;
+  // Updates the progress dialog and forwards cancel requests; called by the progress timer
+  private void updateProgress(int progressIndex, WorkScheduler.CancellationToken token) {
+    final ProgressMonitor monitor = progress;
+    if (monitor != null) {
+      if (monitor.isCanceled()) {
+        token.cancel();
+      }
+      monitor.setNote(String.format(FMT_PROGRESS, progressIndex, getResourceCount()));
+      monitor.setProgress(progressIndex);
+    }
+  }
+
+  private void closeProgress() {
+    Threading.invokeInEventThread(() -> {
+      if (progress != null) {
         progress.close();
         progress = null;
-      } else {
-        progressIndex++;
-        if (getResourceCount() < 50 || progressIndex % 10 == 0) {
-          progress.setNote(String.format(FMT_PROGRESS, progressIndex, getResourceCount()));
-        }
-        progress.setProgress(progressIndex);
       }
-    }
+    });
   }
 
   private void exportText(ResourceEntry entry, Class<? extends Resource> resourceType, Path output) throws Exception {
@@ -763,7 +758,7 @@ private void tisToPng(ResourceEntry entry, Path output) throws Exception {
         return;
       }
 
-      TisDecoder decoder = TisDecoder.loadTis(entry);
+      final TisDecoder decoder = TisDecoder.loadTis(entry);
       if (decoder != null) {
         int tileCount = decoder.getTileCount();
         int columns = TisConvert.calcTilesetWidth(entry, true, 1);
@@ -772,26 +767,18 @@ private void tisToPng(ResourceEntry entry, Path output) throws Exception {
           rows++;
         }
 
-        BufferedImage tile = ColorConvert.createCompatibleImage(64, 64, Transparency.BITMASK);
-        BufferedImage image = ColorConvert.createCompatibleImage(64 * columns, 64 * rows, Transparency.BITMASK);
+        final BufferedImage image = ColorConvert.createCompatibleImage(64 * columns, 64 * rows, Transparency.BITMASK);
         try {
-          Graphics2D g = image.createGraphics();
-          try {
-            for (int i = 0; i < tileCount; i++) {
-              int x = 64 * (i % columns);
-              int y = 64 * (i / columns);
-              decoder.getTile(i, tile);
-              g.drawImage(tile, x, y, null);
+          final int[] tile = new int[64 * 64];
+          for (int i = 0; i < tileCount; i++) {
+            if (decoder.getTileData(i, tile)) {
+              image.setRGB(64 * (i % columns), 64 * (i / columns), 64, 64, tile, 0, 64);
             }
-          } finally {
-            g.dispose();
-            g = null;
           }
-          ImageIO.write(image, "png", output.toFile());
         } finally {
-          tile = null;
-          image = null;
+          decoder.close();
         }
+        ImageIO.write(image, "png", output.toFile());
       } else {
         throw new Exception(String.format("Error loading resource: %s", entry.getResourceName()));
       }
@@ -1279,22 +1266,4 @@ private void init() {
     Center.center(this, NearInfinity.getInstance().getBounds());
     setVisible(true);
   }
-
-  // -------------------------- INNER CLASSES --------------------------
-
-  private class Worker implements Runnable {
-    private final ResourceEntry entry;
-
-    public Worker(ResourceEntry entry) {
-      this.entry = entry;
-    }
-
-    @Override
-    public void run() {
-      if (entry != null) {
-        export(entry);
-      }
-      advanceProgress(false);
-    }
-  }
 }
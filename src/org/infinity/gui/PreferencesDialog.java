@@ -91,6 +91,7 @@
 import org.infinity.gui.options.OptionPathBox;
 import org.infinity.icon.Icons;
 import org.infinity.resource.Profile;
+import org.infinity.resource.key.AbstractBIFFReader;
 import org.infinity.util.Logger;
 import org.infinity.util.Misc;
 import org.infinity.util.Platform;
@@ -182,6 +183,21 @@ public String toString() {
                       + "<p>If this option is disabled then Near Infinity will only check for the existence of overridden "
                       + "resources after opening a new game or using the command \"Refresh Tree\" (Shortcut: <code>F5</code>).</p>",
                       AppOption.CACHE_OVERRIDE),
+                  OptionCheckBox.create(AppOption.WATCH_OVERRIDE.getName(), AppOption.WATCH_OVERRIDE.getLabel(),
+                      "With this option enabled Near Infinity watches the override folders of the game for added, "
+                      + "modified or removed files and updates the resource tree automatically."
+                      + "<p>This is useful when mods are installed while the game is open in Near Infinity. Changes "
+                      + "in BIFF archives or KEY files still require the command \"Refresh Tree\" "
+                      + "(Shortcut: <code>F5</code>).</p>"
+                      + "<p>You may need to refresh the game (Shortcut: <code>F5</code>) for the option to take effect.</p>",
+                      AppOption.WATCH_OVERRIDE),
+                  OptionGroupBox.create(AppOption.BIFF_CACHE_LIMIT.getName(), AppOption.BIFF_CACHE_LIMIT.getLabel(),
+                      "Specify the max. number of BIFF files Near Infinity keeps open for accessing resources."
+                      + "<p>Least recently used BIFF files are closed when the limit is exceeded. Higher values speed up "
+                      + "searches and checks over many resources at the cost of more open file handles.</p>"
+                      + "<p><strong>Default:</strong> " + AbstractBIFFReader.DEFAULT_CACHE_LIMIT + "</p>",
+                      0, new DataItem<?>[0], AppOption.BIFF_CACHE_LIMIT)
+                  .setOnInit(this::biffCacheLimitOnInit).setOnAccept(this::biffCacheLimitOnAccept),
                   OptionCheckBox.create(AppOption.IDS_SYMBOL_DISPLAY.getName(), AppOption.IDS_SYMBOL_DISPLAY.getLabel(),
                       "With this option enabled IDS entries with multiple symbolic names will display the last available "
                       + "symbol in scripts, effects, and other resources."
@@ -1346,6 +1362,32 @@ private boolean weiduPathOnChanged(OptionPathBox pb) {
     return true;
   }
 
+  /** onInit() function for {@link AppOption#BIFF_CACHE_LIMIT}. */
+  private void biffCacheLimitOnInit(OptionGroupBox gb) {
+    gb.clearItems();
+    final int selectedLimit = gb.getOption().getIntValue();
+    final int[] limits = OptionsMenuItem.getBiffCacheLimits();
+    for (int i = 0; i < limits.length; i++) {
+      final String msg = limits[i] + (limits[i] == AbstractBIFFReader.DEFAULT_CACHE_LIMIT ? " (Default)" : "");
+      gb.addItem(new DataItem<>(msg, limits[i]));
+      if (limits[i] == selectedLimit) {
+        gb.setSelectedIndex(i);
+      }
+    }
+  }
+
+  /** onAccept() function for {@link AppOption#BIFF_CACHE_LIMIT}. */
+  private void biffCacheLimitOnAccept(OptionGroupBox gb) {
+    try {
+      @SuppressWarnings("unchecked")
+      final DataItem<Integer> item = (DataItem<Integer>) gb.getItem(gb.getSelectedIndex());
+      gb.getOption().setValue(item.getData());
+      AbstractBIFFReader.setCacheLimit(gb.getOption().getIntValue());
+    } catch (IndexOutOfBoundsException e) {
+      Logger.error(e);
+    }
+  }
+
   /** onCreated() function for {@link AppOption#TABLE_SHOW_OFFSETS}. */
   private void showOffsetsOnCreated(OptionCheckBox cb) {
     final OptionBase optionOffsetsRelative = optionRoot.findOption(OptionsMenuItem.OPTION_SHOWOFFSETSRELATIVE);
@@ -80,6 +80,7 @@ public class StringEditor extends ChildFrame implements SearchClient {
   private final Listeners listeners = new Listeners();
   private final JTabbedPane tabPane = new JTabbedPane(SwingConstants.TOP);
   private final ButtonPopupMenu bpmFind = new ButtonPopupMenu("Find...", ButtonPopupMenu.Align.TOP);
+  private final ButtonPopupMenu bpmImport = new ButtonPopupMenu("Import...", ButtonPopupMenu.Align.TOP);
   private final ButtonPopupMenu bpmExport = new ButtonPopupMenu("Export...", ButtonPopupMenu.Align.TOP);
   private final ButtonPopupMenu bpmRevert = new ButtonPopupMenu("Revert...", ButtonPopupMenu.Align.TOP);
   private final JButton bAdd = new JButton("Add", Icons.ICON_ADD_16.getIcon());
@@ -89,6 +90,7 @@ public class StringEditor extends ChildFrame implements SearchClient {
   private final JMenuItem miFindAttribute = new JMenuItem("selected attribute");
   private final JMenuItem miFindString = new JMenuItem("string");
   private final JMenuItem miFindRef = new JMenuItem("references to this entry");
+  private final JMenuItem miImportTra = new JMenuItem("from TRA file");
   private final JMenuItem miExportTra = new JMenuItem("as TRA file");
   private final JMenuItem miExportTxt = new JMenuItem("as TXT file");
   private final JMenuItem miRevertLast = new JMenuItem("last operation");
@@ -264,6 +266,10 @@ private void initUI() {
     bpmFind.setMenuItems(new JMenuItem[] { miFindAttribute, miFindString, miFindRef }, false);
     bpmFind.setIcon(Icons.ICON_FIND_16.getIcon());
     bpmFind.addItemListener(listeners);
+    miImportTra.setToolTipText("Imports strings from WeiDU TRA file into male and female string table");
+    bpmImport.setMenuItems(new JMenuItem[] { miImportTra }, false);
+    bpmImport.setIcon(Icons.ICON_IMPORT_16.getIcon());
+    bpmImport.addItemListener(listeners);
     miExportTra.setToolTipText("Exports male and female string table into WeiDU TRA file");
     miExportTxt.setToolTipText("Exports selected string table into text file");
     bpmExport.setMenuItems(new JMenuItem[] { miExportTxt, miExportTra }, false);
@@ -346,6 +352,7 @@ private void initUI() {
     pBottomMain.add(bDelete);
     pBottomMain.add(bpmFind);
     pBottomMain.add(bpmRevert);
+    pBottomMain.add(bpmImport);
     pBottomMain.add(bpmExport);
     pBottomMain.add(bSave);
 
@@ -859,6 +866,40 @@ private void exportTra() {
     StringTable.exportTra(outFile, pt);
   }
 
+  private void importTra() {
+    String dlgFile = StringTable.getPath().getFileName().toString();
+
+    JFileChooser fc = new JFileChooser(Profile.getGameRoot().toFile());
+    fc.setDialogTitle("Import translation file");
+    fc.setFileFilter(new FileNameExtensionFilter("TRA files", "tra"));
+    fc.setFileSelectionMode(JFileChooser.FILES_ONLY);
+    if (fc.showOpenDialog(this) != JFileChooser.APPROVE_OPTION) {
+      return;
+    }
+
+    final String[] options = { "Merge", "Replace", "Cancel" };
+    int choice = JOptionPane.showOptionDialog(this,
+        "Merge imported strings into the string table or replace all existing strings?", "Import translation file",
+        JOptionPane.YES_NO_CANCEL_OPTION, JOptionPane.QUESTION_MESSAGE, null, options, options[0]);
+    if (choice != 0 && choice != 1) {
+      return;
+    }
+
+    Path inFile = fc.getSelectedFile().toPath();
+    ProgressTracker pt = new ProgressTracker("Importing " + inFile.getFileName(), "File imported successfully",
+        "Error while importing into " + dlgFile);
+    if (StringTable.importTra(inFile, choice == 1, pt)) {
+      // entries and their indices may have changed
+      int index = getSelectedIndex();
+      selectedIndex = -1;
+      selectedEntry = null;
+      clearUndo();
+      updateUI(getSelectedDialogType());
+      updateModifiedUI(null);
+      showEntry(index);
+    }
+  }
+
   // -------------------------- INNER CLASSES --------------------------
 
   private class Listeners implements ActionListener, ListSelectionListener, ItemListener, ChangeListener,
@@ -977,6 +1018,21 @@ protected Void doInBackground() throws Exception {
               return null;
             }
           }.execute();
+        } else if (item == miImportTra) {
+          updateEntry(getSelectedEntry());
+          new SwingWorker<Void, Void>() {
+            @Override
+            protected Void doInBackground() throws Exception {
+              WindowBlocker blocker = new WindowBlocker(StringEditor.this);
+              try {
+                blocker.setBlocked(true);
+                importTra();
+              } finally {
+                blocker.setBlocked(false);
+              }
+              return null;
+            }
+          }.execute();
         } else if (item == miExportTra) {
           updateEntry(getSelectedEntry());
           new SwingWorker<Void, Void>() {
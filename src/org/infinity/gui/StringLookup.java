@@ -8,6 +8,8 @@
 import java.awt.GridBagConstraints;
 import java.awt.GridBagLayout;
 import java.awt.Insets;
+import java.util.Arrays;
+import java.util.stream.IntStream;
 
 import javax.swing.BorderFactory;
 import javax.swing.JPanel;
@@ -53,8 +55,13 @@ public StringLookup() {
     setSize(Misc.getScaledValue(540), Misc.getScaledValue(350));
     Center.center(this, NearInfinity.getInstance().getBounds());
 
-    // pre-caching string table to significantly reduce search time
-    new Thread(StringTable::ensureFullyLoaded).start();
+    // preparing full-text indices of the string tables to significantly reduce search time
+    new Thread(() -> {
+      StringTable.ensureIndexed(StringTable.Type.MALE);
+      if (StringTable.hasFemaleTable()) {
+        StringTable.ensureIndexed(StringTable.Type.FEMALE);
+      }
+    }).start();
   }
 
   /**
@@ -75,12 +82,20 @@ public void setStrref(int index) {
 
   // --------------------- Begin Interface SearchClient ---------------------
 
+  /** Returns the male string of the specified index, followed by the female string if it differs. */
   @Override
   public String getText(int index) {
     if (index < 0 || index >= StringTable.getNumEntries()) {
       return null;
     }
-    return StringTable.getStringRef(index);
+    final String text = StringTable.getStringRef(index);
+    if (StringTable.hasFemaleTable() && index < StringTable.getNumEntries(StringTable.Type.FEMALE)) {
+      final String textFemale = StringTable.getStringRef(StringTable.Type.FEMALE, index);
+      if (!text.equals(textFemale)) {
+        return text + '\n' + textFemale;
+      }
+    }
+    return text;
   }
 
   @Override
@@ -88,5 +103,22 @@ public void hitFound(int index) {
     strref.setValue(index);
   }
 
+  @Override
+  public int[] getCandidates(String term, boolean wholeWord) {
+    // decorated strings may contain matches outside of the string content
+    if (StringTable.getDisplayFormat() != StringTable.Format.NONE) {
+      return null;
+    }
+    final int[] candidates = StringTable.getSearchCandidates(StringTable.Type.MALE, term, wholeWord);
+    if (candidates == null || !StringTable.hasFemaleTable()) {
+      return candidates;
+    }
+    final int[] candidatesFemale = StringTable.getSearchCandidates(StringTable.Type.FEMALE, term, wholeWord);
+    if (candidatesFemale == null) {
+      return null;
+    }
+    return IntStream.concat(Arrays.stream(candidates), Arrays.stream(candidatesFemale)).sorted().distinct().toArray();
+  }
+
   // --------------------- End Interface SearchClient ---------------------
 }
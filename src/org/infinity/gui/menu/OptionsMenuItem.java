@@ -97,6 +97,9 @@ public String toString() {
   // List of predefined ui scaling factors (-1 indicates a custom value)
   private static final int[] UI_SCALING = { 100, 125, 133, 150, 175, 200, 250, 300, 400, -1 };
 
+  // List of predefined limits for the number of cached BIFF readers
+  private static final int[] BIFF_CACHE_LIMITS = { 64, 128, 256, 512, 1024, 2048 };
+
   /** BCS indentations to use when decompiling (indent, title). */
   private static final List<IndentInfo> BCS_INDENT = Arrays.asList(
       new IndentInfo("2 Spaces", "  "),
@@ -168,6 +171,8 @@ public String toString() {
   public static final String OPTION_SHOW_RESOURCE_TREE_ICONS  = "ShowResourceTreeIcons";
   public static final String OPTION_HIGHLIGHT_OVERRIDDEN      = "HighlightOverridden";
   public static final String OPTION_CACHEOVERRIDE             = "CacheOverride";
+  public static final String OPTION_WATCHOVERRIDE             = "WatchOverride";
+  public static final String OPTION_BIFFCACHELIMIT            = "BiffCacheLimit";
   public static final String OPTION_IDS_SYMBOL_DISPLAY        = "IdsSymbolDisplay";
   public static final String OPTION_OPEN_RESOURCE_TEXT_MENU   = "OpenResourceTextMenu";
   public static final String OPTION_OPEN_IDS_TEXT_MENU        = "OpenIdsTextMenu";
@@ -280,6 +285,11 @@ public static int[] getUiScalingFactors() {
     return Arrays.copyOf(UI_SCALING, UI_SCALING.length);
   }
 
+  /** Returns a copy of available limits for the "Max. Number of Open BIFF Files" option. */
+  public static int[] getBiffCacheLimits() {
+    return Arrays.copyOf(BIFF_CACHE_LIMITS, BIFF_CACHE_LIMITS.length);
+  }
+
   /** Returns a list of available fonts. {@code null} indicates to use a user-defined font. */
   public static List<Font> getFonts() {
     return Collections.unmodifiableList(FONTS);
@@ -327,6 +337,52 @@ public static String getGameLanguage(String definition, Profile.Game game) {
     return LANGUAGE_AUTODETECT;
   }
 
+  /**
+   * Returns the currently selected language for the current game. Returns empty string on autodetect.
+   *
+   * <p>
+   * Unlike {@link #getSelectedGameLanguage()} this method doesn't depend on an instance of the options menu.
+   * </p>
+   */
+  public static String getCurrentGameLanguage() {
+    final String languages = AppOption.GAME_LANGUAGES.getStringValue();
+    String lang = getGameLanguage(languages, Profile.getGame());
+    return lang.equalsIgnoreCase(LANGUAGE_AUTODETECT) ? "" : lang;
+  }
+
+  /**
+   * Returns the character encoding of the string table.
+   *
+   * <p>
+   * Unlike {@link #getSelectedCharset()} this method doesn't depend on an instance of the options menu.
+   * </p>
+   */
+  public static String getTextCharset() {
+    return getCharsetName(AppOption.TLK_CHARSET_TYPE.getStringValue());
+  }
+
+  /** Attempts to determine the correct charset for the current game. */
+  public static String getCharsetName(String charset) {
+    if (DEFAULT_CHARSET.equalsIgnoreCase(charset)) {
+      charset = Profile.getDefaultCharset().name();
+    } else {
+      charset = CharsetDetector.setCharset(charset);
+    }
+    return charset;
+  }
+
+  /**
+   * Returns the selected indentation for BCS resources as literal string.
+   *
+   * <p>
+   * Unlike {@link #getBcsIndent()} this method doesn't depend on an instance of the options menu.
+   * </p>
+   */
+  public static String getBcsIndentation() {
+    int idx = AppOption.BCS_INDENT.getIntValue();
+    return BCS_INDENT.get(idx).getIndentation();
+  }
+
   /** Adds or updates the Game/Language pair in the formatted "definition" string. */
   public static String updateGameLanguages(String definition, Profile.Game game, String langCode) {
     if (game != null && langCode != null) {
@@ -537,12 +593,7 @@ public boolean showPreferencesDialog(Window owner) {
 
   /** Attempts to determine the correct charset for the current game. */
   public String charsetName(String charset) {
-    if (DEFAULT_CHARSET.equalsIgnoreCase(charset)) {
-      charset = Profile.getDefaultCharset().name();
-    } else {
-      charset = CharsetDetector.setCharset(charset);
-    }
-    return charset;
+    return getCharsetName(charset);
   }
 
   public void gameLoaded() {
@@ -604,6 +655,16 @@ public boolean cacheOverride() {
     return AppOption.CACHE_OVERRIDE.getBoolValue();
   }
 
+  /** Returns whether the "Watch Override Folders for Changes" option is enabled. */
+  public boolean watchOverride() {
+    return AppOption.WATCH_OVERRIDE.getBoolValue();
+  }
+
+  /** Returns the max. number of BIFF files that are kept open. */
+  public int getBiffCacheLimit() {
+    return AppOption.BIFF_CACHE_LIMIT.getIntValue();
+  }
+
   /**
    * Returns whether the last available symbolic name of an IDS entry is used for display if multiple definitions are
    * available.
@@ -798,8 +859,7 @@ public boolean getBcsAutoIndentEnabled() {
 
   /** Returns the selected indentation for BCS resources as literal string. */
   public String getBcsIndent() {
-    int idx = AppOption.BCS_INDENT.getIntValue();
-    return BCS_INDENT.get(idx).getIndentation();
+    return getBcsIndentation();
   }
 
   /** Returns state of "BCS: Enable Syntax Highlighting" */
@@ -1059,14 +1119,12 @@ public boolean isCharsetAvailable(String charset) {
 
   /** Returns the character encoding of the string table. */
   public String getSelectedCharset() {
-    return charsetName(AppOption.TLK_CHARSET_TYPE.getStringValue());
+    return getTextCharset();
   }
 
   /** Returns the currently selected game language. Returns empty string on autodetect. */
   public String getSelectedGameLanguage() {
-    final String languages = AppOption.GAME_LANGUAGES.getStringValue();
-    String lang = getGameLanguage(languages, Profile.getGame());
-    return lang.equalsIgnoreCase(LANGUAGE_AUTODETECT) ? "" : lang;
+    return getCurrentGameLanguage();
   }
 
   /** Returns defValue if masked bit is clear or value if masked bit is already set. */
@@ -77,6 +77,7 @@ public class ToolsMenu extends JMenu implements BrowserSubMenu, ActionListener {
 
   private final JMenuItem toolCheckStringUse;
   private final JMenuItem toolCheckStringDuplicates;
+  private final JMenuItem toolCheckStringNearDuplicates;
   private final JMenuItem toolCheckStringSounds;
   private final JMenuItem toolCheckStringValid;
   private final JMenuItem toolCheckStringIndex;
@@ -177,9 +178,16 @@ public ToolsMenu(BrowserMenuBar parent) {
         Icons.ICON_FIND_16.getIcon(), -1, this);
     checkMenu.add(toolCheckStringSounds);
 
-    toolCheckStringDuplicates = BrowserMenuBar.makeMenuItem("For Duplicate Strings", KeyEvent.VK_D,
-        Icons.ICON_FIND_16.getIcon(), -1, this);
-    checkMenu.add(toolCheckStringDuplicates);
+    final JMenu duplicatesMenu = new JMenu("For Duplicate Strings");
+    duplicatesMenu.setIcon(Icons.ICON_FIND_16.getIcon());
+    duplicatesMenu.setMnemonic(KeyEvent.VK_D);
+    toolCheckStringDuplicates = new JMenuItem("Exact Matches");
+    toolCheckStringDuplicates.addActionListener(this);
+    duplicatesMenu.add(toolCheckStringDuplicates);
+    toolCheckStringNearDuplicates = new JMenuItem("Ignoring Case and Whitespace");
+    toolCheckStringNearDuplicates.addActionListener(this);
+    duplicatesMenu.add(toolCheckStringNearDuplicates);
+    checkMenu.add(duplicatesMenu);
 
     toolCheckStringValid = BrowserMenuBar.makeMenuItem("For String Encoding Errors", KeyEvent.VK_E,
         Icons.ICON_FIND_16.getIcon(), -1, this);
@@ -380,7 +388,9 @@ public void windowClosing(WindowEvent e) {
     } else if (event.getSource() == toolCheckStringSounds) {
       new StringSoundsChecker(NearInfinity.getInstance());
     } else if (event.getSource() == toolCheckStringDuplicates) {
-      new StringDuplicatesChecker(NearInfinity.getInstance());
+      new StringDuplicatesChecker(false, NearInfinity.getInstance());
+    } else if (event.getSource() == toolCheckStringNearDuplicates) {
+      new StringDuplicatesChecker(true, NearInfinity.getInstance());
     } else if (event.getSource() == toolCheckStringValid) {
       new StringValidationChecker(NearInfinity.getInstance());
     } else if (event.getSource() == toolCheckStringIndex) {
@@ -12,6 +12,8 @@
 import java.io.OutputStream;
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
@@ -20,6 +22,8 @@
 import java.util.ListIterator;
 import java.util.Map;
 import java.util.Objects;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
@@ -79,6 +83,9 @@ public abstract class AbstractStruct extends AbstractTableModel
   /** Identifies the intention to removal of rows or columns. */
   public static final int WILL_BE_DELETE = -2;
 
+  /** Min. number of fields of a structure to maintain a lookup index for {@code getAttribute()} calls. */
+  private static final int MIN_INDEXED_FIELDS = 16;
+
   private List<StructEntry> fields;
   private AbstractStruct superStruct;
   private Map<Class<? extends StructEntry>, SectionCount> countmap;
@@ -103,6 +110,15 @@ public abstract class AbstractStruct extends AbstractTableModel
   private StructViewer viewer;
   private boolean structChanged;
 
+  /** Lookup index of the fields, built on demand. */
+  private volatile FieldIndex fieldIndex;
+
+  /**
+   * Modification counter of the structure tree. Only maintained by top-level structures. Invalidates the lookup
+   * indices of all structures in the tree.
+   */
+  private volatile int layoutVersion;
+
   /** Offset of the first byte in serialized format of this struct. */
   private int startoffset;
 
@@ -176,7 +192,7 @@ protected AbstractStruct(ResourceEntry entry) throws Exception {
   protected AbstractStruct(ResourceEntry entry, Object extraData) throws Exception {
     this.entry = entry;
     this.extraData = extraData;
-    fields = new ArrayList<>();
+    fields = new FieldList(10);
     name = entry.getResourceName();
     ByteBuffer bb = entry.getResourceBuffer();
     endoffset = read(bb, 0);
@@ -193,7 +209,7 @@ protected AbstractStruct(AbstractStruct superStruct, String name, int startoffse
     this.superStruct = superStruct;
     this.name = name;
     this.startoffset = startoffset;
-    fields = new ArrayList<>(listSize);
+    fields = new FieldList(listSize);
   }
 
   protected AbstractStruct(AbstractStruct superStruct, String name, ByteBuffer buffer, int startoffset)
@@ -242,7 +258,8 @@ public int compareTo(StructEntry o) {
   public AbstractStruct clone() throws CloneNotSupportedException {
     final AbstractStruct newstruct = (AbstractStruct) super.clone();
     newstruct.superStruct = null;
-    newstruct.fields = new ArrayList<>(fields.size());
+    newstruct.fields = newstruct.new FieldList(fields.size());
+    newstruct.fieldIndex = null;
     newstruct.viewer = null;
     for (final StructEntry e : fields) {
       newstruct.fields.add(e.clone());
@@ -272,6 +289,7 @@ public String getName() {
   public void setName(String newName) {
     if (newName != null) {
       name = newName;
+      fieldChanged();
     } else {
       throw new NullPointerException();
     }
@@ -327,6 +345,7 @@ public void setOffset(int newoffset) {
     int delta = getSize();
     startoffset = newoffset;
     endoffset = newoffset + delta;
+    fieldChanged();
   }
 
   @Override
@@ -730,6 +749,11 @@ public StructEntry getAttribute(String ename, boolean recursive) {
 
   private static <T extends StructEntry> T getAttribute(AbstractStruct parent, int offset, Class<T> type,
       boolean recursive) {
+    final FieldIndex index = parent.getFieldIndex();
+    if (index != null) {
+      return index.find(offset, type, recursive);
+    }
+
     for (final StructEntry field : parent.fields) {
       final int off = field.getOffset();
       T result = null;
@@ -753,6 +777,11 @@ private static <T extends StructEntry> T getAttribute(AbstractStruct parent, int
 
   private static StructEntry getAttribute(AbstractStruct parent, String name, boolean recursive) {
     if (name != null && !name.isEmpty()) {
+      final FieldIndex index = parent.getFieldIndex();
+      if (index != null) {
+        return index.find(name, recursive);
+      }
+
       for (StructEntry field : parent.fields) {
         StructEntry result = null;
         if (field.getName().equals(name)) {
@@ -773,6 +802,38 @@ private static StructEntry getAttribute(AbstractStruct parent, String name, bool
     return null;
   }
 
+  /**
+   * Notifies the structure that offset, size or name of one of its fields has changed. This method is called
+   * automatically if fields are added or removed, or if offset or name of a {@link Datatype} is modified.
+   */
+  public void fieldChanged() {
+    AbstractStruct root = this;
+    while (root.superStruct != null) {
+      root = root.superStruct;
+    }
+    root.layoutVersion++;
+  }
+
+  // Returns the lookup index of the fields if available, null otherwise
+  private FieldIndex getFieldIndex() {
+    if (fields.size() < MIN_INDEXED_FIELDS) {
+      return null;
+    }
+
+    AbstractStruct root = this;
+    while (root.superStruct != null) {
+      root = root.superStruct;
+    }
+    final int version = root.layoutVersion;
+
+    FieldIndex index = fieldIndex;
+    if (index == null || index.root != root || index.version != version) {
+      index = new FieldIndex(this, root, version);
+      fieldIndex = index;
+    }
+    return index.isAvailable() ? index : null;
+  }
+
   public int getEndOffset() {
     return endoffset;
   }
@@ -1316,4 +1377,325 @@ public void removePropertyChangeListener(PropertyChangeListener listener) {
   public void propertyChange(PropertyChangeEvent evt) {
     changeSupport.firePropertyChange(evt);
   }
+
+  // -------------------------- INNER CLASSES --------------------------
+
+  /** List of fields which invalidates the lookup indices of the structure tree on modification. */
+  private final class FieldList extends ArrayList<StructEntry> {
+    public FieldList(int initialCapacity) {
+      super(initialCapacity);
+    }
+
+    @Override
+    public boolean add(StructEntry e) {
+      fieldChanged();
+      return super.add(e);
+    }
+
+    @Override
+    public void add(int index, StructEntry element) {
+      fieldChanged();
+      super.add(index, element);
+    }
+
+    @Override
+    public boolean addAll(Collection<? extends StructEntry> c) {
+      fieldChanged();
+      return super.addAll(c);
+    }
+
+    @Override
+    public boolean addAll(int index, Collection<? extends StructEntry> c) {
+      fieldChanged();
+      return super.addAll(index, c);
+    }
+
+    @Override
+    public StructEntry set(int index, StructEntry element) {
+      fieldChanged();
+      return super.set(index, element);
+    }
+
+    @Override
+    public StructEntry remove(int index) {
+      fieldChanged();
+      return super.remove(index);
+    }
+
+    @Override
+    public boolean remove(Object o) {
+      fieldChanged();
+      return super.remove(o);
+    }
+
+    @Override
+    public boolean removeAll(Collection<?> c) {
+      fieldChanged();
+      return super.removeAll(c);
+    }
+
+    @Override
+    public boolean retainAll(Collection<?> c) {
+      fieldChanged();
+      return super.retainAll(c);
+    }
+
+    @Override
+    public boolean removeIf(Predicate<? super StructEntry> filter) {
+      fieldChanged();
+      return super.removeIf(filter);
+    }
+
+    @Override
+    protected void removeRange(int fromIndex, int toIndex) {
+      fieldChanged();
+      super.removeRange(fromIndex, toIndex);
+    }
+
+    @Override
+    public void replaceAll(UnaryOperator<StructEntry> operator) {
+      fieldChanged();
+      super.replaceAll(operator);
+    }
+
+    @Override
+    public void sort(Comparator<? super StructEntry> c) {
+      fieldChanged();
+      super.sort(c);
+    }
+
+    @Override
+    public void clear() {
+      fieldChanged();
+      super.clear();
+    }
+  }
+
+  /**
+   * Lookup index for the fields of a single structure. Fields are indexed by name and by offset range. For recursive
+   * lookups the index also covers the names and offset ranges of all fields in nested structures.
+   *
+   * <p>
+   * The index is only valid for a specific state of the structure tree. It is built after a number of lookups without
+   * intermediate modifications to avoid overhead while a structure is being populated.
+   * </p>
+   */
+  private static final class FieldIndex {
+    /** Number of lookups with an unmodified structure tree before the index is built. */
+    private static final int MIN_LOOKUPS = 4;
+
+    private final AbstractStruct struct;
+    private final AbstractStruct root;
+    private final int version;
+
+    private int lookups;
+    // maps names to the first field in the list that is or contains a field of that name
+    private Map<String, Integer> names;
+    private Map<String, Integer> treeNames;
+    // offset ranges of the fields and of the whole subtrees of the fields
+    private RangeTable ranges;
+    private RangeTable treeRanges;
+
+    public FieldIndex(AbstractStruct struct, AbstractStruct root, int version) {
+      this.struct = struct;
+      this.root = root;
+      this.version = version;
+    }
+
+    /** Returns whether the index can be used for lookups. */
+    public synchronized boolean isAvailable() {
+      if (lookups < MIN_LOOKUPS) {
+        lookups++;
+      }
+      return lookups >= MIN_LOOKUPS;
+    }
+
+    public <T extends StructEntry> T find(int offset, Class<T> type, boolean recursive) {
+      final List<StructEntry> fields = struct.fields;
+      for (final int pos : getRanges(recursive).find(offset)) {
+        final StructEntry field = fields.get(pos);
+        final int off = field.getOffset();
+        T result = null;
+        if (offset >= off && offset < off + field.getSize() && type.isInstance(field)) {
+          result = type.cast(field);
+        }
+        if (recursive && field instanceof AbstractStruct) {
+          final T result2 = getAttribute((AbstractStruct) field, offset, type, recursive);
+          if (result2 != null) {
+            return result2;
+          }
+        }
+        if (result != null) {
+          return result;
+        }
+      }
+      return null;
+    }
+
+    public StructEntry find(String name, boolean recursive) {
+      final Integer pos = getNames(recursive).get(name);
+      if (pos == null) {
+        return null;
+      }
+      StructEntry field = struct.fields.get(pos);
+      final StructEntry result = field.getName().equals(name) ? field : null;
+      if (recursive && field instanceof AbstractStruct) {
+        field = getAttribute((AbstractStruct) field, name, recursive);
+        if (field != null) {
+          return field;
+        }
+      }
+      return result;
+    }
+
+    private synchronized Map<String, Integer> getNames(boolean recursive) {
+      if (recursive) {
+        if (treeNames == null) {
+          treeNames = new HashMap<>();
+          final List<StructEntry> fields = struct.fields;
+          for (int i = 0, count = fields.size(); i < count; i++) {
+            addNames(treeNames, fields.get(i), i);
+          }
+        }
+        return treeNames;
+      } else {
+        if (names == null) {
+          names = new HashMap<>();
+          final List<StructEntry> fields = struct.fields;
+          for (int i = 0, count = fields.size(); i < count; i++) {
+            names.putIfAbsent(fields.get(i).getName(), i);
+          }
+        }
+        return names;
+      }
+    }
+
+    private synchronized RangeTable getRanges(boolean recursive) {
+      if (recursive) {
+        if (treeRanges == null) {
+          treeRanges = new RangeTable(struct.fields, true);
+        }
+        return treeRanges;
+      } else {
+        if (ranges == null) {
+          ranges = new RangeTable(struct.fields, false);
+        }
+        return ranges;
+      }
+    }
+
+    // Associates the names of the field and all nested fields with the specified list position
+    private static void addNames(Map<String, Integer> map, StructEntry field, int pos) {
+      map.putIfAbsent(field.getName(), pos);
+      if (field instanceof AbstractStruct) {
+        for (final StructEntry child : ((AbstractStruct) field).fields) {
+          addNames(map, child, pos);
+        }
+      }
+    }
+  }
+
+  /** Offset ranges of a list of fields, sorted by start offset. */
+  private static final class RangeTable {
+    private static final int[] EMPTY = new int[0];
+
+    private final int[] starts;
+    // highest end offset of all ranges up to the respective position
+    private final int[] maxEnds;
+    private final int[] ends;
+    private final int[] positions;
+
+    /**
+     * Creates a range table for the specified fields.
+     *
+     * @param fields List of fields.
+     * @param nested Whether ranges include the ranges of all nested fields.
+     */
+    public RangeTable(List<StructEntry> fields, boolean nested) {
+      final int count = fields.size();
+      final long[] items = new long[count];
+      final int[] rangeEnds = new int[count];
+      int numItems = 0;
+      for (int i = 0; i < count; i++) {
+        final StructEntry field = fields.get(i);
+        long range = nested ? getExtent(field) : toRange(field.getOffset(), field.getOffset() + field.getSize());
+        final int start = (int) (range >> 32);
+        final int end = (int) range;
+        if (end > start) {
+          rangeEnds[i] = end;
+          items[numItems++] = ((long) start << 32) | i;
+        }
+      }
+      Arrays.sort(items, 0, numItems);
+
+      starts = new int[numItems];
+      ends = new int[numItems];
+      maxEnds = new int[numItems];
+      positions = new int[numItems];
+      int maxEnd = Integer.MIN_VALUE;
+      for (int i = 0; i < numItems; i++) {
+        starts[i] = (int) (items[i] >> 32);
+        positions[i] = (int) items[i];
+        ends[i] = rangeEnds[positions[i]];
+        maxEnd = Math.max(maxEnd, ends[i]);
+        maxEnds[i] = maxEnd;
+      }
+    }
+
+    /** Returns the list positions of all fields covering the specified offset, in ascending order. */
+    public int[] find(int offset) {
+      // last range starting at or before the offset
+      int lo = 0;
+      int hi = starts.length - 1;
+      int idx = -1;
+      while (lo <= hi) {
+        final int mid = (lo + hi) >>> 1;
+        if (starts[mid] <= offset) {
+          idx = mid;
+          lo = mid + 1;
+        } else {
+          hi = mid - 1;
+        }
+      }
+
+      int[] retVal = EMPTY;
+      int count = 0;
+      for (; idx >= 0 && maxEnds[idx] > offset; idx--) {
+        if (ends[idx] > offset) {
+          if (count == retVal.length) {
+            retVal = Arrays.copyOf(retVal, Math.max(4, count * 2));
+          }
+          retVal[count++] = positions[idx];
+        }
+      }
+      if (count > 1) {
+        Arrays.sort(retVal, 0, count);
+      }
+      return (count == retVal.length) ? retVal : Arrays.copyOf(retVal, count);
+    }
+
+    // Returns the range covered by the field and all nested fields
+    private static long getExtent(StructEntry field) {
+      int start = field.getOffset();
+      int end = start + field.getSize();
+      if (end <= start) {
+        start = Integer.MAX_VALUE;
+        end = Integer.MIN_VALUE;
+      }
+      if (field instanceof AbstractStruct) {
+        for (final StructEntry child : ((AbstractStruct) field).fields) {
+          final long range = getExtent(child);
+          if ((int) range > (int) (range >> 32)) {
+            start = Math.min(start, (int) (range >> 32));
+            end = Math.max(end, (int) range);
+          }
+        }
+      }
+      return toRange(start, end);
+    }
+
+    private static long toRange(int start, int end) {
+      return ((long) start << 32) | (end & 0xffffffffL);
+    }
+  }
 }
@@ -0,0 +1,122 @@
+// Near Infinity - An Infinity Engine Browser and Editor
+// Copyright (C) 2001 Jon Olav Hauglid
+// See LICENSE.txt for license information
+
+package org.infinity.resource;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A bounded cache of resource names which could not be resolved by {@link ResourceFactory#getResourceEntry}. It avoids
+ * repeated file system queries for missing resources, which are common for broken references in mods.
+ *
+ * <p>
+ * The cache is cleared whenever the resource tree is modified. Cached entries expire after {@link #MAX_AGE}
+ * milliseconds to account for files created outside of Near Infinity.
+ * </p>
+ */
+final class MissingResourceCache {
+  /** Max. number of cached resource names. */
+  public static final int MAX_ENTRIES = 4096;
+
+  /** Time span (in ms) after which cached entries expire. */
+  public static final long MAX_AGE = 10000L;
+
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+
+  /** Maps resource names to the time they have been added to the cache, in least recently accessed order. */
+  private final Map<String, Long> entries = new LinkedHashMap<String, Long>(256, 0.75f, true) {
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<String, Long> eldest) {
+      return size() > MAX_ENTRIES;
+    }
+  };
+
+  private int modCount = -1;
+
+  /**
+   * Returns whether the specified resource is known to be missing.
+   *
+   * @param resourceName    The resource name.
+   * @param searchExtraDirs Whether extra override folders were searched.
+   * @param modCount        Current modification count of the resource tree.
+   * @return {@code true} if the resource is known to be missing, {@code false} otherwise.
+   */
+  public synchronized boolean isMissing(String resourceName, boolean searchExtraDirs, int modCount) {
+    validate(modCount);
+    final String key = getKey(resourceName, searchExtraDirs);
+    final Long time = entries.get(key);
+    if (time != null) {
+      if (System.currentTimeMillis() - time < MAX_AGE) {
+        hits.increment();
+        return true;
+      }
+      entries.remove(key);
+    }
+    misses.increment();
+    return false;
+  }
+
+  /**
+   * Marks the specified resource as missing.
+   *
+   * @param resourceName    The resource name.
+   * @param searchExtraDirs Whether extra override folders were searched.
+   * @param modCount        Current modification count of the resource tree.
+   */
+  public synchronized void setMissing(String resourceName, boolean searchExtraDirs, int modCount) {
+    validate(modCount);
+    entries.put(getKey(resourceName, searchExtraDirs), System.currentTimeMillis());
+  }
+
+  /** Removes all cached resource names. Statistics are not affected. */
+  public synchronized void clear() {
+    entries.clear();
+    modCount = -1;
+  }
+
+  /** Returns the number of cached resource names. */
+  public synchronized int size() {
+    return entries.size();
+  }
+
+  /** Returns the number of lookups that were answered by the cache. */
+  public long getHits() {
+    return hits.sum();
+  }
+
+  /** Returns the number of lookups that could not be answered by the cache. */
+  public long getMisses() {
+    return misses.sum();
+  }
+
+  /** Returns the ratio of cache hits to total lookups, in range [0.0, 1.0]. */
+  public double getHitRate() {
+    final long numHits = hits.sum();
+    final long total = numHits + misses.sum();
+    return (total > 0L) ? (double) numHits / total : 0.0;
+  }
+
+  /** Resets the cache statistics. */
+  public void resetStatistics() {
+    hits.reset();
+    misses.reset();
+  }
+
+  // Clears the cache if the resource tree has been modified
+  private void validate(int modCount) {
+    if (this.modCount != modCount) {
+      entries.clear();
+      this.modCount = modCount;
+    }
+  }
+
+  private static String getKey(String resourceName, boolean searchExtraDirs) {
+    final String name = resourceName.toUpperCase(Locale.ENGLISH);
+    return searchExtraDirs ? name + '*' : name;
+  }
+}
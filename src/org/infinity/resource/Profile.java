@@ -4,6 +4,7 @@
 
 package org.infinity.resource;
 
+import java.awt.GraphicsEnvironment;
 import java.awt.GridBagConstraints;
 import java.awt.GridBagLayout;
 import java.awt.Insets;
@@ -1940,10 +1941,15 @@ && getLuaValue(FileManager.query(gameRoots, "engine.lua"), "engine_mode", "0", f
             oldGame = Profile.Game.Unknown;
           }
         }
-        game = Profile.showGameSelectionDialog("Unknown game", "Please select a game:", oldGame);
-        if (game != null) {
-          openGame(getChitinKey(), BrowserMenuBar.getInstance().getGameMenu().getBookmarkName(getChitinKey()), game);
-          return;
+        if (GraphicsEnvironment.isHeadless()) {
+          // no user interaction available: using the previous or assumed game type
+          game = oldGame;
+        } else {
+          game = Profile.showGameSelectionDialog("Unknown game", "Please select a game:", oldGame);
+          if (game != null) {
+            openGame(getChitinKey(), BrowserMenuBar.getInstance().getGameMenu().getBookmarkName(getChitinKey()), game);
+            return;
+          }
         }
       }
       if (game == null) {
@@ -2058,7 +2064,11 @@ private void initRootDirs() {
     // Considering three (or four) different root folders to locate game resources
     // Note: Order of the root directories is important. FileNI will take the first one available.
     Path homeRoot = null;
-    Bookmark bookmark = BrowserMenuBar.getInstance().getGameMenu().getBookmarkOf(getChitinKey());
+    // bookmarks are only available with the GUI
+    Bookmark bookmark = null;
+    if (BrowserMenuBar.isInstantiated()) {
+      bookmark = BrowserMenuBar.getInstance().getGameMenu().getBookmarkOf(getChitinKey());
+    }
     if (bookmark != null && bookmark.getHomePath() != null) {
       final Path path = FileManager.resolve(bookmark.getHomePath());
       if (path != null && Files.isDirectory(path)) {
@@ -0,0 +1,141 @@
+// Near Infinity - An Infinity Engine Browser and Editor
+// Copyright (C) 2001 Jon Olav Hauglid
+// See LICENSE.txt for license information
+
+package org.infinity.resource;
+
+import java.lang.ref.SoftReference;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.infinity.resource.key.ResourceEntry;
+
+/**
+ * A bounded cache of parsed resources which are used for read-only purposes, such as mass searches or previews.
+ *
+ * <p>
+ * Resources are held by soft references and may be reclaimed by the garbage collector at any time. Cached resources
+ * are associated with the modification time of the underlying file and are discarded if the file has been modified.
+ * </p>
+ */
+final class ResourceCache {
+  /** Max. number of cached resources. */
+  public static final int MAX_ENTRIES = 512;
+
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+
+  /** Maps resource entries to cached resources, in least recently accessed order. */
+  private final Map<ResourceEntry, CachedResource> entries = new LinkedHashMap<ResourceEntry, CachedResource>(256,
+      0.75f, true) {
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<ResourceEntry, CachedResource> eldest) {
+      return size() > MAX_ENTRIES;
+    }
+  };
+
+  /**
+   * Returns the cached resource of the specified resource entry.
+   *
+   * @param entry     The resource entry.
+   * @param timestamp Current modification time of the resource, as returned by {@link #getTimestamp(ResourceEntry)}.
+   * @return The cached {@link Resource}. Returns {@code null} if the resource is not available in the cache.
+   */
+  public synchronized Resource get(ResourceEntry entry, long timestamp) {
+    final CachedResource item = entries.get(entry);
+    if (item != null) {
+      final Resource resource = item.resource.get();
+      // entries of the same name may refer to different files
+      if (resource != null && item.entry == entry && item.timestamp == timestamp) {
+        hits.increment();
+        return resource;
+      }
+      entries.remove(entry);
+    }
+    misses.increment();
+    return null;
+  }
+
+  /**
+   * Adds the specified resource to the cache.
+   *
+   * @param entry     The resource entry.
+   * @param timestamp Modification time of the resource at the time it was parsed.
+   * @param resource  The parsed resource.
+   */
+  public synchronized void put(ResourceEntry entry, long timestamp, Resource resource) {
+    entries.put(entry, new CachedResource(entry, resource, timestamp));
+  }
+
+  /** Removes the specified resource from the cache. */
+  public synchronized void remove(ResourceEntry entry) {
+    entries.remove(entry);
+  }
+
+  /** Removes all resources from the cache. Statistics are not affected. */
+  public synchronized void clear() {
+    entries.clear();
+  }
+
+  /** Returns the number of cached resources. This number includes resources reclaimed by the garbage collector. */
+  public synchronized int size() {
+    return entries.size();
+  }
+
+  /** Returns the number of requests that were answered by the cache. */
+  public long getHits() {
+    return hits.sum();
+  }
+
+  /** Returns the number of requests that could not be answered by the cache. */
+  public long getMisses() {
+    return misses.sum();
+  }
+
+  /** Returns the ratio of cache hits to total requests, in range [0.0, 1.0]. */
+  public double getHitRate() {
+    final long numHits = hits.sum();
+    final long total = numHits + misses.sum();
+    return (total > 0L) ? (double) numHits / total : 0.0;
+  }
+
+  /** Resets the cache statistics. */
+  public void resetStatistics() {
+    hits.reset();
+    misses.reset();
+  }
+
+  /**
+   * Returns the modification time of the file containing the specified resource.
+   *
+   * @return Modification time in milliseconds. Returns {@code -1} if the modification time could not be determined.
+   */
+  public static long getTimestamp(ResourceEntry entry) {
+    try {
+      final Path file = entry.getActualPath();
+      if (file != null) {
+        return Files.getLastModifiedTime(file).toMillis();
+      }
+    } catch (Exception e) {
+      // resource is not cacheable
+    }
+    return -1L;
+  }
+
+  // -------------------------- INNER CLASSES --------------------------
+
+  private static class CachedResource {
+    private final ResourceEntry entry;
+    private final SoftReference<Resource> resource;
+    private final long timestamp;
+
+    public CachedResource(ResourceEntry entry, Resource resource, long timestamp) {
+      this.entry = entry;
+      this.resource = new SoftReference<>(resource);
+      this.timestamp = timestamp;
+    }
+  }
+}
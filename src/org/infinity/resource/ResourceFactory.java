@@ -13,7 +13,6 @@
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
-import java.lang.reflect.Constructor;
 import java.nio.ByteBuffer;
 import java.nio.channels.Channels;
 import java.nio.channels.WritableByteChannel;
@@ -23,8 +22,14 @@
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 import java.util.regex.Pattern;
 
 import javax.swing.JComponent;
@@ -41,62 +46,35 @@
 import org.infinity.gui.ChildFrame;
 import org.infinity.gui.IdsBrowser;
 import org.infinity.gui.menu.BrowserMenuBar;
+import org.infinity.gui.menu.OptionsMenuItem;
 import org.infinity.gui.menu.OverrideMode;
-import org.infinity.resource.are.AreResource;
-import org.infinity.resource.are.viewer.VirtualMap;
-import org.infinity.resource.bcs.BafResource;
-import org.infinity.resource.bcs.BcsResource;
-import org.infinity.resource.chu.ChuResource;
-import org.infinity.resource.cre.CreResource;
-import org.infinity.resource.dlg.DlgResource;
-import org.infinity.resource.gam.GamResource;
-import org.infinity.resource.graphics.BamResource;
-import org.infinity.resource.graphics.GraphicsResource;
-import org.infinity.resource.graphics.MosResource;
-import org.infinity.resource.graphics.PltResource;
-import org.infinity.resource.graphics.PvrzResource;
-import org.infinity.resource.graphics.TisResource;
 import org.infinity.resource.itm.ItmResource;
+import org.infinity.resource.key.AbstractBIFFReader;
 import org.infinity.resource.key.BIFFResourceEntry;
 import org.infinity.resource.key.FileResourceEntry;
 import org.infinity.resource.key.Keyfile;
 import org.infinity.resource.key.ResourceEntry;
 import org.infinity.resource.key.ResourceTreeFolder;
 import org.infinity.resource.key.ResourceTreeModel;
-import org.infinity.resource.maze.MazeResource;
-import org.infinity.resource.mus.MusResource;
-import org.infinity.resource.other.EffResource;
-import org.infinity.resource.other.FntResource;
-import org.infinity.resource.other.TtfResource;
+import org.infinity.resource.key.ResourceTreeSnapshot;
 import org.infinity.resource.other.UnknownResource;
-import org.infinity.resource.other.VvcResource;
-import org.infinity.resource.other.WfxResource;
-import org.infinity.resource.pro.ProResource;
-import org.infinity.resource.sav.SavResource;
-import org.infinity.resource.sound.SoundResource;
 import org.infinity.resource.spl.SplResource;
-import org.infinity.resource.src.SrcResource;
-import org.infinity.resource.sto.StoResource;
-import org.infinity.resource.text.PlainTextResource;
 import org.infinity.resource.text.QuestsResource;
-import org.infinity.resource.to.TohResource;
-import org.infinity.resource.to.TotResource;
-import org.infinity.resource.var.VarResource;
-import org.infinity.resource.vef.VefResource;
-import org.infinity.resource.video.MveResource;
-import org.infinity.resource.video.WbmResource;
-import org.infinity.resource.wed.WedResource;
-import org.infinity.resource.wmp.WmpResource;
 import org.infinity.util.CreMapCache;
 import org.infinity.util.DynamicArray;
+import org.infinity.util.IconCache;
 import org.infinity.util.IdsMapCache;
+import org.infinity.util.IniMapCache;
 import org.infinity.util.Logger;
 import org.infinity.util.Misc;
 import org.infinity.util.Platform;
 import org.infinity.util.StaticSimpleXorDecryptor;
+import org.infinity.util.Table2daCache;
+import org.infinity.util.Threading;
 import org.infinity.util.TriState;
 import org.infinity.util.io.FileEx;
 import org.infinity.util.io.FileManager;
+import org.infinity.util.io.FolderWatcher;
 import org.infinity.util.io.StreamUtils;
 
 /**
@@ -108,11 +86,24 @@ public final class ResourceFactory {
    */
   public static final String SPECIAL_CATEGORY = "Special";
 
+  /** Number of folder entries checked per task when scanning override folders. */
+  private static final int LIST_FILES_BATCH_SIZE = 1024;
+
+  /** Maps resource types to resource classes. */
+  private static final ResourceTypeRegistry RESOURCE_TYPES = new ResourceTypeRegistry();
+
   private static ResourceFactory instance;
 
   private JFileChooser fc;
   private Keyfile keyfile;
   private ResourceTreeModel treeModel;
+  private FolderWatcher overrideWatcher;
+
+  /** Caches names of resources that could not be found by {@link #getResourceEntry(String, boolean, List)}. */
+  private final MissingResourceCache missingResources = new MissingResourceCache();
+
+  /** Caches parsed resources returned by {@link #getCachedResource(ResourceEntry)}. */
+  private final ResourceCache resourceCache = new ResourceCache();
 
   public static Keyfile getKeyfile() {
     if (getInstance() != null) {
@@ -174,91 +165,9 @@ public static Class<? extends Resource> getResourceType(ResourceEntry entry) {
   public static Class<? extends Resource> getResourceType(ResourceEntry entry, String forcedExtension) {
     Class<? extends Resource> cls = null;
     if (entry != null) {
-      String ext = ((forcedExtension != null) ? forcedExtension : entry.getExtension()).toUpperCase();
-      if (ext.equals("BAM")) {
-        cls = BamResource.class;
-      } else if (ext.equals("TIS")) {
-        cls = TisResource.class;
-      } else if (ext.equals("BMP") || ext.equals("PNG")) {
-        cls = GraphicsResource.class;
-      } else if (ext.equals("MOS")) {
-        cls = MosResource.class;
-      } else if (ext.equals("WAV") || ext.equals("ACM")) {
-        cls = SoundResource.class;
-      } else if (ext.equals("MUS")) {
-        cls = MusResource.class;
-      } else if (ext.equals("IDS") || ext.equals("2DA") || ext.equals("BIO") || ext.equals("RES") || ext.equals("TXT")
-          || ext.equals("LOG") // WeiDU log files
-          || (ext.equals("SRC") && Profile.getEngine() == Profile.Engine.IWD2)
-          || (ext.equals("LUA") && (Profile.isEnhancedEdition() || Profile.getGame() == Profile.Game.IWD2EE))
-          || (Profile.isEnhancedEdition()
-              && (ext.equals("SQL") || ext.equals("GUI") || ext.equals("MENU") || ext.equals("GLSL")))) {
-        cls = PlainTextResource.class;
-      } else if (ext.equals("INI")) {
-        final boolean isPST = Profile.getEngine() == Profile.Engine.PST;
-        cls = isPST && QuestsResource.RESOURCE_NAME.equals(entry.getResourceName()) ? QuestsResource.class
-            : PlainTextResource.class;
-      } else if (ext.equals("MVE")) {
-        cls = MveResource.class;
-      } else if (ext.equals("WBM")) {
-        cls = WbmResource.class;
-      } else if (ext.equals("PLT") && ext.equals(forcedExtension)) {
-        cls = PltResource.class;
-      } else if (ext.equals("BCS") || ext.equals("BS")) {
-        cls = BcsResource.class;
-      } else if (ext.equals("ITM")) {
-        cls = ItmResource.class;
-      } else if (ext.equals("EFF")) {
-        cls = EffResource.class;
-      } else if (ext.equals("VEF")) {
-        cls = VefResource.class;
-      } else if (ext.equals("VVC")) {
-        cls = VvcResource.class;
-      } else if (ext.equals("SRC")) {
-        cls = SrcResource.class;
-      } else if (ext.equals("DLG")) {
-        cls = DlgResource.class;
-      } else if (ext.equals("SPL")) {
-        cls = SplResource.class;
-      } else if (ext.equals("STO")) {
-        cls = StoResource.class;
-      } else if (ext.equals("WMP")) {
-        cls = WmpResource.class;
-      } else if (ext.equals("CHU")) {
-        cls = ChuResource.class;
-      } else if (ext.equals("CRE") || ext.equals("CHR")) {
-        cls = CreResource.class;
-      } else if (ext.equals("ARE")) {
-        cls = AreResource.class;
-      } else if (ext.equals("WFX")) {
-        cls = WfxResource.class;
-      } else if (ext.equals("PRO")) {
-        cls = ProResource.class;
-      } else if (ext.equals("WED")) {
-        cls = WedResource.class;
-      } else if (ext.equals("GAM")) {
-        cls = GamResource.class;
-      } else if (ext.equals("SAV")) {
-        cls = SavResource.class;
-      } else if (ext.equals("VAR")) {
-        cls = VarResource.class;
-      } else if (ext.equals("BAF")) {
-        cls = BafResource.class;
-      } else if (ext.equals("TOH")) {
-        cls = TohResource.class;
-      } else if (ext.equals("TOT")) {
-        cls = TotResource.class;
-      } else if (ext.equals("PVRZ")) {
-        cls = Profile.isEnhancedEdition() ? PvrzResource.class : UnknownResource.class;
-      } else if (ext.equals("FNT")) {
-        cls = Profile.isEnhancedEdition() ? FntResource.class : UnknownResource.class;
-      } else if (ext.equals("TTF")) {
-        cls = Profile.isEnhancedEdition() ? TtfResource.class : UnknownResource.class;
-      } else if (ext.equals("MAZE")) {
-        cls = (Profile.getGame() == Profile.Game.PSTEE) ? MazeResource.class : UnknownResource.class;
-      } else if (ext.equals("VMAP")) {
-        cls = VirtualMap.class;
-      } else {
+      final String ext = ((forcedExtension != null) ? forcedExtension : entry.getExtension()).toUpperCase();
+      cls = RESOURCE_TYPES.getType(ext, entry, forcedExtension);
+      if (cls == null) {
         cls = detectResourceType(entry);
         if (cls == null) {
           cls = UnknownResource.class;
@@ -268,6 +177,29 @@ public static Class<? extends Resource> getResourceType(ResourceEntry entry, Str
     return cls;
   }
 
+  /**
+   * Registers an alternate resource class for the specified file extension. The registration applies to all
+   * resources of this type that are subsequently requested by {@link #getResource(ResourceEntry)} and related methods.
+   *
+   * @param extension File extension of the resource type.
+   * @param type      The resource class.
+   * @param parser    Parser that creates instances of the resource class. Specify {@code null} to use the public
+   *                  {@code (ResourceEntry)} constructor of the resource class.
+   */
+  public static void registerResourceParser(String extension, Class<? extends Resource> type, ResourceParser parser) {
+    RESOURCE_TYPES.register(extension.toUpperCase(Locale.ENGLISH), type, parser);
+  }
+
+  /**
+   * Removes a resource class registered by {@link #registerResourceParser(String, Class, ResourceParser)} and restores
+   * the default resource class for the specified file extension.
+   *
+   * @param extension File extension of the resource type.
+   */
+  public static void unregisterResourceParser(String extension) {
+    RESOURCE_TYPES.unregister(extension.toUpperCase(Locale.ENGLISH));
+  }
+
   public static Resource getResource(ResourceEntry entry) {
     return getResource(entry, null);
   }
@@ -277,22 +209,94 @@ public static Resource getResource(ResourceEntry entry, String forcedExtension)
     try {
       Class<? extends Resource> cls = getResourceType(entry, forcedExtension);
       if (cls != null) {
-        Constructor<? extends Resource> con = cls.getConstructor(ResourceEntry.class);
-        res = con.newInstance(entry);
+        res = RESOURCE_TYPES.getParser(cls).parse(entry);
       }
     } catch (Exception e) {
-      if (NearInfinity.getInstance() != null && !BrowserMenuBar.getInstance().getOptions().ignoreReadErrors()) {
-        JOptionPane.showMessageDialog(NearInfinity.getInstance(), "Error reading " + entry + '\n' + e.getMessage(),
-            "Error", JOptionPane.ERROR_MESSAGE);
-      } else {
-        final String msg = String.format("Error reading %s @ %s - %s", entry, entry.getActualPath(), e);
-        NearInfinity.getInstance().getStatusBar().setMessage(msg);
-      }
+      // logged first, since there is no GUI to report the error in batch mode
       Logger.error(e, "Error reading {}", entry);
+      if (!GraphicsEnvironment.isHeadless() && NearInfinity.getInstance() != null) {
+        if (!BrowserMenuBar.getInstance().getOptions().ignoreReadErrors()) {
+          JOptionPane.showMessageDialog(NearInfinity.getInstance(), "Error reading " + entry + '\n' + e.getMessage(),
+              "Error", JOptionPane.ERROR_MESSAGE);
+        } else {
+          final String msg = String.format("Error reading %s @ %s - %s", entry, entry.getActualPath(), e);
+          NearInfinity.getInstance().getStatusBar().setMessage(msg);
+        }
+      }
     }
     return res;
   }
 
+  /**
+   * Returns the parsed resource of the specified resource entry from a shared cache. The resource is parsed and added
+   * to the cache if needed. Cached resources are discarded when the resource file is modified or saved.
+   *
+   * <p>
+   * <strong>Note:</strong> The returned resource may be shared by several callers and threads. It is meant for
+   * short-lived read access, e.g. by resource searches. It must not be modified, shown in a viewer, or kept by objects
+   * that can expose it to an editor, such as the layer objects of the area viewer. Use
+   * {@link #getResource(ResourceEntry)} to obtain a resource for these purposes.
+   * </p>
+   *
+   * @param entry The {@code ResourceEntry} of the resource.
+   * @return The parsed {@link Resource}, or {@code null} if the resource could not be parsed.
+   */
+  public static Resource getCachedResource(ResourceEntry entry) {
+    final ResourceFactory factory = getInstance();
+    if (entry == null || factory == null) {
+      return getResource(entry);
+    }
+
+    final long timestamp = ResourceCache.getTimestamp(entry);
+    Resource res = factory.resourceCache.get(entry, timestamp);
+    if (res == null) {
+      res = getResource(entry);
+      if (res != null && timestamp >= 0L) {
+        factory.resourceCache.put(entry, timestamp, res);
+      }
+    }
+    return res;
+  }
+
+  /** Returns the ratio of requests of {@link #getCachedResource(ResourceEntry)} answered by the cache. */
+  public static double getResourceCacheHitRate() {
+    return (getInstance() != null) ? getInstance().resourceCache.getHitRate() : 0.0;
+  }
+
+  /** Returns the number of requests of {@link #getCachedResource(ResourceEntry)} answered by the cache. */
+  public static long getResourceCacheHits() {
+    return (getInstance() != null) ? getInstance().resourceCache.getHits() : 0L;
+  }
+
+  /** Returns the number of requests of {@link #getCachedResource(ResourceEntry)} that required parsing. */
+  public static long getResourceCacheMisses() {
+    return (getInstance() != null) ? getInstance().resourceCache.getMisses() : 0L;
+  }
+
+  /** Removes all parsed resources from the cache. */
+  public static void clearResourceCache() {
+    if (getInstance() != null) {
+      getInstance().resourceCache.clear();
+    }
+  }
+
+  /**
+   * Returns a read-only view of the raw data of the specified resource. The view is considerably cheaper to create
+   * than the {@link Resource} object returned by {@link #getResource(ResourceEntry)}.
+   *
+   * @param entry The {@code ResourceEntry} of the resource.
+   * @return A {@link ResourceView} instance, or {@code null} if the resource data could not be read. Errors are not
+   *         logged, since callers fall back to {@link #getResource(ResourceEntry)} which reports them.
+   */
+  public static ResourceView getResourceView(ResourceEntry entry) {
+    try {
+      return new ResourceView(entry, entry.getResourceBuffer());
+    } catch (Exception e) {
+      Logger.trace(e);
+    }
+    return null;
+  }
+
   /**
    * Returns the BAM {@link ResourceEntry} of the icon associated with the specified resource.
    * <p>
@@ -370,58 +374,9 @@ public static Class<? extends Resource> detectResourceType(ResourceEntry entry)
               StreamUtils.readBytes(is, data);
             }
             String sig = DynamicArray.getString(data, 0, 4);
-            if ("2DA ".equalsIgnoreCase(sig)) {
-              cls = getResourceType(entry, "2DA");
-            } else if ("ARE ".equals(sig)) {
-              cls = getResourceType(entry, "ARE");
-            } else if ("BAM ".equals(sig) || "BAMC".equals(sig)) {
-              cls = getResourceType(entry, "BAM");
-            } else if ("CHR ".equals(sig)) {
-              cls = getResourceType(entry, "CHR");
-            } else if ("CHUI".equals(sig)) {
-              cls = getResourceType(entry, "CHU");
-            } else if ("CRE ".equals(sig)) {
-              cls = getResourceType(entry, "CRE");
-            } else if ("DLG ".equals(sig)) {
-              cls = getResourceType(entry, "DLG");
-            } else if ("EFF ".equals(sig)) {
-              cls = getResourceType(entry, "EFF");
-            } else if ("GAME".equals(sig)) {
-              cls = getResourceType(entry, "GAM");
-            } else if ("IDS ".equalsIgnoreCase(sig)) {
-              cls = getResourceType(entry, "IDS");
-            } else if ("ITM ".equals(sig)) {
-              cls = getResourceType(entry, "ITM");
-            } else if ("MAZE".equals(sig)) {
-              cls = getResourceType(entry, "MAZE");
-            } else if ("MOS ".equals(sig) || "MOSC".equals(sig)) {
-              cls = getResourceType(entry, "MOS");
-            } else if ("PLT ".equals(sig)) {
-              cls = getResourceType(entry, "PLT");
-            } else if ("PRO ".equals(sig)) {
-              cls = getResourceType(entry, "PRO");
-            } else if ("SAV ".equals(sig)) {
-              cls = getResourceType(entry, "SAV");
-            } else if ("SPL ".equals(sig)) {
-              cls = getResourceType(entry, "SPL");
-            } else if ("STOR".equals(sig)) {
-              cls = getResourceType(entry, "STO");
-            } else if ("TIS ".equals(sig)) {
-              cls = getResourceType(entry, "TIS");
-            } else if ("VEF ".equals(sig)) {
-              cls = getResourceType(entry, "VEF");
-            } else if ("VVC ".equals(sig)) {
-              cls = getResourceType(entry, "VVC");
-            } else if ("WAVC".equals(sig) || "RIFF".equals(sig) || "OggS".equals(sig)) {
-              cls = getResourceType(entry, "WAV");
-            } else if ("WED ".equals(sig)) {
-              cls = getResourceType(entry, "WED");
-            } else if ("WFX ".equals(sig)) {
-              cls = getResourceType(entry, "WFX");
-            } else if ("WMAP".equals(sig)) {
-              cls = getResourceType(entry, "WMP");
-            } else if ("VMAP".equals(sig)) {
-              cls = getResourceType(entry, "VMAP");
+            final String ext = ResourceTypeRegistry.getExtension(sig);
+            if (ext != null) {
+              cls = getResourceType(entry, ext);
             } else {
               if ((Arrays.equals(new byte[] { 0x53, 0x43, 0x0a }, Arrays.copyOfRange(data, 0, 3)) || // == "SC\n"
                   Arrays.equals(new byte[] { 0x53, 0x43, 0x0d, 0x0a }, Arrays.copyOfRange(data, 0, 4)))) { // ==
@@ -541,6 +496,27 @@ public static ResourceEntry getResourceEntry(String resourceName, boolean search
     return getResourceEntry(resourceName, searchExtraDirs, null);
   }
 
+  /**
+   * Returns a ResourceEntry instance of the given resref and extension. Lookups of resources in the resource tree do
+   * not allocate memory if the resref consists of up to 8 characters.
+   *
+   * @param resref          The resource name without extension.
+   * @param extension       The resource extension without leading dot.
+   * @param searchExtraDirs If {@code true}, all supported override folders will be searched. If {@code false}, only the
+   *                        default 'override' folders will be searched.
+   * @return A ResourceEntry instance of the given resource, or {@code null} if not available.
+   */
+  public static ResourceEntry getResourceEntry(String resref, String extension, boolean searchExtraDirs) {
+    if (getInstance() != null && resref != null && extension != null) {
+      final ResourceEntry entry = getInstance().treeModel.getResourceEntry(resref, extension);
+      if (entry != null) {
+        return entry;
+      }
+      return getResourceEntry(resref + '.' + extension, searchExtraDirs, null);
+    }
+    return null;
+  }
+
   /**
    * Returns a ResourceEntry instance of the given resource name.
    *
@@ -553,14 +529,23 @@ public static ResourceEntry getResourceEntry(String resourceName, boolean search
    */
   public static ResourceEntry getResourceEntry(String resourceName, boolean searchExtraDirs, List<Path> extraDirs) {
     if (getInstance() != null) {
-      ResourceEntry entry = getInstance().treeModel.getResourceEntry(resourceName);
+      final ResourceTreeModel model = getInstance().treeModel;
+      ResourceEntry entry = model.getResourceEntry(resourceName);
 
       // checking default override folder list
       if (entry == null) {
+        final MissingResourceCache missingCache = getInstance().missingResources;
+        final boolean useCache = (resourceName != null && (extraDirs == null || extraDirs.isEmpty()));
+        if (useCache && missingCache.isMissing(resourceName, searchExtraDirs, model.getModificationCount())) {
+          return null;
+        }
+
         List<Path> extraFolders = Profile.getOverrideFolders(searchExtraDirs);
         Path file = FileManager.query(extraFolders, resourceName);
         if (file != null && FileEx.create(file).isFile()) {
           entry = new FileResourceEntry(file);
+        } else if (useCache) {
+          missingCache.setMissing(resourceName, searchExtraDirs, model.getModificationCount());
         }
       }
 
@@ -578,6 +563,31 @@ public static ResourceEntry getResourceEntry(String resourceName, boolean search
     }
   }
 
+  /**
+   * Returns the ratio of lookups of missing resources that could be answered without querying the override folders,
+   * in range [0.0, 1.0].
+   */
+  public static double getMissingResourceCacheHitRate() {
+    return (getInstance() != null) ? getInstance().missingResources.getHitRate() : 0.0;
+  }
+
+  /** Returns the number of lookups of missing resources that could be answered without querying the override folders. */
+  public static long getMissingResourceCacheHits() {
+    return (getInstance() != null) ? getInstance().missingResources.getHits() : 0L;
+  }
+
+  /** Returns the number of lookups of missing resources that required a query of the override folders. */
+  public static long getMissingResourceCacheMisses() {
+    return (getInstance() != null) ? getInstance().missingResources.getMisses() : 0L;
+  }
+
+  /** Removes all names of missing resources from the cache. */
+  public static void clearMissingResourceCache() {
+    if (getInstance() != null) {
+      getInstance().missingResources.clear();
+    }
+  }
+
   /**
    * Attempts to determine the parent {@link ResourceEntry} of the specified {@link StructEntry} instance.
    *
@@ -1053,7 +1063,7 @@ static String fetchGameLanguage(Path iniFile) {
     final String langDefault = "en_US"; // using default language, if no language entry found
 
     if (Profile.isEnhancedEdition() && iniFile != null && FileEx.create(iniFile).isFile()) {
-      String lang = BrowserMenuBar.getInstance().getOptions().getSelectedGameLanguage();
+      String lang = OptionsMenuItem.getCurrentGameLanguage();
 
       if (lang == null || lang.isEmpty()) {
         return autodetectGameLanguage(iniFile);
@@ -1142,6 +1152,10 @@ private static ResourceFactory getInstance() {
   private ResourceFactory(Path keyFile) {
     instance = this;
     try {
+      if (BrowserMenuBar.isInstantiated()) {
+        AbstractBIFFReader.setCacheLimit(BrowserMenuBar.getInstance().getOptions().getBiffCacheLimit());
+      }
+
       // initializing primary key file
       this.keyfile = new Keyfile(keyFile);
 
@@ -1155,14 +1169,16 @@ private ResourceFactory(Path keyFile) {
 
       loadResourcesInternal();
     } catch (Exception e) {
-      JOptionPane.showMessageDialog(null, "No Infinity Engine game found", "Error", JOptionPane.ERROR_MESSAGE);
+      if (!GraphicsEnvironment.isHeadless()) {
+        JOptionPane.showMessageDialog(null, "No Infinity Engine game found", "Error", JOptionPane.ERROR_MESSAGE);
+      }
       Logger.error(e);
     }
   }
 
   /** Cleans up resources. */
   private void close() {
-    // nothing to do yet...
+    stopOverrideWatcher();
   }
 
   private void exportResourceInternal(ResourceEntry entry, Component parent, Path output) throws Exception {
@@ -1444,10 +1460,14 @@ private void registerResourceInternal(Path resource, boolean autoselect) {
 
   private void loadResourcesInternal() throws Exception {
     treeModel = new ResourceTreeModel();
+    missingResources.clear();
+    resourceCache.clear();
+
+    final ResourceTreeSnapshot snapshot = ResourceTreeSnapshot.load(keyfile);
 
     // Get resources from keyfile
     NearInfinity.advanceProgress("Loading BIFF resources...");
-    keyfile.populateResourceTree(treeModel);
+    keyfile.populateResourceTree(treeModel, snapshot);
 
     // Add resources from extra folders
     NearInfinity.advanceProgress("Loading extra resources...");
@@ -1463,28 +1483,213 @@ private void loadResourcesInternal() throws Exception {
         && BrowserMenuBar.getInstance().getOptions().getOverrideMode() == OverrideMode.InOverride);
     String overrideFolder = Profile.getOverrideFolderName();
     List<Path> overridePaths = Profile.getOverrideFolders(false);
+
+    // collecting override files; files in folders of higher priority take precedence
+    final List<Path> overrideFiles = new ArrayList<>();
+    final Map<String, Path> overrideMap = new HashMap<>();
+    final List<Path> overrideDirs = new ArrayList<>();
     for (final Path overridePath : overridePaths) {
       if (FileEx.create(overridePath).isDirectory()) {
-        try (DirectoryStream<Path> dstream = Files.newDirectoryStream(overridePath)) {
-          dstream.forEach(path -> {
-            if (FileEx.create(path).isFile()) {
-              ResourceEntry entry = getResourceEntry(path.getFileName().toString());
-              if (entry instanceof FileResourceEntry) {
-                treeModel.addResourceEntry(entry, entry.getTreeFolderName(), true);
-              } else if (entry instanceof BIFFResourceEntry) {
-                ((BIFFResourceEntry) entry).setOverride(true);
-                if (overrideInOverride) {
-                  treeModel.removeResourceEntry(entry, entry.getExtension());
-                  treeModel.addResourceEntry(new FileResourceEntry(path, true), overrideFolder, true);
-                }
-              }
-            }
-          });
+        overrideDirs.add(overridePath);
+      }
+    }
+    for (final List<Path> files : listFiles(overrideDirs, snapshot)) {
+      for (final Path path : files) {
+        overrideFiles.add(path);
+        overrideMap.putIfAbsent(path.getFileName().toString().toUpperCase(Locale.ENGLISH), path);
+      }
+    }
+
+    for (final Path path : overrideFiles) {
+      final String fileName = path.getFileName().toString();
+      ResourceEntry entry = treeModel.getResourceEntry(fileName);
+      if (entry == null) {
+        entry = new FileResourceEntry(overrideMap.get(fileName.toUpperCase(Locale.ENGLISH)));
+      }
+      if (entry instanceof FileResourceEntry) {
+        treeModel.addResourceEntry(entry, entry.getTreeFolderName(), true);
+      } else if (entry instanceof BIFFResourceEntry) {
+        ((BIFFResourceEntry) entry).setOverride(true);
+        if (overrideInOverride) {
+          treeModel.removeResourceEntry(entry, entry.getExtension());
+          treeModel.addResourceEntry(new FileResourceEntry(path, true), overrideFolder, true);
         }
       }
     }
+    snapshot.save();
+
     loadSpecialResources();
     treeModel.sort();
+
+    startOverrideWatcher();
+  }
+
+  /** Starts watching the override folders for changes if enabled by the user. */
+  private void startOverrideWatcher() {
+    stopOverrideWatcher();
+    if (BrowserMenuBar.isInstantiated() && BrowserMenuBar.getInstance().getOptions().watchOverride()) {
+      try {
+        overrideWatcher = new FolderWatcher(Profile.getOverrideFolders(true), this::updateOverrideResources);
+        Logger.debug("Watching override folders: {}", overrideWatcher.getFolders());
+      } catch (IOException e) {
+        Logger.warn(e, "Could not watch override folders");
+      }
+    }
+  }
+
+  /** Stops watching the override folders. */
+  private void stopOverrideWatcher() {
+    if (overrideWatcher != null) {
+      overrideWatcher.close();
+      overrideWatcher = null;
+    }
+  }
+
+  /**
+   * Applies the specified file system changes in the override folders to the resource tree. Cached data of affected
+   * resources is invalidated.
+   */
+  private void updateOverrideResources(Set<Path> changes) {
+    if (instance != this || treeModel == null || NearInfinity.getInstance() == null) {
+      return;
+    }
+
+    // files may have been added without affecting the resource tree
+    missingResources.clear();
+
+    final List<Path> overrideFolders = Profile.getOverrideFolders(true);
+    final Set<Path> files = new LinkedHashSet<>();
+    for (final Path path : changes) {
+      if (FileManager.isSamePath(path, overrideFolders)) {
+        // events were lost: synchronizing whole folder
+        try {
+          files.addAll(filterRegularFiles(listFolderEntries(path)));
+        } catch (IOException e) {
+          Logger.warn(e, "Could not list folder: {}", path);
+        }
+        for (final ResourceEntry entry : treeModel.getResourceEntries()) {
+          final Path file = (entry instanceof FileResourceEntry) ? entry.getActualPath() : null;
+          if (file != null && path.equals(file.getParent())) {
+            files.add(file);
+          }
+        }
+      } else if (!FileEx.create(path).isDirectory()) {
+        files.add(path);
+      }
+    }
+
+    for (final Path file : files) {
+      final String fileName = file.getFileName().toString();
+      final ResourceEntry oldEntry = treeModel.getResourceEntry(fileName, true);
+      if (FileEx.create(file).isFile()) {
+        registerResourceInternal(file, false);
+      } else if (oldEntry instanceof FileResourceEntry && file.equals(oldEntry.getActualPath())) {
+        unregisterResourceInternal(file);
+      }
+      final ResourceEntry newEntry = treeModel.getResourceEntry(fileName, true);
+      invalidateCachedResource(oldEntry);
+      if (newEntry != oldEntry) {
+        invalidateCachedResource(newEntry);
+      }
+    }
+  }
+
+  /** Removes cached data associated with the specified resource. */
+  private static void invalidateCachedResource(ResourceEntry entry) {
+    if (entry != null) {
+      Table2daCache.cacheInvalid(entry);
+      IdsMapCache.remove(entry);
+      IniMapCache.cacheInvalid(entry);
+      IconCache.remove(entry);
+      if (getInstance() != null) {
+        getInstance().resourceCache.remove(entry);
+      }
+    }
+  }
+
+  /**
+   * Returns the regular files of all specified folders. Listings are taken from the snapshot if available. Remaining
+   * folders are enumerated in parallel, and their entries are checked in parallel batches. Resulting listings are
+   * stored in the snapshot.
+   *
+   * @param folders  List of folders to scan.
+   * @param snapshot Optional {@link ResourceTreeSnapshot} for retrieving and storing folder listings.
+   * @return List of regular files for each of the specified folders, in the same order.
+   */
+  private static List<List<Path>> listFiles(List<Path> folders, ResourceTreeSnapshot snapshot) throws Exception {
+    final List<List<Path>> retVal = new ArrayList<>(folders.size());
+    try (final Threading threadPool = new Threading(Threading.Priority.HIGHEST)) {
+      // enumerating folder entries
+      final List<Future<List<Path>>> entryLists = new ArrayList<>(folders.size());
+      for (final Path folder : folders) {
+        final List<Path> files = (snapshot != null) ? snapshot.getFolderListing(folder) : null;
+        retVal.add(files);
+        entryLists.add((files == null) ? threadPool.submit(() -> listFolderEntries(folder)) : null);
+      }
+
+      // filtering regular files
+      final List<List<Future<List<Path>>>> batchLists = new ArrayList<>(folders.size());
+      for (final Future<List<Path>> entryList : entryLists) {
+        List<Future<List<Path>>> batches = null;
+        if (entryList != null) {
+          final List<Path> entries = getFutureResult(entryList);
+          batches = new ArrayList<>();
+          for (int start = 0; start < entries.size(); start += LIST_FILES_BATCH_SIZE) {
+            final List<Path> batch = entries.subList(start, Math.min(entries.size(), start + LIST_FILES_BATCH_SIZE));
+            batches.add(threadPool.submit(() -> filterRegularFiles(batch)));
+          }
+        }
+        batchLists.add(batches);
+      }
+
+      // merging results
+      for (int i = 0, size = folders.size(); i < size; i++) {
+        final List<Future<List<Path>>> batches = batchLists.get(i);
+        if (batches != null) {
+          final List<Path> files = new ArrayList<>();
+          for (final Future<List<Path>> batch : batches) {
+            files.addAll(getFutureResult(batch));
+          }
+          retVal.set(i, files);
+          if (snapshot != null) {
+            snapshot.setFolderListing(folders.get(i), files);
+          }
+        }
+      }
+    }
+    return retVal;
+  }
+
+  /** Returns all entries of the specified folder. */
+  private static List<Path> listFolderEntries(Path folder) throws IOException {
+    final List<Path> retVal = new ArrayList<>();
+    try (DirectoryStream<Path> dstream = Files.newDirectoryStream(folder)) {
+      dstream.forEach(retVal::add);
+    }
+    return retVal;
+  }
+
+  /** Returns all regular files from the specified list of paths. */
+  private static List<Path> filterRegularFiles(List<Path> paths) {
+    final List<Path> retVal = new ArrayList<>(paths.size());
+    for (final Path path : paths) {
+      if (FileEx.create(path).isFile()) {
+        retVal.add(path);
+      }
+    }
+    return retVal;
+  }
+
+  /** Waits for the specified task to complete and returns its result. Rethrows exceptions thrown by the task. */
+  private static <T> T getFutureResult(Future<T> future) throws Exception {
+    try {
+      return future.get();
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof Exception) {
+        throw (Exception) e.getCause();
+      }
+      throw e;
+    }
   }
 
   /**
@@ -1797,6 +2002,8 @@ private TriState saveResourceInternal(Resource resource, Component parent, Path
       Logger.error(e);
       return TriState.FALSE;
     }
+    missingResources.clear();
+    resourceCache.remove(entry);
 
     JOptionPane.showMessageDialog(parent, "File saved to \"" + outPath.toAbsolutePath() + '\"', "Save complete",
         JOptionPane.INFORMATION_MESSAGE);
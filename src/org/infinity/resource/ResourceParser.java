@@ -0,0 +1,24 @@
+// Near Infinity - An Infinity Engine Browser and Editor
+// Copyright (C) 2001 Jon Olav Hauglid
+// See LICENSE.txt for license information
+
+package org.infinity.resource;
+
+import org.infinity.resource.key.ResourceEntry;
+
+/**
+ * Creates {@link Resource} instances from resource entries.
+ *
+ * @see ResourceFactory#registerResourceParser(String, Class, ResourceParser)
+ */
+@FunctionalInterface
+public interface ResourceParser {
+  /**
+   * Parses the specified resource.
+   *
+   * @param entry The {@link ResourceEntry} of the resource.
+   * @return The parsed {@link Resource}.
+   * @throws Exception if the resource could not be parsed.
+   */
+  Resource parse(ResourceEntry entry) throws Exception;
+}
@@ -0,0 +1,275 @@
+// Near Infinity - An Infinity Engine Browser and Editor
+// Copyright (C) 2001 Jon Olav Hauglid
+// See LICENSE.txt for license information
+
+package org.infinity.resource;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.infinity.resource.are.AreResource;
+import org.infinity.resource.are.viewer.VirtualMap;
+import org.infinity.resource.bcs.BafResource;
+import org.infinity.resource.bcs.BcsResource;
+import org.infinity.resource.chu.ChuResource;
+import org.infinity.resource.cre.CreResource;
+import org.infinity.resource.dlg.DlgResource;
+import org.infinity.resource.gam.GamResource;
+import org.infinity.resource.graphics.BamResource;
+import org.infinity.resource.graphics.GraphicsResource;
+import org.infinity.resource.graphics.MosResource;
+import org.infinity.resource.graphics.PltResource;
+import org.infinity.resource.graphics.PvrzResource;
+import org.infinity.resource.graphics.TisResource;
+import org.infinity.resource.itm.ItmResource;
+import org.infinity.resource.key.ResourceEntry;
+import org.infinity.resource.maze.MazeResource;
+import org.infinity.resource.mus.MusResource;
+import org.infinity.resource.other.EffResource;
+import org.infinity.resource.other.FntResource;
+import org.infinity.resource.other.TtfResource;
+import org.infinity.resource.other.UnknownResource;
+import org.infinity.resource.other.VvcResource;
+import org.infinity.resource.other.WfxResource;
+import org.infinity.resource.pro.ProResource;
+import org.infinity.resource.sav.SavResource;
+import org.infinity.resource.sound.SoundResource;
+import org.infinity.resource.spl.SplResource;
+import org.infinity.resource.src.SrcResource;
+import org.infinity.resource.sto.StoResource;
+import org.infinity.resource.text.PlainTextResource;
+import org.infinity.resource.text.QuestsResource;
+import org.infinity.resource.to.TohResource;
+import org.infinity.resource.to.TotResource;
+import org.infinity.resource.var.VarResource;
+import org.infinity.resource.vef.VefResource;
+import org.infinity.resource.video.MveResource;
+import org.infinity.resource.video.WbmResource;
+import org.infinity.resource.wed.WedResource;
+import org.infinity.resource.wmp.WmpResource;
+
+/**
+ * Maps file extensions and signatures to resource classes and provides cached parsers for them.
+ *
+ * <p>
+ * The mapping of extensions depends on the current game and is rebuilt whenever a different game is opened. Parsers
+ * invoke the {@code (ResourceEntry)} constructor of the resource class through a method handle which is looked up
+ * only once per class. Alternate resource classes and parsers can be registered for individual extensions.
+ * </p>
+ */
+final class ResourceTypeRegistry {
+  /** Maps signatures of resources with unknown extension to the extension of the resource type. */
+  private static final Map<String, String> SIGNATURES = new HashMap<>();
+
+  static {
+    SIGNATURES.put("ARE ", "ARE");
+    SIGNATURES.put("BAM ", "BAM");
+    SIGNATURES.put("BAMC", "BAM");
+    SIGNATURES.put("CHR ", "CHR");
+    SIGNATURES.put("CHUI", "CHU");
+    SIGNATURES.put("CRE ", "CRE");
+    SIGNATURES.put("DLG ", "DLG");
+    SIGNATURES.put("EFF ", "EFF");
+    SIGNATURES.put("GAME", "GAM");
+    SIGNATURES.put("ITM ", "ITM");
+    SIGNATURES.put("MAZE", "MAZE");
+    SIGNATURES.put("MOS ", "MOS");
+    SIGNATURES.put("MOSC", "MOS");
+    SIGNATURES.put("PLT ", "PLT");
+    SIGNATURES.put("PRO ", "PRO");
+    SIGNATURES.put("SAV ", "SAV");
+    SIGNATURES.put("SPL ", "SPL");
+    SIGNATURES.put("STOR", "STO");
+    SIGNATURES.put("TIS ", "TIS");
+    SIGNATURES.put("VEF ", "VEF");
+    SIGNATURES.put("VVC ", "VVC");
+    SIGNATURES.put("WAVC", "WAV");
+    SIGNATURES.put("RIFF", "WAV");
+    SIGNATURES.put("OggS", "WAV");
+    SIGNATURES.put("WED ", "WED");
+    SIGNATURES.put("WFX ", "WFX");
+    SIGNATURES.put("WMAP", "WMP");
+    SIGNATURES.put("VMAP", "VMAP");
+  }
+
+  /** Parsers based on the public {@code (ResourceEntry)} constructor of resource classes. */
+  private final ClassValue<ResourceParser> constructors = new ClassValue<ResourceParser>() {
+    @Override
+    protected ResourceParser computeValue(Class<?> type) {
+      final MethodHandle handle;
+      try {
+        handle = MethodHandles.publicLookup()
+            .findConstructor(type, MethodType.methodType(void.class, ResourceEntry.class))
+            .asType(MethodType.methodType(Resource.class, ResourceEntry.class));
+      } catch (NoSuchMethodException | IllegalAccessException e) {
+        return entry -> {
+          throw e;
+        };
+      }
+      return entry -> {
+        try {
+          return (Resource) handle.invokeExact(entry);
+        } catch (Exception e) {
+          throw e;
+        } catch (Throwable t) {
+          // errors of malformed resources are reported like Constructor.newInstance() does
+          throw new InvocationTargetException(t);
+        }
+      };
+    }
+  };
+
+  /** Resource classes registered for specific extensions. */
+  private final Map<String, Class<? extends Resource>> customTypes = new ConcurrentHashMap<>();
+  /** Parsers registered for specific resource classes. */
+  private final Map<Class<? extends Resource>, ResourceParser> customParsers = new ConcurrentHashMap<>();
+
+  private volatile Profile.Game typesGame;
+  private volatile Map<String, Class<? extends Resource>> types;
+
+  /**
+   * Returns the extension of the resource type associated with the specified signature.
+   *
+   * @param signature Signature of the resource data.
+   * @return Extension of the resource type, or {@code null} if the signature is unknown.
+   */
+  public static String getExtension(String signature) {
+    if ("2DA ".equalsIgnoreCase(signature)) {
+      return "2DA";
+    } else if ("IDS ".equalsIgnoreCase(signature)) {
+      return "IDS";
+    }
+    return SIGNATURES.get(signature);
+  }
+
+  /**
+   * Returns the resource class for the specified extension.
+   *
+   * @param ext             Upper-cased file extension.
+   * @param entry           The resource entry.
+   * @param forcedExtension Extension specified explicitly by the caller, or {@code null}.
+   * @return The resource class, or {@code null} if the resource type must be determined from the resource data.
+   */
+  public Class<? extends Resource> getType(String ext, ResourceEntry entry, String forcedExtension) {
+    final Class<? extends Resource> custom = customTypes.get(ext);
+    if (custom != null) {
+      return custom;
+    }
+
+    switch (ext) {
+      case "INI":
+        return (Profile.getEngine() == Profile.Engine.PST
+            && QuestsResource.RESOURCE_NAME.equals(entry.getResourceName())) ? QuestsResource.class
+            : PlainTextResource.class;
+      case "PLT":
+        return ext.equals(forcedExtension) ? PltResource.class : null;
+      default:
+        return getTypes().get(ext);
+    }
+  }
+
+  /** Returns the parser for the specified resource class. */
+  public ResourceParser getParser(Class<? extends Resource> type) {
+    final ResourceParser parser = customParsers.get(type);
+    return (parser != null) ? parser : constructors.get(type);
+  }
+
+  /**
+   * Registers a resource class for the specified extension.
+   *
+   * @param ext    Upper-cased file extension.
+   * @param type   The resource class.
+   * @param parser Parser for the resource class. Specify {@code null} to use the {@code (ResourceEntry)} constructor of
+   *               the resource class.
+   */
+  public void register(String ext, Class<? extends Resource> type, ResourceParser parser) {
+    customTypes.put(ext, Objects.requireNonNull(type));
+    if (parser != null) {
+      customParsers.put(type, parser);
+    } else {
+      customParsers.remove(type);
+    }
+  }
+
+  /** Removes the resource class registered for the specified extension. */
+  public void unregister(String ext) {
+    final Class<? extends Resource> type = customTypes.remove(ext);
+    if (type != null && !customTypes.containsValue(type)) {
+      customParsers.remove(type);
+    }
+  }
+
+  // Returns the extension map for the current game
+  private Map<String, Class<? extends Resource>> getTypes() {
+    final Profile.Game game = Profile.getGame();
+    Map<String, Class<? extends Resource>> retVal = types;
+    if (retVal == null || typesGame != game) {
+      retVal = createTypes();
+      types = retVal;
+      typesGame = game;
+    }
+    return retVal;
+  }
+
+  private static Map<String, Class<? extends Resource>> createTypes() {
+    final boolean isEE = Profile.isEnhancedEdition();
+    final Map<String, Class<? extends Resource>> map = new HashMap<>();
+    map.put("BAM", BamResource.class);
+    map.put("TIS", TisResource.class);
+    map.put("BMP", GraphicsResource.class);
+    map.put("PNG", GraphicsResource.class);
+    map.put("MOS", MosResource.class);
+    map.put("WAV", SoundResource.class);
+    map.put("ACM", SoundResource.class);
+    map.put("MUS", MusResource.class);
+    for (final String ext : new String[] { "IDS", "2DA", "BIO", "RES", "TXT", "LOG" }) {
+      map.put(ext, PlainTextResource.class);
+    }
+    if (isEE || Profile.getGame() == Profile.Game.IWD2EE) {
+      map.put("LUA", PlainTextResource.class);
+    }
+    if (isEE) {
+      for (final String ext : new String[] { "SQL", "GUI", "MENU", "GLSL" }) {
+        map.put(ext, PlainTextResource.class);
+      }
+    }
+    map.put("MVE", MveResource.class);
+    map.put("WBM", WbmResource.class);
+    map.put("BCS", BcsResource.class);
+    map.put("BS", BcsResource.class);
+    map.put("ITM", ItmResource.class);
+    map.put("EFF", EffResource.class);
+    map.put("VEF", VefResource.class);
+    map.put("VVC", VvcResource.class);
+    map.put("SRC", (Profile.getEngine() == Profile.Engine.IWD2) ? PlainTextResource.class : SrcResource.class);
+    map.put("DLG", DlgResource.class);
+    map.put("SPL", SplResource.class);
+    map.put("STO", StoResource.class);
+    map.put("WMP", WmpResource.class);
+    map.put("CHU", ChuResource.class);
+    map.put("CRE", CreResource.class);
+    map.put("CHR", CreResource.class);
+    map.put("ARE", AreResource.class);
+    map.put("WFX", WfxResource.class);
+    map.put("PRO", ProResource.class);
+    map.put("WED", WedResource.class);
+    map.put("GAM", GamResource.class);
+    map.put("SAV", SavResource.class);
+    map.put("VAR", VarResource.class);
+    map.put("BAF", BafResource.class);
+    map.put("TOH", TohResource.class);
+    map.put("TOT", TotResource.class);
+    map.put("PVRZ", isEE ? PvrzResource.class : UnknownResource.class);
+    map.put("FNT", isEE ? FntResource.class : UnknownResource.class);
+    map.put("TTF", isEE ? TtfResource.class : UnknownResource.class);
+    map.put("MAZE", (Profile.getGame() == Profile.Game.PSTEE) ? MazeResource.class : UnknownResource.class);
+    map.put("VMAP", VirtualMap.class);
+    return map;
+  }
+}
@@ -0,0 +1,273 @@
+// Near Infinity - An Infinity Engine Browser and Editor
+// Copyright (C) 2001 Jon Olav Hauglid
+// See LICENSE.txt for license information
+
+package org.infinity.resource;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+
+import org.infinity.resource.key.ResourceEntry;
+
+/**
+ * Read-only view of the raw data of a resource.
+ *
+ * <p>
+ * In contrast to the {@link AbstractStruct} representation of a resource no field objects are created. Values are
+ * decoded from the underlying buffer on request, which makes the view suitable for checks and searches over a large
+ * number of resources. Accessors expect absolute offsets and throw an {@link IndexOutOfBoundsException} if the
+ * requested data is not available.
+ * </p>
+ *
+ * <p>
+ * In addition to the generic accessors the view provides the layout of abilities and effects of {@code ITM},
+ * {@code SPL}, {@code CRE} and {@code EFF} resources. Effects are covered exactly as they are read by the respective
+ * resource classes.
+ * </p>
+ */
+public final class ResourceView {
+  /** Size of a version 1 effect structure. */
+  public static final int EFFECT_V1_SIZE = 48;
+  /** Size of a version 2 effect structure. */
+  public static final int EFFECT_V2_SIZE = 264;
+
+  private static final int[] EMPTY = new int[0];
+
+  private final ResourceEntry entry;
+  private final ByteBuffer buffer;
+  // header data is decoded only once, since effect accessors depend on it
+  private final String signature;
+  private final String version;
+  private final int effectVersion;
+
+  ResourceView(ResourceEntry entry, ByteBuffer buffer) {
+    this.entry = entry;
+    this.buffer = buffer.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+    this.signature = isAvailable(0, 4) ? getString(0, 4) : "";
+    this.version = isAvailable(4, 4) ? getString(4, 4) : "";
+    this.effectVersion = detectEffectVersion();
+  }
+
+  /** Returns the {@link ResourceEntry} of the resource. */
+  public ResourceEntry getResourceEntry() {
+    return entry;
+  }
+
+  /** Returns the size of the resource data, in bytes. */
+  public int getSize() {
+    return buffer.limit();
+  }
+
+  /** Returns whether the specified data range is located inside the resource data. */
+  public boolean isAvailable(int offset, int length) {
+    return offset >= 0 && length >= 0 && offset <= buffer.limit() - length;
+  }
+
+  /** Returns the signature of the resource, or an empty string if not available. */
+  public String getSignature() {
+    return signature;
+  }
+
+  /** Returns the version string of the resource, or an empty string if not available. */
+  public String getVersion() {
+    return version;
+  }
+
+  /** Returns the signed byte value at the specified offset. */
+  public int getByte(int offset) {
+    return buffer.get(offset);
+  }
+
+  /** Returns the unsigned byte value at the specified offset. */
+  public int getUnsignedByte(int offset) {
+    return buffer.get(offset) & 0xff;
+  }
+
+  /** Returns the signed 16-bit value at the specified offset. */
+  public int getShort(int offset) {
+    return buffer.getShort(offset);
+  }
+
+  /** Returns the unsigned 16-bit value at the specified offset. */
+  public int getUnsignedShort(int offset) {
+    return buffer.getShort(offset) & 0xffff;
+  }
+
+  /** Returns the signed 32-bit value at the specified offset. */
+  public int getInt(int offset) {
+    return buffer.getInt(offset);
+  }
+
+  /** Returns the unsigned 32-bit value at the specified offset. */
+  public long getUnsignedInt(int offset) {
+    return buffer.getInt(offset) & 0xffffffffL;
+  }
+
+  /**
+   * Returns the text at the specified offset. Text is terminated by the first null character.
+   *
+   * @param offset Start offset of the text.
+   * @param length Max. length of the text, in bytes.
+   */
+  public String getString(int offset, int length) {
+    if (!isAvailable(offset, length)) {
+      throw new IndexOutOfBoundsException("offset=" + offset + ", length=" + length);
+    }
+    final byte[] data = new byte[length];
+    int len = 0;
+    while (len < length && (data[len] = buffer.get(offset + len)) != 0) {
+      len++;
+    }
+    return new String(data, 0, len, StandardCharsets.ISO_8859_1);
+  }
+
+  /** Returns the resource reference at the specified offset, without extension. */
+  public String getResRef(int offset) {
+    return getString(offset, 8);
+  }
+
+  /**
+   * Returns the version of effect structures stored in the resource.
+   *
+   * @return {@code 1} or {@code 2} for the respective effect version. Returns {@code 0} if the resource type does not
+   *         provide effects.
+   */
+  public int getEffectVersion() {
+    return effectVersion;
+  }
+
+  /**
+   * Returns the offsets of all effect structures of the resource in the order they are read by the resource class.
+   * Offsets point to the opcode field of the effects.
+   *
+   * @return Array of offsets. Returns {@code null} if the resource type does not provide effects.
+   */
+  public int[] getEffectOffsets() {
+    switch (signature) {
+      case "ITM ":
+      case "SPL ":
+      {
+        final int tableOffset = getInt(0x6a);
+        final int[] abilities = getAbilityOffsets();
+        int count = Math.max(0, getGlobalEffectCount());
+        for (final int abilOffset : abilities) {
+          count += Math.max(0, getAbilityEffectCount(abilOffset));
+        }
+        final int[] retVal = new int[count];
+        int idx = addEffectOffsets(retVal, 0, tableOffset, getGlobalEffectIndex(), getGlobalEffectCount(),
+            EFFECT_V1_SIZE);
+        for (final int abilOffset : abilities) {
+          idx = addEffectOffsets(retVal, idx, tableOffset, getAbilityFirstEffectIndex(abilOffset),
+              getAbilityEffectCount(abilOffset), EFFECT_V1_SIZE);
+        }
+        return retVal;
+      }
+      case "CRE ":
+      {
+        final int base = "V2.2".equals(version) ? 0x61e : 0x2c4;
+        final int[] retVal = new int[Math.max(0, getInt(base + 4))];
+        final int size = (effectVersion == 2) ? EFFECT_V2_SIZE : EFFECT_V1_SIZE;
+        addEffectOffsets(retVal, 0, getInt(base), 0, retVal.length, size);
+        if (size == EFFECT_V2_SIZE) {
+          // skipping embedded signature and version
+          for (int i = 0; i < retVal.length; i++) {
+            retVal[i] += 8;
+          }
+        }
+        return retVal;
+      }
+      case "EFF ":
+        return (effectVersion == 2) ? new int[] { 0x10 } : null;
+      default:
+        return null;
+    }
+  }
+
+  /** Returns the opcode of the effect at the specified offset, as returned by {@link #getEffectOffsets()}. */
+  public int getEffectOpcode(int offset) {
+    return (effectVersion == 1) ? getUnsignedShort(offset) : getInt(offset);
+  }
+
+  /** Returns parameter 1 of the effect at the specified offset, as returned by {@link #getEffectOffsets()}. */
+  public int getEffectParameter1(int offset) {
+    return getInt(offset + ((effectVersion == 1) ? 4 : 12));
+  }
+
+  /** Returns parameter 2 of the effect at the specified offset, as returned by {@link #getEffectOffsets()}. */
+  public int getEffectParameter2(int offset) {
+    return getInt(offset + ((effectVersion == 1) ? 8 : 16));
+  }
+
+  /**
+   * Returns the offsets of all ability structures of {@code ITM} and {@code SPL} resources.
+   *
+   * @return Array of offsets. Returns an empty array for other resource types.
+   */
+  public int[] getAbilityOffsets() {
+    final int size;
+    switch (signature) {
+      case "ITM ":
+        size = 56;
+        break;
+      case "SPL ":
+        size = 40;
+        break;
+      default:
+        return EMPTY;
+    }
+    final int offset = getInt(0x64);
+    final int count = getShort(0x68);
+    if (count <= 0) {
+      return EMPTY;
+    }
+    final int[] retVal = new int[count];
+    for (int i = 0; i < count; i++) {
+      retVal[i] = offset + i * size;
+    }
+    return retVal;
+  }
+
+  /** Returns the index of the first global effect of {@code ITM} and {@code SPL} resources. */
+  public int getGlobalEffectIndex() {
+    return getShort(0x6e);
+  }
+
+  /** Returns the number of global effects of {@code ITM} and {@code SPL} resources. */
+  public int getGlobalEffectCount() {
+    return getShort(0x70);
+  }
+
+  /** Returns the index of the first effect of the ability at the specified offset. */
+  public int getAbilityFirstEffectIndex(int abilityOffset) {
+    return getShort(abilityOffset + 0x20);
+  }
+
+  /** Returns the number of effects of the ability at the specified offset. */
+  public int getAbilityEffectCount(int abilityOffset) {
+    return getShort(abilityOffset + 0x1e);
+  }
+
+  // Determines the effect version from the resource header
+  private int detectEffectVersion() {
+    switch (signature) {
+      case "ITM ":
+      case "SPL ":
+        return 1;
+      case "CRE ":
+        return (isAvailable(0x33, 1) && getUnsignedByte(0x33) == 1) ? 2 : 1;
+      case "EFF ":
+        return "V2.0".equals(version) ? 2 : 0;
+      default:
+        return 0;
+    }
+  }
+
+  // Stores offsets of a sequence of effects in the array and returns the next array index
+  private static int addEffectOffsets(int[] array, int index, int tableOffset, int first, int count, int size) {
+    for (int i = 0; i < count; i++) {
+      array[index++] = tableOffset + (first + i) * size;
+    }
+    return index;
+  }
+}
@@ -37,6 +37,7 @@
 import javax.swing.event.DocumentListener;
 import javax.swing.text.BadLocationException;
 
+import org.infinity.AppOption;
 import org.infinity.gui.ButtonPanel;
 import org.infinity.gui.ButtonPopupMenu;
 import org.infinity.gui.DataMenuItem;
@@ -46,6 +47,7 @@
 import org.infinity.gui.ViewFrame;
 import org.infinity.gui.ViewerUtil;
 import org.infinity.gui.menu.BrowserMenuBar;
+import org.infinity.gui.menu.OptionsMenuItem;
 import org.infinity.icon.Icons;
 import org.infinity.resource.Closeable;
 import org.infinity.resource.Profile;
@@ -95,7 +97,7 @@ public BafResource(ResourceEntry entry) throws Exception {
       buffer = StaticSimpleXorDecryptor.decrypt(buffer, 2);
     }
     text = StreamUtils.readString(buffer, buffer.limit(),
-        Misc.getCharsetFrom(BrowserMenuBar.getInstance().getOptions().getSelectedCharset()));
+        Misc.getCharsetFrom(OptionsMenuItem.getTextCharset()));
   }
 
   // --------------------- Begin Interface ActionListener ---------------------
@@ -406,7 +408,7 @@ private void compile() {
       bpmWarnings.setEnabled(true);
     }
     Decompiler decompiler = new Decompiler(codeText.getText(), true);
-    decompiler.setGenerateComments(BrowserMenuBar.getInstance().getOptions().autogenBCSComments());
+    decompiler.setGenerateComments(AppOption.AUTO_GEN_BCS_COMMENTS.getBoolValue());
     try {
       decompiler.decompile();
       Set<ResourceEntry> uses = decompiler.getResourcesUsed();
@@ -432,7 +434,7 @@ private void decompile() {
     JButton bCompile = (JButton) bpSource.getControlByType(CTRL_COMPILE);
     ButtonPopupMenu bpmUses = (ButtonPopupMenu) buttonPanel.getControlByType(CTRL_USES);
     Decompiler decompiler = new Decompiler(codeText.getText(), true);
-    decompiler.setGenerateComments(BrowserMenuBar.getInstance().getOptions().autogenBCSComments());
+    decompiler.setGenerateComments(AppOption.AUTO_GEN_BCS_COMMENTS.getBoolValue());
     try {
       sourceText.setText(decompiler.getSource());
     } catch (Exception e) {
@@ -501,7 +503,7 @@ public String getDescription() {
     int returnval = chooser.showSaveDialog(panel.getTopLevelAncestor());
     if (returnval == JFileChooser.APPROVE_OPTION) {
       try (BufferedWriter bw = Files.newBufferedWriter(chooser.getSelectedFile().toPath(),
-          Misc.getCharsetFrom(BrowserMenuBar.getInstance().getOptions().getSelectedCharset()))) {
+          Misc.getCharsetFrom(OptionsMenuItem.getTextCharset()))) {
         bw.write(codeText.getText());
         JOptionPane.showMessageDialog(panel, "File saved to \"" + chooser.getSelectedFile().toString() + '\"',
             "Save completed", JOptionPane.INFORMATION_MESSAGE);
@@ -39,6 +39,7 @@
 import javax.swing.filechooser.FileFilter;
 import javax.swing.text.BadLocationException;
 
+import org.infinity.AppOption;
 import org.infinity.exceptions.AbortException;
 import org.infinity.gui.ButtonPanel;
 import org.infinity.gui.ButtonPopupMenu;
@@ -49,6 +50,7 @@
 import org.infinity.gui.ViewFrame;
 import org.infinity.gui.ViewerUtil;
 import org.infinity.gui.menu.BrowserMenuBar;
+import org.infinity.gui.menu.OptionsMenuItem;
 import org.infinity.icon.Icons;
 import org.infinity.resource.Closeable;
 import org.infinity.resource.Profile;
@@ -331,7 +333,7 @@ public BcsResource(ResourceEntry entry) throws Exception {
       buffer = StaticSimpleXorDecryptor.decrypt(buffer, 2);
     }
     text = StreamUtils.readString(buffer, buffer.limit(),
-        Misc.getCharsetFrom(BrowserMenuBar.getInstance().getOptions().getSelectedCharset()));
+        Misc.getCharsetFrom(OptionsMenuItem.getTextCharset()));
   }
 
   // --------------------- Begin Interface ActionListener ---------------------
@@ -484,7 +486,7 @@ public String getDescription() {
         int returnval = chooser.showSaveDialog(panel.getTopLevelAncestor());
         if (returnval == JFileChooser.APPROVE_OPTION) {
           try (BufferedWriter bw = Files.newBufferedWriter(chooser.getSelectedFile().toPath(),
-              Misc.getCharsetFrom(BrowserMenuBar.getInstance().getOptions().getSelectedCharset()))) {
+              Misc.getCharsetFrom(OptionsMenuItem.getTextCharset()))) {
             bw.write(sourceText.getText().replaceAll("\r?\n", Misc.LINE_SEPARATOR));
             JOptionPane.showMessageDialog(panel, "File saved to \"" + chooser.getSelectedFile().toString() + '\"',
                 "Export complete", JOptionPane.INFORMATION_MESSAGE);
@@ -529,7 +531,7 @@ public String getText() {
       return sourceText.getText();
     }
     Decompiler decompiler = new Decompiler(text, false);
-    decompiler.setGenerateComments(BrowserMenuBar.getInstance().getOptions().autogenBCSComments());
+    decompiler.setGenerateComments(AppOption.AUTO_GEN_BCS_COMMENTS.getBoolValue());
     try {
       return decompiler.getSource();
     } catch (Exception e) {
@@ -746,7 +748,7 @@ private void decompile() {
     ButtonPopupMenu bpmUses = (ButtonPopupMenu) buttonPanel.getControlByType(CTRL_USES);
 
     Decompiler decompiler = new Decompiler(codeText.getText(), true);
-    decompiler.setGenerateComments(BrowserMenuBar.getInstance().getOptions().autogenBCSComments());
+    decompiler.setGenerateComments(AppOption.AUTO_GEN_BCS_COMMENTS.getBoolValue());
     try {
       sourceText.setText(decompiler.getSource());
     } catch (Exception e) {
@@ -11,7 +11,7 @@
 import java.util.SortedSet;
 import java.util.TreeSet;
 
-import org.infinity.gui.menu.BrowserMenuBar;
+import org.infinity.AppOption;
 import org.infinity.resource.ResourceFactory;
 import org.infinity.resource.bcs.parser.BafNode;
 import org.infinity.resource.bcs.parser.BafNodeTransformer;
@@ -69,7 +69,7 @@ public Compiler(String source) {
 
   public Compiler(String source, ScriptType type) {
     this.scriptType = type;
-    setVerbose(BrowserMenuBar.getInstance().getOptions().showMoreCompileWarnings());
+    setVerbose(AppOption.MORE_COMPILER_WARNINGS.getBoolValue());
     setSource(source);
   }
 
@@ -18,7 +18,9 @@
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
+import org.infinity.AppOption;
 import org.infinity.gui.menu.BrowserMenuBar;
+import org.infinity.gui.menu.OptionsMenuItem;
 import org.infinity.resource.Profile;
 import org.infinity.resource.ResourceFactory;
 import org.infinity.resource.key.ResourceEntry;
@@ -64,8 +66,8 @@ public Decompiler(String code, boolean generateErrors) {
 
   public Decompiler(String code, ScriptType type, boolean generateErrors) {
     if (BrowserMenuBar.isInstantiated()) {
-      if (BrowserMenuBar.getInstance().getOptions().getBcsAutoIndentEnabled()) {
-        indent = BrowserMenuBar.getInstance().getOptions().getBcsIndent();
+      if (AppOption.BCS_AUTO_INDENT.getBoolValue()) {
+        indent = OptionsMenuItem.getBcsIndentation();
       } else {
         indent = "";
       }
@@ -161,8 +163,8 @@ public String getIndent() {
   /** Applies the indentation string defined in the currently selected item in the Options menu. */
   public void setIndent() {
     if (BrowserMenuBar.isInstantiated()) {
-      if (BrowserMenuBar.getInstance().getOptions().getBcsAutoIndentEnabled()) {
-        indent = BrowserMenuBar.getInstance().getOptions().getBcsIndent();
+      if (AppOption.BCS_AUTO_INDENT.getBoolValue()) {
+        indent = OptionsMenuItem.getBcsIndentation();
       } else {
         indent = "";
       }
@@ -0,0 +1,273 @@
+// Near Infinity - An Infinity Engine Browser and Editor
+// Copyright (C) 2001 Jon Olav Hauglid
+// See LICENSE.txt for license information
+
+package org.infinity.resource.bcs;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.infinity.resource.Profile;
+import org.infinity.util.IdsMap;
+import org.infinity.util.IdsMapCache;
+import org.infinity.util.IdsMapEntry;
+import org.infinity.util.Logger;
+import org.infinity.util.StringBufferStream;
+
+/**
+ * Determines whether compiled script code may reference specific names, IDS symbols or string references without
+ * decompiling it.
+ *
+ * <p>
+ * Names are matched against the string literals of the byte code. Symbols and string references are only resolved for
+ * the numeric parameters of triggers, actions and objects which are associated with an IDS resource or a string table
+ * by one of the function signatures. The matcher may report matches that are not visible in the decompiled source,
+ * e.g. when a name is part of a combined string parameter, but it never misses a match. Scripts which match should be
+ * decompiled to determine the actual hits.
+ * </p>
+ */
+public final class ScriptReferenceMatcher {
+  private final List<String> names = new ArrayList<>();
+  private final List<String> symbols = new ArrayList<>();
+  private final List<Integer> strrefs = new ArrayList<>();
+
+  /**
+   * Adds a name to match. Names are matched case-insensitively against the string arguments and object names in the
+   * script code. {@code null} and empty names are ignored.
+   */
+  public ScriptReferenceMatcher addName(String name) {
+    if (name != null && !name.isEmpty()) {
+      names.add(name);
+    }
+    return this;
+  }
+
+  /**
+   * Adds an IDS symbol to match. Symbols are matched case-sensitively against the symbols of numeric arguments and
+   * object specifiers. {@code null} and empty symbols are ignored.
+   */
+  public ScriptReferenceMatcher addSymbol(String symbol) {
+    if (symbol != null && !symbol.isEmpty()) {
+      symbols.add(symbol);
+    }
+    return this;
+  }
+
+  /** Adds a string reference to match against numeric arguments that refer to the string table. */
+  public ScriptReferenceMatcher addStringRef(int strref) {
+    strrefs.add(strref);
+    return this;
+  }
+
+  /** Returns {@code true} if no names, symbols or string references have been added. */
+  public boolean isEmpty() {
+    return names.isEmpty() && symbols.isEmpty() && strrefs.isEmpty();
+  }
+
+  /**
+   * Returns whether the specified byte code may contain a reference to any of the names, symbols or string references
+   * of the matcher. The code may consist of a whole script or a sequence of triggers or actions.
+   *
+   * @param code The compiled script code.
+   * @return {@code false} if the decompiled script can not contain any of the references, {@code true} otherwise.
+   */
+  public boolean matches(String code) {
+    if (code == null || code.isEmpty()) {
+      return false;
+    }
+
+    if (matchesLiterals(code)) {
+      return true;
+    }
+
+    if (symbols.isEmpty() && strrefs.isEmpty()) {
+      return false;
+    }
+
+    final Signatures triggers = Signatures.getTriggers();
+    final Signatures actions = Signatures.getActions();
+    final StringBufferStream sbs = new StringBufferStream(code);
+    sbs.setAutoSkipWhitespace(true);
+    try {
+      while (!sbs.eos()) {
+        if (sbs.skip("TR")) {
+          if (matchesTrigger(new BcsTrigger(sbs, triggers))) {
+            return true;
+          }
+        } else if (sbs.skip("AC")) {
+          if (matchesAction(new BcsAction(sbs, actions))) {
+            return true;
+          }
+        } else {
+          sbs.skip();
+        }
+      }
+    } catch (Exception e) {
+      // let the caller decide about malformed code
+      Logger.trace(e);
+      return true;
+    }
+    return false;
+  }
+
+  // Checks names against all string literals and symbols against the whole code
+  private boolean matchesLiterals(String code) {
+    for (final String symbol : symbols) {
+      if (code.contains(symbol)) {
+        return true;
+      }
+    }
+
+    if (!names.isEmpty()) {
+      int start = code.indexOf('"');
+      while (start >= 0) {
+        final int end = code.indexOf('"', start + 1);
+        if (end < 0) {
+          break;
+        }
+        for (final String name : names) {
+          if (containsIgnoreCase(code, start + 1, end, name)) {
+            return true;
+          }
+        }
+        start = code.indexOf('"', end + 1);
+      }
+    }
+    return false;
+  }
+
+  private boolean matchesTrigger(BcsTrigger trigger) {
+    Signatures.Function[] functions = trigger.signatures.getFunction(trigger.id);
+    if (functions == null) {
+      functions = trigger.signatures.getFunction(trigger.id ^ 0x4000);
+    }
+    if (functions != null) {
+      for (final Signatures.Function function : functions) {
+        int curNum = 0;
+        for (int i = 0, cnt = function.getNumParameters(); i < cnt; i++) {
+          final Signatures.Function.Parameter param = function.getParameter(i);
+          if (param.getType() == Signatures.Function.Parameter.TYPE_INTEGER) {
+            if (curNum < 3 && matchesNumber(trigger.getNumericParam(curNum), param)) {
+              return true;
+            }
+            curNum++;
+          }
+        }
+      }
+    }
+    return matchesObject(trigger.t6);
+  }
+
+  private boolean matchesAction(BcsAction action) {
+    final Signatures.Function[] functions = action.signatures.getFunction(action.id);
+    if (functions != null) {
+      for (final Signatures.Function function : functions) {
+        int curNum = 0;
+        for (int i = 0, cnt = function.getNumParameters(); i < cnt; i++) {
+          final Signatures.Function.Parameter param = function.getParameter(i);
+          if (param.getType() == Signatures.Function.Parameter.TYPE_INTEGER) {
+            if (curNum < 3 && matchesNumber(action.getNumericParam(curNum), param)) {
+              return true;
+            }
+            curNum++;
+          }
+        }
+      }
+    }
+    return matchesObject(action.a1) || matchesObject(action.a2) || matchesObject(action.a3);
+  }
+
+  private boolean matchesNumber(long value, Signatures.Function.Parameter param) {
+    if (!strrefs.isEmpty()) {
+      for (final String type : param.getResourceType()) {
+        if (type.equals("TLK") && strrefs.contains((int) value)) {
+          return true;
+        }
+      }
+    }
+
+    if (!symbols.isEmpty() && !param.getIdsRef().isEmpty()) {
+      final IdsMap map = IdsMapCache.get(param.getIdsRef() + ".ids");
+      if (map != null) {
+        IdsMapEntry entry = map.get(value);
+        if (entry == null) {
+          entry = map.get(value & 0xffffffffL);
+        }
+        if (entry != null) {
+          return matchesSymbol(entry);
+        }
+        // symbols of bitwise combinations
+        value &= 0xffffffffL;
+        for (int bit = 0; bit < 32 && value != 0; bit++) {
+          final long mask = 1L << bit;
+          if ((value & mask) != 0 && matchesSymbol(map.get(mask))) {
+            return true;
+          }
+          value &= ~mask;
+        }
+      }
+    }
+    return false;
+  }
+
+  private boolean matchesObject(BcsObject object) {
+    if (object == null || symbols.isEmpty()) {
+      return false;
+    }
+
+    if (!object.isEmptyTarget()) {
+      final ScriptInfo info = ScriptInfo.getInfo();
+      final String[] idsNames = BcsObject.getTargetList();
+      final boolean isIwd2 = (Profile.getEngine() == Profile.Engine.IWD2);
+      for (int i = 0, cnt = Math.min(idsNames.length, object.target.length); i < cnt; i++) {
+        final long value = object.target[i];
+        if (value != 0) {
+          if (matchesIds(idsNames[i] + ".IDS", value)) {
+            return true;
+          }
+          // IWD2 looks up SUBRACE symbols by the combination of RACE and SUBRACE values
+          if (isIwd2 && i == info.IDX_OBJECT_SUBRACE
+              && matchesIds(idsNames[i] + ".IDS", value | (object.target[info.IDX_OBJECT_RACE] << 16))) {
+            return true;
+          }
+        }
+      }
+    }
+
+    if (!object.isEmptyIdentifier()) {
+      for (final long value : object.identifier) {
+        if (value != 0 && matchesIds("OBJECT.IDS", value)) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  private boolean matchesIds(String idsName, long value) {
+    final IdsMap map = IdsMapCache.get(idsName);
+    return map != null && matchesSymbol(map.get(value));
+  }
+
+  private boolean matchesSymbol(IdsMapEntry entry) {
+    if (entry != null) {
+      final String symbol = entry.getSymbol();
+      for (final String s : symbols) {
+        if (symbol != null && symbol.contains(s)) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  // Returns whether the region [start, end) of text contains the specified string, ignoring case
+  private static boolean containsIgnoreCase(String text, int start, int end, String s) {
+    for (int i = start, last = end - s.length(); i <= last; i++) {
+      if (text.regionMatches(true, i, s, 0, s.length())) {
+        return true;
+      }
+    }
+    return false;
+  }
+}
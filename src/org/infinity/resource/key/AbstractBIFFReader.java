@@ -7,19 +7,26 @@
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.HashMap;
-import java.util.LinkedHashMap;
-import java.util.concurrent.locks.ReentrantLock;
-import java.util.function.BiFunction;
-import java.util.function.Function;
-import java.util.function.Supplier;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
 
-import org.infinity.util.Operation;
+import org.infinity.util.Logger;
 import org.infinity.util.io.StreamUtils;
 
 /**
  * Abstract base class for specifialized BIFF readers.
+ *
+ * <p>
+ * Opened readers are kept in a thread-safe cache which is bounded by {@link #getCacheLimit()}. Least recently used
+ * readers are removed when the limit is exceeded. Readers obtained by {@link #acquire(Path)} are pinned until they are
+ * {@link #release() released}, so that removed readers are closed only when they are no longer used.
+ * </p>
  */
 public abstract class AbstractBIFFReader {  // implements AutoCloseable
   /** Supported BIFF archive types. */
@@ -32,17 +39,38 @@ public enum Type {
     BIFC,
   }
 
-  // Synchronization object for static members
-  private static final ReentrantLock LOCK = new ReentrantLock();
+  /** Default max. number of BIFF readers kept in the cache. */
+  public static final int DEFAULT_CACHE_LIMIT = 512;
 
   // A cache for AbstractBIFFReader instances
-  private static final LinkedHashMap<Path, AbstractBIFFReader> BIFF_CACHE = new LinkedHashMap<>();
+  private static final ConcurrentHashMap<Path, AbstractBIFFReader> BIFF_CACHE = new ConcurrentHashMap<>();
+
+  // Cache statistics
+  private static final LongAdder CACHE_HITS = new LongAdder();
+  private static final LongAdder CACHE_MISSES = new LongAdder();
+
+  private static volatile int cacheLimit = DEFAULT_CACHE_LIMIT;
+
+  // Synchronization object for evicting cache entries
+  private static final Object EVICTION_LOCK = new Object();
 
   // Maps resource locators to BIFF entry structures
   private final HashMap<Integer, Entry> mapEntries = new HashMap<>();
 
   protected final Path file;
 
+  // Shared read-only channel to the BIFF file, opened on demand
+  private FileChannel channel;
+
+  // Time of last access through the BIFF cache, used for LRU eviction
+  private volatile long lastAccess;
+
+  // Number of users which pinned the reader by acquire()
+  private int pinCount;
+
+  // Indicates whether the reader has been removed from the cache
+  private boolean evicted;
+
   /**
    * Opens the specified BIFF file (of any supported type) and returns it fully initialized and ready for read
    * operations as a BIFFReader object.
@@ -55,6 +83,27 @@ public static AbstractBIFFReader open(Path file) throws Exception {
     return queryBIFFReader(file);
   }
 
+  /**
+   * Returns a fully initialized BIFFReader object for the specified BIFF file and pins it, so that it is not closed
+   * while it is in use. Each call must be followed by a call to {@link #release()} when the reader is no longer needed.
+   *
+   * @param file Path to the BIFF file.
+   * @return A pinned BIFFReader object for accessing the BIFF archive.
+   * @throws IOException On error.
+   */
+  public static AbstractBIFFReader acquire(Path file) throws Exception {
+    if (file == null) {
+      throw new NullPointerException();
+    }
+    while (true) {
+      final AbstractBIFFReader reader = queryBIFFReader(file);
+      if (reader.pin()) {
+        return reader;
+      }
+      // reader has been evicted by another thread in the meantime
+    }
+  }
+
   /** Returns a fully initialized TIS header as {@link ByteBuffer} object. */
   public static ByteBuffer getTisHeader(int tileCount, int tileSize) {
     ByteBuffer bb = StreamUtils.getByteBuffer(24);
@@ -67,38 +116,131 @@ public static ByteBuffer getTisHeader(int tileCount, int tileSize) {
     return bb;
   }
 
-  /** Removes all {@code AbstractBIFFReader} entries from the cache. */
+  /** Removes all {@code AbstractBIFFReader} entries from the cache and releases their resources. */
   public static void resetCache() {
-    performSynced(BIFF_CACHE::clear);
+    synchronized (EVICTION_LOCK) {
+      for (final Path key : BIFF_CACHE.keySet()) {
+        AbstractBIFFReader reader = BIFF_CACHE.remove(key);
+        if (reader != null) {
+          reader.evict();
+        }
+      }
+    }
+  }
+
+  /** Returns the max. number of BIFF readers kept in the cache. */
+  public static int getCacheLimit() {
+    return cacheLimit;
+  }
+
+  /**
+   * Sets the max. number of BIFF readers kept in the cache. Least recently used readers are removed from the cache if
+   * the limit is exceeded. Removed readers are closed as soon as they are no longer in use.
+   *
+   * @param limit Max. number of cached BIFF readers. Must be greater than 0.
+   */
+  public static void setCacheLimit(int limit) {
+    if (limit <= 0) {
+      throw new IllegalArgumentException("Cache limit must be greater than 0: " + limit);
+    }
+    cacheLimit = limit;
+    trimCache();
+  }
+
+  /** Returns the number of BIFF readers currently in the cache. */
+  public static int getCacheSize() {
+    return BIFF_CACHE.size();
+  }
+
+  /** Returns the number of BIFF reader requests that could be served by the cache. */
+  public static long getCacheHits() {
+    return CACHE_HITS.sum();
+  }
+
+  /** Returns the number of BIFF reader requests that required to open the BIFF file. */
+  public static long getCacheMisses() {
+    return CACHE_MISSES.sum();
   }
 
   // Fetches a cached AbstractBIFFReader associated of the specified path or creates a new one
   private static AbstractBIFFReader queryBIFFReader(Path file) throws Exception {
     AbstractBIFFReader retVal = null;
     if (file != null) {
-      // get and remove an available cached entry
-      retVal = performSynced(BIFF_CACHE::get, file);
-      if (retVal == null) {
-        Type type = detectBiffType(file);
-        switch (type) {
-          case BIFF:
-            retVal = new BIFFReader(file);
-            break;
-          case BIF:
-            retVal = new BIFReader(file);
-            break;
-          case BIFC:
-            retVal = new BIFCReader(file);
-            break;
-          default:
-            throw new IOException("Unsupported BIFF type");
+      retVal = BIFF_CACHE.get(file);
+      if (retVal != null) {
+        CACHE_HITS.increment();
+      } else {
+        CACHE_MISSES.increment();
+        AbstractBIFFReader reader = createBIFFReader(file);
+        retVal = BIFF_CACHE.putIfAbsent(file, reader);
+        if (retVal != null) {
+          // another thread has been faster
+          reader.close();
+        } else {
+          retVal = reader;
         }
-        performSynced(BIFF_CACHE::put, file, retVal);
+      }
+      retVal.lastAccess = System.nanoTime();
+      if (BIFF_CACHE.size() > cacheLimit) {
+        trimCache();
       }
     }
     return retVal;
   }
 
+  // Creates a new BIFF reader for the specified file
+  private static AbstractBIFFReader createBIFFReader(Path file) throws Exception {
+    Type type = detectBiffType(file);
+    switch (type) {
+      case BIFF:
+        return new BIFFReader(file);
+      case BIF:
+        return new BIFReader(file);
+      case BIFC:
+        return new BIFCReader(file);
+      default:
+        throw new IOException("Unsupported BIFF type");
+    }
+  }
+
+  // Removes least recently used readers until the cache limit is satisfied
+  private static void trimCache() {
+    synchronized (EVICTION_LOCK) {
+      while (BIFF_CACHE.size() > cacheLimit) {
+        Map.Entry<Path, AbstractBIFFReader> lru = null;
+        for (final Map.Entry<Path, AbstractBIFFReader> entry : BIFF_CACHE.entrySet()) {
+          if (lru == null || entry.getValue().lastAccess < lru.getValue().lastAccess) {
+            lru = entry;
+          }
+        }
+        if (lru == null) {
+          break;
+        }
+        if (BIFF_CACHE.remove(lru.getKey(), lru.getValue())) {
+          lru.getValue().evict();
+        }
+      }
+    }
+  }
+
+  /**
+   * Releases a reader which has been pinned by {@link #acquire(Path)}. The reader is closed if it has been removed from
+   * the cache and is not used by anyone else.
+   */
+  public void release() {
+    boolean close;
+    synchronized (this) {
+      if (pinCount <= 0) {
+        throw new IllegalStateException("BIFF reader has not been acquired: " + file);
+      }
+      pinCount--;
+      close = evicted && pinCount == 0;
+    }
+    if (close) {
+      close();
+    }
+  }
+
   /** Returns whether the BIFF file uses any kind of compression. */
   public boolean isCompressed() {
     return (getType() == Type.BIF || getType() == Type.BIFC);
@@ -135,6 +277,21 @@ public int[] getResourceInfo(int locator) throws IOException {
   /** Re-opens the BIFF file if it had been {@code close}d before. Does nothing if the BIFF file is open. */
   public abstract void open() throws Exception;
 
+  /**
+   * Releases system resources associated with the BIFF file, such as open file handles or temporary files.
+   * Resources are reacquired on demand by subsequent read operations.
+   */
+  public synchronized void close() {
+    if (channel != null) {
+      try {
+        channel.close();
+      } catch (IOException e) {
+        Logger.trace(e);
+      }
+      channel = null;
+    }
+  }
+
   /** Returns the BIFF resource type. */
   public abstract Type getType();
 
@@ -169,6 +326,66 @@ protected AbstractBIFFReader(Path file) throws Exception {
     this.file = file;
   }
 
+  /**
+   * Returns a read-only {@link FileChannel} to the BIFF file which is shared by all read operations of this reader.
+   * The channel must not be closed by the caller and should only be accessed by absolute positional operations.
+   */
+  protected synchronized FileChannel getChannel() throws IOException {
+    if (channel == null || !channel.isOpen()) {
+      channel = FileChannel.open(file, StandardOpenOption.READ);
+    }
+    return channel;
+  }
+
+  /**
+   * Fills the remaining space of the specified buffer with data from the shared BIFF file channel, starting at the
+   * given file position. The channel is reopened if it has been closed by another thread, since an interrupted read
+   * operation closes the channel for all threads.
+   *
+   * @param buffer   The {@link ByteBuffer} to fill.
+   * @param position Start position in the BIFF file.
+   * @throws IOException if the buffer could not be filled.
+   */
+  protected void readFully(ByteBuffer buffer, long position) throws IOException {
+    while (buffer.hasRemaining()) {
+      int n;
+      try {
+        n = getChannel().read(buffer, position);
+      } catch (ClosedChannelException e) {
+        // shared channel has been closed by another interrupted thread or a concurrent close() call
+        if (Thread.currentThread().isInterrupted()) {
+          throw e;
+        }
+        continue;
+      }
+      if (n < 0) {
+        throw new IOException("Unexpected end of file: " + file);
+      }
+      position += n;
+    }
+  }
+
+  // Pins the reader for use by the current thread. Returns false if the reader has already been removed from the cache.
+  private synchronized boolean pin() {
+    if (evicted) {
+      return false;
+    }
+    pinCount++;
+    return true;
+  }
+
+  // Marks the reader as removed from the cache and closes it, unless it is pinned by a user
+  private void evict() {
+    boolean close;
+    synchronized (this) {
+      evicted = true;
+      close = pinCount == 0;
+    }
+    if (close) {
+      close();
+    }
+  }
+
   // Internally used to store BIFF entry information
   protected void addEntry(Entry entry) {
     if (entry != null) {
@@ -206,57 +423,6 @@ private static Type detectBiffType(Path file) throws Exception {
     }
   }
 
-  // Performs the given synchronized static operation without parameters or return value.
-  protected static void performSynced(Operation operation) {
-    if (operation != null) {
-      LOCK.lock();
-      try {
-        operation.perform();
-      } finally {
-        LOCK.unlock();
-      }
-    }
-  }
-
-  // Performs the given synchronized static operation with return value.
-  protected static <R> R performSynced(Supplier<R> supplier) {
-    if (supplier != null) {
-      LOCK.lock();
-      try {
-        return supplier.get();
-      } finally {
-        LOCK.unlock();
-      }
-    }
-    return null;
-  }
-
-  // Performs the given synchronized static operation with a single argument and a return value.
-  protected static <T, R> R performSynced(Function<T, R> func, T arg) {
-    if (func != null) {
-      LOCK.lock();
-      try {
-        return func.apply(arg);
-      } finally {
-        LOCK.unlock();
-      }
-    }
-    return null;
-  }
-
-  // Performs the given synchronized static operation with two arguments and a return value.
-  protected static <T, U, R> R performSynced(BiFunction<T, U, R> func, T arg1, U arg2) {
-    if (func != null) {
-      LOCK.lock();
-      try {
-        return func.apply(arg1, arg2);
-      } finally {
-        LOCK.unlock();
-      }
-    }
-    return null;
-  }
-
   // -------------------------- INNER CLASSES --------------------------
 
   /** File or tileset entry definition. */
@@ -4,15 +4,15 @@
 
 package org.infinity.resource.key;
 
-import java.io.BufferedInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.SequenceInputStream;
 import java.nio.ByteBuffer;
 import java.nio.channels.FileChannel;
-import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
 import java.util.zip.Inflater;
 
 import org.infinity.NearInfinity;
@@ -22,14 +22,31 @@
 
 /**
  * Provides read operations for block-compressed BIFC V1.0 archives.
+ *
+ * <p>
+ * A table of all compressed blocks is created when the archive is opened. It allows read operations to start directly
+ * at the first block containing requested data.
+ * </p>
  */
 public class BIFCReader extends AbstractBIFFReader {
+  /** Size of the BIFC header in bytes. */
+  private static final int HEADER_SIZE = 12;
+
   private final WindowBlocker blocker;
 
   private int uncSize;
   private int numFiles;
   private int numTilesets;
 
+  // Block table: start offset of each block in decompressed data (ascending order)
+  private int[] blockUncOffsets;
+  // Block table: decompressed size of each block
+  private int[] blockUncSizes;
+  // Block table: file offset of the compressed data of each block
+  private long[] blockCompOffsets;
+  // Block table: compressed size of each block
+  private int[] blockCompSizes;
+
   protected BIFCReader(Path file) throws Exception {
     super(file);
     this.blocker = new WindowBlocker(NearInfinity.getInstance());
@@ -38,6 +55,7 @@ protected BIFCReader(Path file) throws Exception {
 
   @Override
   public synchronized void open() throws Exception {
+    close();
     try (FileChannel channel = FileChannel.open(getFile(), StandardOpenOption.READ)) {
       String sigver = StreamUtils.readString(channel, 8);
       if (!"BIFCV1.0".equals(sigver)) {
@@ -48,6 +66,8 @@ public synchronized void open() throws Exception {
       if (this.uncSize < 0) {
         throw new Exception("Invalid BIFF archive");
       }
+
+      initBlockTable(channel);
     }
     init();
   }
@@ -95,8 +115,7 @@ public ByteBuffer getResourceBuffer(int locator) throws IOException {
       blocker.setBlocked(true);
     }
 
-    try (InputStream is = new BifcInputStream(
-        new BufferedInputStream(Files.newInputStream(getFile(), StandardOpenOption.READ)), entry.offset, size)) {
+    try (InputStream is = new BifcInputStream(entry.offset, size)) {
       StreamUtils.readBytes(is, buffer);
     } finally {
       blocker.setBlocked(false);
@@ -117,19 +136,77 @@ public InputStream getResourceAsStream(int locator) throws IOException {
       ByteBuffer header = getTisHeader(entry.count, entry.size);
       InputStream is1 = new ByteBufferInputStream(header);
       @SuppressWarnings("resource")
-      InputStream is2 = new BifcInputStream(
-          new BufferedInputStream(Files.newInputStream(getFile(), StandardOpenOption.READ)), entry.offset,
-          entry.count * entry.size);
+      InputStream is2 = new BifcInputStream(entry.offset, entry.count * entry.size);
       return new SequenceInputStream(is1, is2);
     } else {
-      return new BifcInputStream(new BufferedInputStream(Files.newInputStream(getFile(), StandardOpenOption.READ)),
-          entry.offset, entry.size);
+      return new BifcInputStream(entry.offset, entry.size);
+    }
+  }
+
+  // Walks the block headers of the archive and stores the location of each block in the block table
+  private void initBlockTable(FileChannel channel) throws Exception {
+    int capacity = Math.max(16, uncSize / 8192 + 1);
+    int[] uncOffsets = new int[capacity];
+    int[] uncSizes = new int[capacity];
+    long[] compOffsets = new long[capacity];
+    int[] compSizes = new int[capacity];
+    int count = 0;
+
+    long fileSize = channel.size();
+    long filePos = HEADER_SIZE;
+    int uncPos = 0;
+    while (uncPos < uncSize && filePos + 8 <= fileSize) {
+      channel.position(filePos);
+      int blockUncSize = StreamUtils.readInt(channel);
+      int blockCompSize = StreamUtils.readInt(channel);
+      filePos += 8;
+      if (blockUncSize < 0 || blockCompSize < 0 || filePos + blockCompSize > fileSize) {
+        throw new Exception("Invalid BIFF block at offset " + (filePos - 8));
+      }
+
+      if (blockUncSize > 0) {
+        if (count == uncOffsets.length) {
+          capacity = count * 2;
+          uncOffsets = Arrays.copyOf(uncOffsets, capacity);
+          uncSizes = Arrays.copyOf(uncSizes, capacity);
+          compOffsets = Arrays.copyOf(compOffsets, capacity);
+          compSizes = Arrays.copyOf(compSizes, capacity);
+        }
+        uncOffsets[count] = uncPos;
+        uncSizes[count] = blockUncSize;
+        compOffsets[count] = filePos;
+        compSizes[count] = blockCompSize;
+        count++;
+      }
+
+      uncPos += blockUncSize;
+      filePos += blockCompSize;
+    }
+
+    if (uncPos < uncSize) {
+      throw new Exception("Unexpected end of BIFF archive");
+    }
+
+    blockUncOffsets = Arrays.copyOf(uncOffsets, count);
+    blockUncSizes = Arrays.copyOf(uncSizes, count);
+    blockCompOffsets = Arrays.copyOf(compOffsets, count);
+    blockCompSizes = Arrays.copyOf(compSizes, count);
+  }
+
+  // Returns the index of the block containing the specified offset in decompressed data. Returns -1 if not available.
+  private int findBlock(int offset) {
+    int idx = Arrays.binarySearch(blockUncOffsets, offset);
+    if (idx < 0) {
+      idx = -idx - 2;
+    }
+    if (idx >= 0 && offset < blockUncOffsets[idx] + blockUncSizes[idx]) {
+      return idx;
     }
+    return -1;
   }
 
   private void init() throws Exception {
-    try (InputStream is = new BifcInputStream(
-        new BufferedInputStream(Files.newInputStream(getFile(), StandardOpenOption.READ)), 0, -1)) {
+    try (InputStream is = new BifcInputStream(0, -1)) {
       int curOfs = 0;
       String sigver = StreamUtils.readString(is, 8);
       if (!"BIFFV1  ".equals(sigver)) {
@@ -173,34 +250,24 @@ private void init() throws Exception {
 
   // -------------------------- INNER CLASSES --------------------------
 
-  private static class BifcInputStream extends InputStream {
+  /** Provides decompressed data of a specific section of the BIFC archive, based on the block table. */
+  private class BifcInputStream extends InputStream {
     private final Inflater inflater;
 
-    private InputStream input; // BIFC archive as input stream
+    private boolean open; // whether the stream is open for read operations
     private int endOffset; // the end-of-stream offset for this InputStream in decompressed data
     private int position; // current absolute position in decompressed data
+    private int blockIndex; // index of the block currently available in outBuffer, -1 if none
     private byte[] inBuffer; // buffer for compressed data of current block
     private byte[] outBuffer; // buffer for decompressed data of current block
-    private int bufOfs; // contains relative offset in current outBuffer
-    private int bufLen; // contains actual number of bytes of data in current outBuffer
 
     /**
-     * Constructs an InputStream over a specific section of a BIFC archive.
+     * Constructs an InputStream over a specific section of the BIFC archive.
      *
-     * @param is     The BIFC archive as input stream.
      * @param offset Start offset in decompressed BIFF data.
      * @param size   Size of decompressed BIFF data to map. Specify -1 to map until the end of decompressed data.
      */
-    public BifcInputStream(InputStream is, int offset, int size) throws IOException {
-      if (is == null) {
-        throw new NullPointerException();
-      }
-      this.input = is;
-      String sigver = StreamUtils.readString(this.input, 8);
-      if (!"BIFCV1.0".equals(sigver)) {
-        throw new IOException("Unsupported source BIFF signature");
-      }
-      int uncSize = StreamUtils.readInt(this.input);
+    public BifcInputStream(int offset, int size) throws IOException {
       if (offset < 0 || offset > uncSize) {
         throw new IOException("Start offset is out of bounds");
       }
@@ -210,12 +277,11 @@ public BifcInputStream(InputStream is, int offset, int size) throws IOException
       if (size < 0 || offset + size > uncSize) {
         throw new IOException("Size is out of bounds");
       }
+      this.open = true;
       this.endOffset = offset + size;
-      this.position = 0;
+      this.position = offset;
+      this.blockIndex = -1;
       this.inflater = new Inflater();
-      this.bufOfs = 0;
-      this.bufLen = 0;
-      skip(offset);
     }
 
     @Override
@@ -238,8 +304,13 @@ public int read(byte[] b, int off, int len) throws IOException {
     }
 
     @Override
-    public long skip(long n) throws IOException {
-      return Math.max(0, skipData((int) n));
+    public synchronized long skip(long n) throws IOException {
+      if (!isOpen()) {
+        return 0;
+      }
+      int len = (int) Math.max(0, Math.min(n, endOffset - position));
+      position += len;
+      return len;
     }
 
     @Override
@@ -248,20 +319,15 @@ public int available() throws IOException {
     }
 
     @Override
-    public void close() throws IOException {
+    public synchronized void close() throws IOException {
       if (isOpen()) {
-        try {
-          input.close();
-        } finally {
-          synchronized (this) {
-            input = null;
-          }
-        }
+        open = false;
+        inflater.end();
       }
     }
 
     private boolean isOpen() {
-      return (input != null);
+      return open;
     }
 
     // Writes decompressed data into "buf". Returns actual number of decompressed bytes.
@@ -275,80 +341,50 @@ private synchronized int getData(byte[] buf, int ofs, int len) throws IOExceptio
 
       int retVal = 0;
       while (len > 0) {
-        try {
-          updateBuffer(false, -1);
-        } catch (Exception e) {
-          throw new IOException(e.getMessage());
+        int idx = findBlock(position);
+        if (idx < 0) {
+          throw new IOException("No data available at offset " + position);
+        }
+        if (idx != blockIndex) {
+          loadBlock(idx);
         }
 
         // copy data into output buffer
-        int n = Math.min(bufLen - bufOfs, len);
+        int bufOfs = position - blockUncOffsets[idx];
+        int n = Math.min(blockUncSizes[idx] - bufOfs, len);
         System.arraycopy(outBuffer, bufOfs, buf, ofs, n);
         retVal += n;
-        bufOfs += n;
+        position += n;
         ofs += n;
         len -= n;
       }
-      position += retVal;
       return retVal;
     }
 
-    // Skips the specified number of decompressed bytes. Returns -1 on error or end-of-stream.
-    private synchronized int skipData(int len) throws IOException {
-      len = Math.max(0, Math.min(len, endOffset - position));
-      if (!isOpen() || position >= endOffset) {
-        return -1;
+    // Decompresses the block of the specified index into outBuffer.
+    private void loadBlock(int index) throws IOException {
+      int compSize = blockCompSizes[index];
+      int blockSize = blockUncSizes[index];
+      if (inBuffer == null || inBuffer.length < compSize) {
+        inBuffer = new byte[compSize];
       }
-
-      int retVal = 0;
-      while (len > 0) {
-        try {
-          updateBuffer(true, len);
-        } catch (Exception e) {
-          throw new IOException(e);
-        }
-
-        int n = Math.min(len, bufLen - bufOfs);
-        retVal += n;
-        bufOfs += n;
-        len -= n;
+      if (outBuffer == null || outBuffer.length < blockSize) {
+        outBuffer = new byte[blockSize];
       }
-      position += retVal;
-      return retVal;
-    }
 
-    // Decompress next block of data.
-    // if skipOnly == true, then the next compressed block is skipped if
-    // (condition < 0) || (condition >= uncompressed block size)
-    private boolean updateBuffer(boolean skipOnly, int condition) throws Exception {
-      if (bufLen == 0 || bufOfs >= bufLen) {
-        int uncSize = StreamUtils.readInt(input);
-        int compSize = StreamUtils.readInt(input);
-        if (skipOnly && (condition < 0 || condition >= uncSize)) {
-          int remaining = compSize;
-          while (remaining > 0) {
-            long n = input.skip(remaining);
-            remaining -= (int) n;
-          }
-        } else {
-          if (inBuffer == null || inBuffer.length < compSize) {
-            inBuffer = new byte[compSize];
-          }
-          if (outBuffer == null || outBuffer.length < uncSize) {
-            outBuffer = new byte[uncSize];
-          }
-          input.read(inBuffer, 0, compSize);
-          inflater.reset();
-          inflater.setInput(inBuffer, 0, compSize);
-          if (inflater.inflate(outBuffer, 0, uncSize) != uncSize) {
-            throw new Exception("Unexpected end of decompressed data");
-          }
+      readFully(ByteBuffer.wrap(inBuffer, 0, compSize), blockCompOffsets[index]);
+
+      blockIndex = -1;
+      inflater.reset();
+      inflater.setInput(inBuffer, 0, compSize);
+      try {
+        if (inflater.inflate(outBuffer, 0, blockSize) != blockSize) {
+          throw new IOException("Unexpected end of decompressed data");
         }
-        bufLen = uncSize;
-        bufOfs = 0;
-        return true;
+      } catch (DataFormatException e) {
+        throw new IOException(e);
       }
-      return false;
+      blockIndex = index;
     }
   }
 }
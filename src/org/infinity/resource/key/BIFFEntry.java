@@ -70,7 +70,21 @@ public BIFFEntry(Path keyFile, String fileName) {
    * @param isDemo  Indicates whether the KEY file uses the old BG1 demo format variant.
    */
   public BIFFEntry(Path keyFile, int index, ByteBuffer buffer, int offset, boolean isDemo) {
-    updateBIFF(keyFile, index, buffer, offset, isDemo);
+    updateBIFF(keyFile, index, buffer, offset, isDemo, null);
+  }
+
+  /**
+   * Constructs a new BIFF entry from CHITIN.KEY information with a known BIFF file location.
+   *
+   * @param keyFile  Path to the KEY file.
+   * @param index    The BIFF entry index.
+   * @param buffer   {@link Buffer} with KEY file data.
+   * @param offset   Byte offset of the BIFF entry.
+   * @param isDemo   Indicates whether the KEY file uses the old BG1 demo format variant.
+   * @param biffFile Path to the BIFF file. Specify {@code null} to search the BIFF file in the game folders.
+   */
+  BIFFEntry(Path keyFile, int index, ByteBuffer buffer, int offset, boolean isDemo, Path biffFile) {
+    updateBIFF(keyFile, index, buffer, offset, isDemo, biffFile);
   }
 
   // --------------------- Begin Interface Comparable ---------------------
@@ -185,6 +199,10 @@ public void setFileSize(int fileSize) {
    * @param isDemo  Indicates whether the KEY file uses the old BG1 demo format variant.
    */
   public void updateBIFF(Path keyFile, int index, ByteBuffer buffer, int offset, boolean isDemo) {
+    updateBIFF(keyFile, index, buffer, offset, isDemo, null);
+  }
+
+  private void updateBIFF(Path keyFile, int index, ByteBuffer buffer, int offset, boolean isDemo, Path biffFile) {
     if (keyFile == null || buffer == null) {
       throw new NullPointerException();
     }
@@ -213,7 +231,11 @@ public void updateBIFF(Path keyFile, int index, ByteBuffer buffer, int offset, b
       this.separatorChar = '/';
     }
     this.fileName = this.fileName.replace(this.separatorChar, '/');
-    this.biffFile = findBiffFile(this.keyFile.getParent(), this.location, this.fileName);
+    if (biffFile != null) {
+      this.biffFile = biffFile;
+    } else {
+      this.biffFile = findBiffFile(this.keyFile.getParent(), this.location, this.fileName);
+    }
 
     if (isDemo) {
       try {
@@ -7,9 +7,7 @@
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.ByteBuffer;
-import java.nio.ByteOrder;
 import java.nio.channels.FileChannel;
-import java.nio.channels.FileChannel.MapMode;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
@@ -22,6 +20,10 @@
 
 /**
  * Provides read operations for uncompressed BIFF V1 archives.
+ *
+ * <p>
+ * All read operations share a single file channel which is kept open until the reader is {@link #close() closed}.
+ * </p>
  */
 public class BIFFReader extends AbstractBIFFReader {
   private final WindowBlocker blocker;
@@ -37,6 +39,7 @@ protected BIFFReader(Path file) throws Exception {
 
   @Override
   public synchronized void open() throws Exception {
+    close();
     try (FileChannel channel = FileChannel.open(getFile(), StandardOpenOption.READ)) {
       String sigver = StreamUtils.readString(channel, 8);
       if (!"BIFFV1  ".equals(sigver)) {
@@ -86,53 +89,31 @@ public ByteBuffer getResourceBuffer(int locator) throws IOException {
     }
 
     ByteBuffer buffer;
-    try (FileChannel channel = FileChannel.open(getFile(), StandardOpenOption.READ)) {
-      channel.position(entry.offset);
-      if (entry.isTile) {
-        ByteBuffer header = getTisHeader(entry.count, entry.size);
-        int remaining = entry.count * entry.size + header.limit();
-        if (remaining > 1000000) {
-          blocker.setBlocked(true);
-        }
-        try {
-          buffer = StreamUtils.getByteBuffer(remaining);
-          StreamUtils.copyBytes(header, buffer, header.limit());
-          remaining -= header.limit();
-          while (channel.read(buffer) > 0) {
-          }
-        } finally {
-          blocker.setBlocked(false);
-        }
-      } else {
-        buffer = StreamUtils.getByteBuffer(entry.size);
-        while (channel.read(buffer) > 0) {
-        }
-      }
+    if (entry.isTile) {
+      ByteBuffer header = getTisHeader(entry.count, entry.size);
+      buffer = StreamUtils.getByteBuffer(entry.count * entry.size + header.limit());
+      StreamUtils.copyBytes(header, buffer, header.limit());
+    } else {
+      buffer = StreamUtils.getByteBuffer(entry.size);
+    }
+
+    if (buffer.limit() > 1000000) {
+      blocker.setBlocked(true);
+    }
 
-      buffer.position(0);
-      return buffer;
+    try {
+      readFully(buffer, entry.offset);
+    } finally {
+      blocker.setBlocked(false);
     }
+
+    buffer.position(0);
+    return buffer;
   }
 
   @Override
   public InputStream getResourceAsStream(int locator) throws IOException {
-    Entry entry = getEntry(locator);
-    if (entry == null) {
-      throw new IOException("Resource not found");
-    }
-
-    try (FileChannel channel = FileChannel.open(getFile(), StandardOpenOption.READ)) {
-      int size = entry.isTile ? entry.count * entry.size : entry.size;
-      ByteBuffer buffer = channel.map(MapMode.READ_ONLY, entry.offset, size).order(ByteOrder.LITTLE_ENDIAN);
-      InputStream is;
-      if (entry.isTile) {
-        ByteBuffer header = getTisHeader(entry.count, entry.size);
-        is = new ByteBufferInputStream(header, buffer);
-      } else {
-        is = new ByteBufferInputStream(buffer);
-      }
-      return is;
-    }
+    return new ByteBufferInputStream(getResourceBuffer(locator));
   }
 
   private void init(ByteBuffer buffer, int numFiles, int numTilesets) {
@@ -4,6 +4,7 @@
 
 package org.infinity.resource.key;
 
+import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
@@ -15,6 +16,7 @@
 import java.util.List;
 import java.util.Objects;
 
+import org.infinity.AppOption;
 import org.infinity.gui.menu.BrowserMenuBar;
 import org.infinity.gui.menu.OverrideMode;
 import org.infinity.resource.Profile;
@@ -217,8 +219,12 @@ public ByteBuffer getResourceBuffer(boolean ignoreOverride) throws Exception {
         }
       }
     }
-    AbstractBIFFReader biff = ResourceFactory.getKeyfile().getBIFFFile(getBIFFEntry());
-    return biff.getResourceBuffer(locator);
+    AbstractBIFFReader biff = ResourceFactory.getKeyfile().acquireBIFFFile(getBIFFEntry());
+    try {
+      return biff.getResourceBuffer(locator);
+    } finally {
+      biff.release();
+    }
   }
 
   @Override
@@ -230,8 +236,28 @@ public InputStream getResourceDataAsStream(boolean ignoreOverride) throws Except
         return StreamUtils.getInputStream(file);
       }
     }
-    AbstractBIFFReader biff = ResourceFactory.getKeyfile().getBIFFFile(getBIFFEntry());
-    return biff.getResourceAsStream(locator);
+    final AbstractBIFFReader biff = ResourceFactory.getKeyfile().acquireBIFFFile(getBIFFEntry());
+    try {
+      // reader remains pinned until the stream is closed
+      return new FilterInputStream(biff.getResourceAsStream(locator)) {
+        private boolean released;
+
+        @Override
+        public void close() throws IOException {
+          try {
+            super.close();
+          } finally {
+            if (!released) {
+              released = true;
+              biff.release();
+            }
+          }
+        }
+      };
+    } catch (Exception e) {
+      biff.release();
+      throw e;
+    }
   }
 
   @Override
@@ -278,7 +304,7 @@ public int getType() {
   @Override
   public boolean hasOverride() {
     // TODO: update dynamically via WatchService class?
-    if (!BrowserMenuBar.getInstance().getOptions().cacheOverride()) {
+    if (!AppOption.CACHE_OVERRIDE.getBoolValue()) {
       List<Path> overrides = Profile.getOverrideFolders(false);
       Path file = FileManager.query(overrides, getResourceName());
       synchronized (this) {
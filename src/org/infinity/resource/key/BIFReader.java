@@ -6,27 +6,43 @@
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.nio.MappedByteBuffer;
 import java.nio.channels.FileChannel;
 import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
 import java.util.zip.InflaterInputStream;
 
 import org.infinity.NearInfinity;
 import org.infinity.gui.WindowBlocker;
+import org.infinity.resource.Profile;
+import org.infinity.util.FileDeletionHook;
+import org.infinity.util.Logger;
+import org.infinity.util.Platform;
 import org.infinity.util.io.ByteBufferInputStream;
 import org.infinity.util.io.StreamUtils;
 
 /**
  * Provides read operations for file-compressed BIF V1.0 archives.
+ *
+ * <p>
+ * The archive consists of a single deflate stream which does not allow random access. The stream is therefore
+ * decompressed only once into a temporary file on first access. Resources are read directly from this file afterwards,
+ * which makes access times proportional to the resource size rather than to the resource offset.
+ * </p>
  */
 public class BIFReader extends AbstractBIFFReader {
   private final WindowBlocker blocker;
 
   private MappedByteBuffer mappedBuffer;
+  private Path cacheFile;
+  private FileChannel cacheChannel;
+  // Number of read operations currently accessing cacheChannel
+  private int activeReads;
   private int uncSize;
   private int compSize;
   private int compOffset;
@@ -41,6 +57,7 @@ protected BIFReader(Path file) throws Exception {
 
   @Override
   public synchronized void open() throws Exception {
+    close();
     try (FileChannel channel = FileChannel.open(getFile(), StandardOpenOption.READ)) {
       String sigver = StreamUtils.readString(channel, 8);
       if (!"BIF V1.0".equals(sigver)) {
@@ -99,19 +116,27 @@ public ByteBuffer getResourceBuffer(int locator) throws IOException {
       buffer = StreamUtils.getByteBuffer(entry.size);
     }
 
-    if (buffer.limit() > 1000000) {
-      blocker.setBlocked(true);
+    FileChannel channel;
+    synchronized (this) {
+      channel = getCacheChannel();
+      activeReads++;
     }
-
-    try (InflaterInputStream iis = getInflaterInputStream()) {
-      int remaining = entry.offset;
-      while (remaining > 0) {
-        long n = iis.skip(entry.offset);
-        remaining -= (int) n;
+    try {
+      long position = entry.offset;
+      while (buffer.hasRemaining()) {
+        int n = channel.read(buffer, position);
+        if (n < 0) {
+          throw new IOException("Unexpected end of decompressed data");
+        }
+        position += n;
       }
-      StreamUtils.readBytes(iis, buffer);
     } finally {
-      blocker.setBlocked(false);
+      synchronized (this) {
+        activeReads--;
+        if (activeReads == 0) {
+          notifyAll();
+        }
+      }
     }
 
     buffer.position(0);
@@ -123,6 +148,30 @@ public InputStream getResourceAsStream(int locator) throws IOException {
     return new ByteBufferInputStream(getResourceBuffer(locator));
   }
 
+  @Override
+  public synchronized void close() {
+    super.close();
+    awaitActiveReads();
+    if (cacheChannel != null) {
+      try {
+        cacheChannel.close();
+      } catch (IOException e) {
+        Logger.trace(e);
+      }
+      cacheChannel = null;
+    }
+
+    if (cacheFile != null) {
+      try {
+        Files.deleteIfExists(cacheFile);
+        FileDeletionHook.getInstance().unregisterFile(cacheFile);
+      } catch (IOException e) {
+        Logger.trace(e);
+      }
+      cacheFile = null;
+    }
+  }
+
   private void init() throws Exception {
     try (InflaterInputStream iis = new InflaterInputStream(new ByteBufferInputStream(mappedBuffer.duplicate()))) {
       int curOfs = 0;
@@ -166,6 +215,50 @@ private void init() throws Exception {
     }
   }
 
+  // Waits until no read operations access the decompressed BIFF data anymore. Must be called with the monitor held.
+  private void awaitActiveReads() {
+    boolean interrupted = false;
+    while (activeReads > 0) {
+      try {
+        wait();
+      } catch (InterruptedException e) {
+        interrupted = true;
+      }
+    }
+    if (interrupted) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  // Returns a read-only channel to the decompressed BIFF data. Archive is decompressed on first access.
+  private synchronized FileChannel getCacheChannel() throws IOException {
+    if (cacheChannel == null || !cacheChannel.isOpen()) {
+      if (cacheFile == null) {
+        Path tempDir = Platform.createTempDirectory("ni-" + Profile.getSessionId());
+        String prefix = StreamUtils.replaceFileExtension(getFile().getFileName().toString(), "") + "-";
+        Path tempFile = Files.createTempFile(tempDir, prefix, ".biff");
+        FileDeletionHook.getInstance().registerFile(tempFile);
+
+        if (uncSize > 1000000) {
+          blocker.setBlocked(true);
+        }
+        try (InflaterInputStream iis = getInflaterInputStream();
+            OutputStream os = StreamUtils.getOutputStream(tempFile, true)) {
+          StreamUtils.writeBytes(os, iis);
+        } catch (IOException e) {
+          Files.deleteIfExists(tempFile);
+          FileDeletionHook.getInstance().unregisterFile(tempFile);
+          throw e;
+        } finally {
+          blocker.setBlocked(false);
+        }
+        cacheFile = tempFile;
+      }
+      cacheChannel = FileChannel.open(cacheFile, StandardOpenOption.READ);
+    }
+    return cacheChannel;
+  }
+
   // Returns an inflater input stream
   private InflaterInputStream getInflaterInputStream() {
     return new InflaterInputStream(new ByteBufferInputStream(mappedBuffer.duplicate()));
@@ -274,8 +274,18 @@ public void addKeyfile(Path keyFile) {
   }
 
   public void populateResourceTree(ResourceTreeModel treeModel) throws Exception {
+    populateResourceTree(treeModel, null);
+  }
+
+  /**
+   * Adds all biffed resources to the specified resource tree.
+   *
+   * @param treeModel The {@link ResourceTreeModel} to populate.
+   * @param snapshot  Optional {@link ResourceTreeSnapshot} for retrieving and storing BIFF file locations.
+   */
+  public void populateResourceTree(ResourceTreeModel treeModel, ResourceTreeSnapshot snapshot) throws Exception {
     if (treeModel != null) {
-      init();
+      init(snapshot);
 
       resourceEntries.values().forEach(entry -> treeModel.addResourceEntry(entry, entry.getExtension(), true));
 
@@ -402,6 +412,20 @@ public AbstractBIFFReader getBIFFFile(BIFFEntry entry) throws Exception {
     }
   }
 
+  /**
+   * Returns the pinned BIFF reader of the specified BIFF entry. The reader must be released by
+   * {@link AbstractBIFFReader#release()} after use.
+   */
+  public AbstractBIFFReader acquireBIFFFile(BIFFEntry entry) throws Exception {
+    if (entry == null) {
+      return null;
+    } else if (entry.getPath() == null) {
+      throw new IOException(entry + " not found");
+    } else {
+      return AbstractBIFFReader.acquire(entry.getPath());
+    }
+  }
+
   public BIFFResourceEntry getResourceEntry(String resourceName) {
     BIFFResourceEntry retVal = null;
     if (resourceName != null) {
@@ -498,7 +522,7 @@ private void cacheBIFFs() {
   // }
 
   /** Creates or updates cached biff maps and entry tables. */
-  private void init() throws IOException {
+  private void init(ResourceTreeSnapshot snapshot) throws IOException {
     if (getKeyfile() == null) {
       throw new NullPointerException();
     }
@@ -552,7 +576,12 @@ private void init() throws IOException {
 
         // processing BIFF entries
         for (int i = 0, ofs = ofsBif; i < numBif; i++, ofs += biffEntrySize) {
-          biffList.add(new BIFFEntry(file, i, buffer, ofs, isDemo));
+          Path biffFile = (snapshot != null) ? snapshot.getBiffPath(file, i) : null;
+          BIFFEntry biffEntry = new BIFFEntry(file, i, buffer, ofs, isDemo, biffFile);
+          if (snapshot != null) {
+            snapshot.setBiffPath(file, i, biffEntry.getPath());
+          }
+          biffList.add(biffEntry);
         }
         biffEntries.put(file, biffList);
 
@@ -0,0 +1,302 @@
+// Near Infinity - An Infinity Engine Browser and Editor
+// Copyright (C) 2001 Jon Olav Hauglid
+// See LICENSE.txt for license information
+
+package org.infinity.resource.key;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A case-insensitive index of resource entries which uses primitive keys instead of strings.
+ *
+ * <p>
+ * Resource names consisting of a resref of up to 8 ASCII characters and an extension of up to 4 ASCII characters are
+ * packed into a {@code long} name code and an {@code int} type code. Lookups with such names do not allocate memory.
+ * Other resource names are not supported by the index and have to be handled separately.
+ * </p>
+ *
+ * <p>
+ * Lookups are lock-free and may run concurrently with modifications. Each slot of the hash table holds an immutable
+ * entry which is replaced atomically, and the table itself is replaced as a whole when it grows. Removed entries leave
+ * a marker in their slot, so that concurrent lookups never miss entries which are still present.
+ * </p>
+ */
+final class ResRefIndex {
+  /** Name code for resrefs which cannot be packed. */
+  static final long INVALID_NAME = -1L;
+  /** Type code for extensions which cannot be packed. */
+  static final int INVALID_TYPE = -1;
+
+  private static final int MAX_NAME_LENGTH = 8;
+  private static final int MAX_TYPE_LENGTH = 4;
+
+  /** Marks the slot of a removed entry. */
+  private static final Slot REMOVED = new Slot(INVALID_NAME, INVALID_TYPE, null);
+
+  // The current hash table. Lookups work on a single snapshot of the table.
+  private volatile Table table;
+  // Number of indexed entries
+  private volatile int size;
+  // Number of occupied slots, including removed entries
+  private int used;
+
+  /** Creates an index with room for the specified number of entries before it has to grow. */
+  public ResRefIndex(int expectedSize) {
+    int capacity = 16;
+    while (capacity < expectedSize * 2) {
+      capacity <<= 1;
+    }
+    table = new Table(capacity);
+  }
+
+  /** Returns whether the specified resource name (resref and extension) can be handled by the index. */
+  public static boolean isSupported(CharSequence resourceName) {
+    if (resourceName == null) {
+      return false;
+    }
+    final int dot = lastIndexOf(resourceName, '.');
+    return dot >= 0 && packName(resourceName, 0, dot) != INVALID_NAME
+        && packType(resourceName, dot + 1, resourceName.length()) != INVALID_TYPE;
+  }
+
+  /**
+   * Packs the specified range of characters into a case-insensitive name code. Returns {@link #INVALID_NAME} if the
+   * range is too long or contains unsupported characters.
+   */
+  public static long packName(CharSequence s, int start, int end) {
+    if (end - start > MAX_NAME_LENGTH) {
+      return INVALID_NAME;
+    }
+    long retVal = 0L;
+    for (int i = start; i < end; i++) {
+      final int ch = toUpperAscii(s.charAt(i));
+      if (ch < 0) {
+        return INVALID_NAME;
+      }
+      retVal = (retVal << 8) | ch;
+    }
+    return retVal;
+  }
+
+  /**
+   * Packs the specified range of characters into a case-insensitive type code. Returns {@link #INVALID_TYPE} if the
+   * range is too long or contains unsupported characters.
+   */
+  public static int packType(CharSequence s, int start, int end) {
+    if (end - start > MAX_TYPE_LENGTH) {
+      return INVALID_TYPE;
+    }
+    int retVal = 0;
+    for (int i = start; i < end; i++) {
+      final int ch = toUpperAscii(s.charAt(i));
+      if (ch < 0) {
+        return INVALID_TYPE;
+      }
+      retVal = (retVal << 8) | ch;
+    }
+    return retVal;
+  }
+
+  /** Returns the number of indexed entries. */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Returns the entry associated with the specified resource name. Returns {@code null} if the entry is not available
+   * or the name is not supported by the index.
+   */
+  public ResourceEntry get(CharSequence resourceName) {
+    if (resourceName == null) {
+      return null;
+    }
+    final int dot = lastIndexOf(resourceName, '.');
+    if (dot < 0) {
+      return null;
+    }
+    return get(packName(resourceName, 0, dot), packType(resourceName, dot + 1, resourceName.length()));
+  }
+
+  /**
+   * Returns the entry associated with the specified resref and extension. Returns {@code null} if the entry is not
+   * available or resref or extension are not supported by the index.
+   */
+  public ResourceEntry get(CharSequence resref, CharSequence extension) {
+    if (resref == null || extension == null) {
+      return null;
+    }
+    return get(packName(resref, 0, resref.length()), packType(extension, 0, extension.length()));
+  }
+
+  /** Returns the entry associated with the specified name and type codes. */
+  public ResourceEntry get(long name, int type) {
+    if (name == INVALID_NAME || type == INVALID_TYPE) {
+      return null;
+    }
+    final Table t = table;
+    final int i = t.find(name, type);
+    if (i >= 0) {
+      final Slot slot = t.slots.get(i);
+      if (slot != null && slot.name == name && slot.type == type) {
+        return slot.value;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Associates the specified entry with the given resource name.
+   *
+   * @return {@code true} if the entry has been added to the index, {@code false} if the name is not supported.
+   */
+  public synchronized boolean put(CharSequence resourceName, ResourceEntry entry) {
+    if (resourceName == null || entry == null) {
+      return false;
+    }
+    final int dot = lastIndexOf(resourceName, '.');
+    if (dot < 0) {
+      return false;
+    }
+    final long name = packName(resourceName, 0, dot);
+    final int type = packType(resourceName, dot + 1, resourceName.length());
+    if (name == INVALID_NAME || type == INVALID_TYPE) {
+      return false;
+    }
+
+    if ((used + 1) * 2 > table.capacity()) {
+      rehash((size + 1) * 4 > table.capacity() ? table.capacity() << 1 : table.capacity());
+    }
+    if (insert(table, name, type, entry)) {
+      size++;
+      used++;
+    }
+    return true;
+  }
+
+  /** Removes the entry associated with the specified resource name. Returns the removed entry if available. */
+  public synchronized ResourceEntry remove(CharSequence resourceName) {
+    if (resourceName == null) {
+      return null;
+    }
+    final int dot = lastIndexOf(resourceName, '.');
+    if (dot < 0) {
+      return null;
+    }
+    final long name = packName(resourceName, 0, dot);
+    final int type = packType(resourceName, dot + 1, resourceName.length());
+    if (name == INVALID_NAME || type == INVALID_TYPE) {
+      return null;
+    }
+
+    final Table t = table;
+    final int i = t.find(name, type);
+    final Slot slot = (i >= 0) ? t.slots.get(i) : null;
+    if (slot == null || slot.value == null) {
+      return null;
+    }
+    t.slots.set(i, REMOVED);
+    size--;
+    return slot.value;
+  }
+
+  /** Removes all entries from the index. */
+  public synchronized void clear() {
+    table = new Table(table.capacity());
+    size = 0;
+    used = 0;
+  }
+
+  // Adds or replaces the specified entry in the given table. Returns whether a new slot has been occupied.
+  private static boolean insert(Table t, long name, int type, ResourceEntry entry) {
+    final int mask = t.capacity() - 1;
+    int i = hash(name, type) & mask;
+    Slot slot;
+    while ((slot = t.slots.get(i)) != null) {
+      if (slot.name == name && slot.type == type) {
+        t.slots.set(i, new Slot(name, type, entry));
+        return false;
+      }
+      i = (i + 1) & mask;
+    }
+    // removed slots are not reused, since an entry of the same key may follow in the probe sequence
+    t.slots.set(i, new Slot(name, type, entry));
+    return true;
+  }
+
+  // Copies all entries into a new table of the specified capacity and publishes it
+  private void rehash(int capacity) {
+    final Table oldTable = table;
+    final Table newTable = new Table(capacity);
+    int count = 0;
+    for (int i = 0; i < oldTable.capacity(); i++) {
+      final Slot slot = oldTable.slots.get(i);
+      if (slot != null && slot.value != null && insert(newTable, slot.name, slot.type, slot.value)) {
+        count++;
+      }
+    }
+    table = newTable;
+    used = count;
+  }
+
+  private static int hash(long name, int type) {
+    long h = (name ^ ((long) type << 29)) * 0x9e3779b97f4a7c15L;
+    return (int) (h ^ (h >>> 32));
+  }
+
+  // Returns the upper-cased ASCII code of the character, or -1 if the character is not supported
+  private static int toUpperAscii(char ch) {
+    if (ch == 0 || ch > 0x7f) {
+      return -1;
+    }
+    return (ch >= 'a' && ch <= 'z') ? ch - ('a' - 'A') : ch;
+  }
+
+  private static int lastIndexOf(CharSequence s, char ch) {
+    for (int i = s.length() - 1; i >= 0; i--) {
+      if (s.charAt(i) == ch) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  // -------------------------- INNER CLASSES --------------------------
+
+  /** An immutable key/value pair of the index. */
+  private static final class Slot {
+    final long name;
+    final int type;
+    final ResourceEntry value;
+
+    Slot(long name, int type, ResourceEntry value) {
+      this.name = name;
+      this.type = type;
+      this.value = value;
+    }
+  }
+
+  /** Open-addressing hash table of a fixed capacity. */
+  private static final class Table {
+    final AtomicReferenceArray<Slot> slots;
+
+    Table(int capacity) {
+      this.slots = new AtomicReferenceArray<>(capacity);
+    }
+
+    int capacity() {
+      return slots.length();
+    }
+
+    // Returns the slot index of the specified key, or -1 if the key is not available
+    int find(long name, int type) {
+      final int mask = capacity() - 1;
+      Slot slot;
+      for (int i = hash(name, type) & mask; (slot = slots.get(i)) != null; i = (i + 1) & mask) {
+        if (slot.name == name && slot.type == type && slot.value != null) {
+          return i;
+        }
+      }
+      return -1;
+    }
+  }
+}
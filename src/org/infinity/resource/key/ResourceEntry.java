@@ -4,6 +4,7 @@
 
 package org.infinity.resource.key;
 
+import java.awt.GraphicsEnvironment;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.ByteBuffer;
@@ -208,7 +209,8 @@ public String getSearchString() {
             break;
         }
       } catch (Exception e) {
-        if ((NearInfinity.getInstance() != null) && !BrowserMenuBar.getInstance().getOptions().ignoreReadErrors()) {
+        if (!GraphicsEnvironment.isHeadless() && NearInfinity.getInstance() != null
+            && !BrowserMenuBar.getInstance().getOptions().ignoreReadErrors()) {
           JOptionPane.showMessageDialog(NearInfinity.getInstance(), "Error reading " + this, "Error",
               JOptionPane.ERROR_MESSAGE);
         }
@@ -31,9 +31,14 @@
 public final class ResourceTreeModel implements TreeModel {
   private final EventListenerList treeModelListeners = new EventListenerList();
   private final Map<String, ResourceEntry> entries = new HashMap<>(25000);
+  /** Allocation-free lookup of all entries in {@link #entries} with names supported by {@link ResRefIndex}. */
+  private final ResRefIndex index = new ResRefIndex(25000);
   private final Map<String, ResourceTreeFolder> folders = new TreeMap<>(Misc.getIgnoreCaseComparator());
   private final ResourceTreeFolder root = new ResourceTreeFolder(null, "");
 
+  /** Incremented whenever resource entries are added to or removed from the tree. */
+  private volatile int modCount;
+
   public ResourceTreeModel() {
   }
 
@@ -103,6 +108,7 @@ public void removeTreeModelListener(TreeModelListener l) {
    *                     added to the tree
    */
   public void addDirectory(ResourceTreeFolder parentFolder, Path directory, boolean overwrite) {
+    modCount++;
     try (DirectoryStream<Path> dstream = Files.newDirectoryStream(directory)) {
       Iterator<Path> iter = dstream.iterator();
       if (iter.hasNext()) {
@@ -123,9 +129,11 @@ public void addDirectory(ResourceTreeFolder parentFolder, Path directory, boolea
 
   public ResourceTreeFolder addResourceEntry(ResourceEntry entry, String folderName, boolean overwrite) {
     if (entry.isVisible()) {
+      modCount++;
       ResourceTreeFolder folder = addFolder(folderName);
       folder.addResourceEntry(entry, overwrite);
       entries.put(entry.getResourceName().toUpperCase(Locale.ENGLISH), entry);
+      index.put(entry.getResourceName(), entry);
       folder.sortChildren(false);
       return folder;
     }
@@ -237,8 +245,10 @@ public ResourceEntry getResourceEntry(String entryname, boolean includeExtraFold
     ResourceEntry retVal = null;
 
     if (entryname != null) {
-      entryname = entryname.toUpperCase(Locale.ENGLISH);
-      ResourceEntry entry = entries.get(entryname);
+      ResourceEntry entry = index.get(entryname);
+      if (entry == null && !ResRefIndex.isSupported(entryname)) {
+        entry = entries.get(entryname.toUpperCase(Locale.ENGLISH));
+      }
       if (entry != null) {
         retVal = entry;
       } else if (includeExtraFolders) {
@@ -256,6 +266,26 @@ public ResourceEntry getResourceEntry(String entryname, boolean includeExtraFold
     return retVal;
   }
 
+  /**
+   * Returns the resource entry of the specified resref and extension. Lookups of resrefs with up to 8 characters do not
+   * allocate memory. Entries of extra folders are not considered.
+   *
+   * @param resref    Resource name without extension.
+   * @param extension Resource extension without leading dot.
+   * @return The matching {@link ResourceEntry}, {@code null} otherwise.
+   */
+  public ResourceEntry getResourceEntry(CharSequence resref, CharSequence extension) {
+    if (resref == null || extension == null) {
+      return null;
+    }
+    final long name = ResRefIndex.packName(resref, 0, resref.length());
+    final int type = ResRefIndex.packType(extension, 0, extension.length());
+    if (name != ResRefIndex.INVALID_NAME && type != ResRefIndex.INVALID_TYPE) {
+      return index.get(name, type);
+    }
+    return entries.get((resref + "." + extension).toUpperCase(Locale.ENGLISH));
+  }
+
   public List<ResourceEntry> removeDirectory(ResourceTreeFolder parentFolder, String folderName) {
     List<ResourceEntry> retVal = new ArrayList<>();
     if (folderName != null) {
@@ -265,6 +295,7 @@ public List<ResourceEntry> removeDirectory(ResourceTreeFolder parentFolder, Stri
 
       ResourceTreeFolder folder = getFolder(parentFolder, folderName);
       if (folder != null) {
+        modCount++;
         List<ResourceEntry> entries = folder.getResourceEntries();
         for (final ResourceEntry entry : entries) {
           folder.removeResourceEntry(entry);
@@ -289,8 +320,10 @@ public void removeResourceEntry(ResourceEntry entry, String folder) {
     final TreePath path = getPathToNode(entry).getParentPath();
     final int[] childIndices = { getIndexOfChild(parent, entry) };
     final Object[] children = { entry };
+    modCount++;
     parent.removeResourceEntry(entry);
     entries.remove(entry.getResourceName().toUpperCase(Locale.ENGLISH));
+    index.remove(entry.getResourceName());
     if (parent.getChildCount() == 0) {
       root.removeFolder(parent);
       folders.remove(parent.folderName());
@@ -304,6 +337,14 @@ public void resourceEntryChanged(FileResourceEntry entry) {
     fireTreeNodesChanged(parentPath, new int[] { getIndexOfChild(parentFolder, entry) }, new Object[] { entry });
   }
 
+  /**
+   * Returns a counter that is incremented whenever resource entries are added to or removed from the tree. It can be
+   * used to detect whether cached lookup results are still valid.
+   */
+  public int getModificationCount() {
+    return modCount;
+  }
+
   public int size() {
     int size = 0;
     for (int i = 0; i < root.getChildCount(); i++) {
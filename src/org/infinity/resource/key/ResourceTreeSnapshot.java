@@ -0,0 +1,361 @@
+// Near Infinity - An Infinity Engine Browser and Editor
+// Copyright (C) 2001 Jon Olav Hauglid
+// See LICENSE.txt for license information
+
+package org.infinity.resource.key;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import org.infinity.util.Logger;
+import org.infinity.util.Platform;
+import org.infinity.util.io.FileEx;
+import org.infinity.util.io.FileManager;
+
+/**
+ * Persistent snapshot of file system information gathered while populating the resource tree of a game.
+ *
+ * <p>
+ * The snapshot stores the resolved paths of all BIFF files referenced by the KEY files of the game and the list of
+ * regular files in each override folder. BIFF paths are only reused if size and modification time of all KEY files
+ * are unchanged. Folder listings are only reused if the modification time of the respective folder is unchanged.
+ * </p>
+ *
+ * <p>
+ * KEY files are not duplicated in the snapshot, since they are already a compact binary index of the biffed resources.
+ * </p>
+ */
+public class ResourceTreeSnapshot {
+  private static final int SIGNATURE = 0x4e49534e; // "NISN"
+  private static final int VERSION = 1;
+
+  /** Folder listings modified more recently than this time span (in ms) are not persisted. */
+  private static final long MIN_FOLDER_AGE = 2000L;
+
+  private final Path snapshotFile;
+  private final List<FileStamp> keyStamps;
+  private final Map<String, Path> biffPaths = new HashMap<>();
+  private final Map<Path, FolderListing> folderListings = new HashMap<>();
+
+  private boolean modified;
+
+  /**
+   * Loads the snapshot associated with the specified {@link Keyfile}. Returns an empty snapshot if no valid snapshot
+   * is available.
+   *
+   * @param keyfile The {@link Keyfile} of the game.
+   * @return A {@link ResourceTreeSnapshot} instance. Never {@code null}.
+   */
+  public static ResourceTreeSnapshot load(Keyfile keyfile) {
+    Objects.requireNonNull(keyfile);
+    final List<Path> keyFiles = new ArrayList<>();
+    keyFiles.add(keyfile.getKeyfile());
+    keyFiles.addAll(keyfile.getDlcKeyfiles());
+
+    final List<FileStamp> stamps = new ArrayList<>();
+    for (final Path file : keyFiles) {
+      stamps.add(FileStamp.create(file));
+    }
+
+    final ResourceTreeSnapshot retVal = new ResourceTreeSnapshot(getSnapshotFile(keyfile.getKeyfile()), stamps);
+    try {
+      retVal.read();
+    } catch (Exception e) {
+      Logger.debug(e, "Resource tree snapshot not available");
+      retVal.biffPaths.clear();
+      retVal.folderListings.clear();
+    }
+    retVal.modified = false;
+    return retVal;
+  }
+
+  private ResourceTreeSnapshot(Path snapshotFile, List<FileStamp> keyStamps) {
+    this.snapshotFile = snapshotFile;
+    this.keyStamps = keyStamps;
+  }
+
+  /**
+   * Returns the cached path of the BIFF file at the specified index in the given KEY file. Returns {@code null} if the
+   * path is not available or the BIFF file doesn't exist anymore.
+   */
+  public Path getBiffPath(Path keyFile, int index) {
+    final Path retVal = biffPaths.get(getBiffKey(keyFile, index));
+    if (retVal != null && FileEx.create(retVal).isFile()) {
+      return retVal;
+    }
+    return null;
+  }
+
+  /** Stores the path of the BIFF file at the specified index in the given KEY file. */
+  public void setBiffPath(Path keyFile, int index, Path biffFile) {
+    final String key = getBiffKey(keyFile, index);
+    if (biffFile != null) {
+      if (!biffFile.equals(biffPaths.put(key, biffFile))) {
+        modified = true;
+      }
+    } else if (biffPaths.remove(key) != null) {
+      modified = true;
+    }
+  }
+
+  /**
+   * Returns the regular files in the specified folder as recorded by the snapshot. Returns {@code null} if no listing
+   * is available or the folder has been modified since.
+   */
+  public List<Path> getFolderListing(Path folder) {
+    final FolderListing listing = folderListings.get(folder);
+    if (listing != null && listing.lastModified == getLastModified(folder)) {
+      final List<Path> retVal = new ArrayList<>(listing.fileNames.size());
+      for (final String name : listing.fileNames) {
+        retVal.add(folder.resolve(name));
+      }
+      return retVal;
+    }
+    return null;
+  }
+
+  /**
+   * Records the list of regular files in the specified folder. The listing is only stored if the folder is located on
+   * the default filesystem and has not been modified too recently.
+   */
+  public void setFolderListing(Path folder, List<Path> files) {
+    if (folder == null || files == null || !FileManager.isDefaultFileSystem(folder)) {
+      return;
+    }
+
+    final long lastModified = getLastModified(folder);
+    if (lastModified <= 0L || System.currentTimeMillis() - lastModified < MIN_FOLDER_AGE) {
+      if (folderListings.remove(folder) != null) {
+        modified = true;
+      }
+      return;
+    }
+
+    final List<String> names = new ArrayList<>(files.size());
+    for (final Path file : files) {
+      names.add(file.getFileName().toString());
+    }
+    final FolderListing listing = new FolderListing(lastModified, names);
+    if (!listing.equals(folderListings.put(folder, listing))) {
+      modified = true;
+    }
+  }
+
+  /** Writes the snapshot to disk if it has been modified. Errors are logged but otherwise ignored. */
+  public void save() {
+    if (!modified || snapshotFile == null) {
+      return;
+    }
+
+    Path tempFile = null;
+    try {
+      Files.createDirectories(snapshotFile.getParent());
+      tempFile = Files.createTempFile(snapshotFile.getParent(), "snapshot", ".tmp");
+      try (DataOutputStream dos = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile)))) {
+        write(dos);
+      }
+      Files.move(tempFile, snapshotFile, StandardCopyOption.REPLACE_EXISTING);
+      tempFile = null;
+      modified = false;
+    } catch (Exception e) {
+      Logger.warn(e, "Could not write resource tree snapshot: {}", snapshotFile);
+    } finally {
+      if (tempFile != null) {
+        try {
+          Files.deleteIfExists(tempFile);
+        } catch (IOException e) {
+          Logger.trace(e);
+        }
+      }
+    }
+  }
+
+  private void read() throws IOException {
+    if (snapshotFile == null || !FileEx.create(snapshotFile).isFile()) {
+      return;
+    }
+
+    try (DataInputStream dis = new DataInputStream(new BufferedInputStream(Files.newInputStream(snapshotFile)))) {
+      if (dis.readInt() != SIGNATURE || dis.readInt() != VERSION) {
+        throw new IOException("Unsupported snapshot format");
+      }
+
+      // KEY files
+      boolean keysValid = true;
+      int numKeys = dis.readInt();
+      if (numKeys != keyStamps.size()) {
+        keysValid = false;
+      }
+      for (int i = 0; i < numKeys; i++) {
+        FileStamp stamp = FileStamp.read(dis);
+        keysValid &= (i < keyStamps.size() && stamp.equals(keyStamps.get(i)));
+      }
+
+      // BIFF paths
+      int numBiffs = dis.readInt();
+      for (int i = 0; i < numBiffs; i++) {
+        String key = dis.readUTF();
+        Path path = Paths.get(dis.readUTF());
+        if (keysValid) {
+          biffPaths.put(key, path);
+        }
+      }
+
+      // folder listings
+      int numFolders = dis.readInt();
+      for (int i = 0; i < numFolders; i++) {
+        Path folder = Paths.get(dis.readUTF());
+        long lastModified = dis.readLong();
+        int numFiles = dis.readInt();
+        List<String> names = new ArrayList<>(numFiles);
+        for (int j = 0; j < numFiles; j++) {
+          names.add(dis.readUTF());
+        }
+        folderListings.put(folder, new FolderListing(lastModified, names));
+      }
+    }
+  }
+
+  private void write(DataOutputStream dos) throws IOException {
+    dos.writeInt(SIGNATURE);
+    dos.writeInt(VERSION);
+
+    dos.writeInt(keyStamps.size());
+    for (final FileStamp stamp : keyStamps) {
+      stamp.write(dos);
+    }
+
+    dos.writeInt(biffPaths.size());
+    for (final Map.Entry<String, Path> entry : biffPaths.entrySet()) {
+      dos.writeUTF(entry.getKey());
+      dos.writeUTF(entry.getValue().toString());
+    }
+
+    dos.writeInt(folderListings.size());
+    for (final Map.Entry<Path, FolderListing> entry : folderListings.entrySet()) {
+      dos.writeUTF(entry.getKey().toString());
+      dos.writeLong(entry.getValue().lastModified);
+      dos.writeInt(entry.getValue().fileNames.size());
+      for (final String name : entry.getValue().fileNames) {
+        dos.writeUTF(name);
+      }
+    }
+  }
+
+  // Returns the snapshot file associated with the specified KEY file
+  private static Path getSnapshotFile(Path keyFile) {
+    try {
+      final String id = String.format("%08x", keyFile.toAbsolutePath().normalize().toString().hashCode());
+      return Platform.getTempDirectory().resolve("ni-cache").resolve("tree-" + id + ".bin");
+    } catch (Exception e) {
+      Logger.debug(e);
+    }
+    return null;
+  }
+
+  private static String getBiffKey(Path keyFile, int index) {
+    return keyFile.toAbsolutePath() + "|" + index;
+  }
+
+  private static long getLastModified(Path path) {
+    try {
+      return Files.getLastModifiedTime(path).toMillis();
+    } catch (Exception e) {
+      Logger.trace(e);
+    }
+    return -1L;
+  }
+
+  // -------------------------- INNER CLASSES --------------------------
+
+  /** Identifies a specific state of a file by path, size and modification time. */
+  private static class FileStamp {
+    private final String path;
+    private final long size;
+    private final long lastModified;
+
+    public static FileStamp create(Path file) {
+      long size = -1L;
+      try {
+        size = Files.size(file);
+      } catch (Exception e) {
+        Logger.trace(e);
+      }
+      return new FileStamp(file.toAbsolutePath().toString(), size, getLastModified(file));
+    }
+
+    public static FileStamp read(DataInputStream dis) throws IOException {
+      return new FileStamp(dis.readUTF(), dis.readLong(), dis.readLong());
+    }
+
+    private FileStamp(String path, long size, long lastModified) {
+      this.path = path;
+      this.size = size;
+      this.lastModified = lastModified;
+    }
+
+    public void write(DataOutputStream dos) throws IOException {
+      dos.writeUTF(path);
+      dos.writeLong(size);
+      dos.writeLong(lastModified);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(path, size, lastModified);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (this == obj) {
+        return true;
+      }
+      if (obj == null || getClass() != obj.getClass()) {
+        return false;
+      }
+      FileStamp other = (FileStamp) obj;
+      return Objects.equals(path, other.path) && size == other.size && lastModified == other.lastModified;
+    }
+  }
+
+  /** List of regular files in a folder at a specific modification time of the folder. */
+  private static class FolderListing {
+    private final long lastModified;
+    private final List<String> fileNames;
+
+    public FolderListing(long lastModified, List<String> fileNames) {
+      this.lastModified = lastModified;
+      this.fileNames = Collections.unmodifiableList(fileNames);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(lastModified, fileNames);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (this == obj) {
+        return true;
+      }
+      if (obj == null || getClass() != obj.getClass()) {
+        return false;
+      }
+      FolderListing other = (FolderListing) obj;
+      return lastModified == other.lastModified && Objects.equals(fileNames, other.fileNames);
+    }
+  }
+}
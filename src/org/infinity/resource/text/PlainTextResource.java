@@ -39,6 +39,7 @@
 import org.infinity.gui.InfinityTextArea;
 import org.infinity.gui.ViewerUtil;
 import org.infinity.gui.menu.BrowserMenuBar;
+import org.infinity.gui.menu.OptionsMenuItem;
 import org.infinity.resource.Closeable;
 import org.infinity.resource.Profile;
 import org.infinity.resource.Referenceable;
@@ -360,7 +361,7 @@ public PlainTextResource(ResourceEntry entry) throws Exception {
     if (buffer.limit() > 1 && buffer.getShort(0) == -1) {
       buffer = StaticSimpleXorDecryptor.decrypt(buffer, 2);
     }
-    final Charset cs = Misc.getCharsetFrom(BrowserMenuBar.getInstance().getOptions().getSelectedCharset());
+    final Charset cs = Misc.getCharsetFrom(OptionsMenuItem.getTextCharset());
     text = applyTransformText(StreamUtils.readString(buffer, buffer.limit(), cs));
   }
 
@@ -26,6 +26,7 @@
 import org.infinity.resource.ResourceFactory;
 import org.infinity.resource.StructEntry;
 import org.infinity.resource.key.ResourceEntry;
+import org.infinity.util.Logger;
 
 abstract class AbstractReferenceSearcher extends AbstractSearcher implements Runnable, ActionListener {
   protected static final String[] FILE_TYPES = { "2DA", "ARE", "BCS", "CHR", "CHU", "CRE", "DLG", "EFF", "GAM", "INI",
@@ -44,6 +45,8 @@ abstract class AbstractReferenceSearcher extends AbstractSearcher implements Run
   private final ReferenceHitFrame hitFrame;
   /** Actual list of resources in which perform search. */
   private List<ResourceEntry> files;
+  /** Whether parsed resources are obtained from the shared resource cache. */
+  private volatile boolean useResourceCache;
 
   AbstractReferenceSearcher(ResourceEntry targetEntry, String[] filetypes, Component parent) {
     this(targetEntry, filetypes, setSelectedFileTypes(targetEntry, filetypes), parent);
@@ -107,8 +110,28 @@ public void actionPerformed(ActionEvent event) {
 
   @Override
   public void run() {
-    // executing multithreaded search
-    if (runSearch("Searching", files)) {
+    // narrowing down resources to search by the reference index
+    List<ResourceEntry> entries = files;
+    final ReferenceIndex.Query query = getIndexQuery();
+    final ReferenceIndex index = (query != null) ? ReferenceIndex.getInstance() : null;
+    if (index != null) {
+      final boolean cancelled = runSearch("Indexing", index.getStaleEntries(files), entry -> () -> {
+        index.update(entry);
+        advanceProgress();
+      });
+      index.save();
+      if (cancelled) {
+        hitFrame.close();
+        return;
+      }
+      entries = index.getCandidates(files, query);
+      Logger.debug("Reference index: {} of {} resources selected for search", entries.size(), files.size());
+    }
+
+    // executing multithreaded search; full scans would only evict useful entries from the resource cache
+    useResourceCache = entries.size() < files.size();
+    final boolean cancelled = runSearch("Searching", entries);
+    if (cancelled) {
       hitFrame.close();
       return;
     }
@@ -120,7 +143,8 @@ public void run() {
   @Override
   protected Runnable newWorker(ResourceEntry entry) {
     return () -> {
-      final Resource resource = ResourceFactory.getResource(entry);
+      final Resource resource = useResourceCache ? ResourceFactory.getCachedResource(entry)
+          : ResourceFactory.getResource(entry);
       if (resource != null) {
         search(entry, resource);
       }
@@ -128,6 +152,15 @@ protected Runnable newWorker(ResourceEntry entry) {
     };
   }
 
+  /**
+   * Returns the query that is used to select resources for search from the {@link ReferenceIndex}. The query must
+   * cover everything the {@link #search} method can match. Returns {@code null} by default, which means that all
+   * resources are searched.
+   */
+  ReferenceIndex.Query getIndexQuery() {
+    return null;
+  }
+
   /**
    * Registers all matches of a variable number of regular expression patterns in a string.
    *
@@ -6,17 +6,22 @@
 
 import java.awt.Component;
 import java.util.List;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
 
 import javax.swing.JOptionPane;
 import javax.swing.ProgressMonitor;
+import javax.swing.Timer;
 
 import org.infinity.NearInfinity;
+import org.infinity.resource.ResourceFactory;
+import org.infinity.resource.ResourceView;
 import org.infinity.resource.key.ResourceEntry;
 import org.infinity.util.DebugTimer;
 import org.infinity.util.Logger;
 import org.infinity.util.Misc;
 import org.infinity.util.Threading;
+import org.infinity.util.WorkScheduler;
 
 /**
  * Utility class for performing searching of resources in several threads with ability to cancel search.
@@ -32,18 +37,27 @@ public abstract class AbstractSearcher {
   public static final String CHECK_ONE_TYPE_FORMAT    = "Checking resource %2$d/%3$d";
   public static final String CHECK_MULTI_TYPE_FORMAT  = "Checking %1$ss %2$d/%3$d";
 
+  /** Interval (in ms) for updating the progress dialog. */
+  private static final int PROGRESS_INTERVAL = 100;
+
   /**
    * Handle to widget that shows search progress. Creates when {@link #runSearch} invoked and resetted to {@code null}
-   * when {@link #advanceProgress advanceProgress(true)} is called.
+   * when the search is finished.
    */
-  private ProgressMonitor progress;
+  private volatile ProgressMonitor progress;
 
   /** Current number of checked items, that progress shows. */
-  private int progressIndex;
+  private final AtomicInteger progressIndex = new AtomicInteger();
 
-  /** Extension of the last processed resource. */
+  /** Extension of the resource shown in the progress note. */
   private String lastExt;
 
+  /** Extension of the last processed resource. */
+  private volatile String currentExt;
+
+  /** Number of checked items when the progress note was last updated. */
+  private int lastNoteIndex;
+
   /** Text for progress note. Contains two int placeholders: current and maximum count of items. */
   private final String operationFormat;
 
@@ -64,6 +78,17 @@ protected AbstractSearcher(String operationFormat, Component parent) {
    */
   protected abstract Runnable newWorker(ResourceEntry entry);
 
+  /**
+   * Returns a read-only view of the specified resource for use by work items. Work items that only need to inspect a
+   * few values should prefer the view over the fully parsed resource to reduce memory and CPU load of the operation.
+   *
+   * @param entry Pointer to the resource.
+   * @return {@link ResourceView} of the resource, or {@code null} if the resource could not be read.
+   */
+  protected ResourceView getResourceView(ResourceEntry entry) {
+    return ResourceFactory.getResourceView(entry);
+  }
+
   /**
    * Runs check that {@link #newWorker spawns} working items that performs actual checking.
    *
@@ -74,118 +99,105 @@ protected AbstractSearcher(String operationFormat, Component parent) {
    * @return {@code true}, if search cancelled, {@code false} otherwise
    */
   protected boolean runSearch(String operation, List<ResourceEntry> entries) {
+    return runSearch(operation, entries, this::newWorker);
+  }
+
+  /**
+   * Runs check with work items created by the specified factory. Work items must call {@link #advanceProgress()} when
+   * they are finished.
+   *
+   * @param operation Brief description of what kind of resources is searches/checked (dialogs, scripts and so on)
+   * @param entries   Entries for search. Any {@code null} values will be ignored, any other will be searched in several
+   *                  threads
+   * @param workers   Creates work items for the entries.
+   *
+   * @return {@code true}, if search cancelled, {@code false} otherwise
+   */
+  protected boolean runSearch(String operation, List<ResourceEntry> entries,
+      Function<ResourceEntry, Runnable> workers) {
     if (entries.isEmpty()) {
       return false;
     }
+    final int max = entries.size();
+    progressIndex.set(0);
+    progress = new ProgressMonitor(NearInfinity.getInstance(), operation + "..." + Misc.MSG_EXPAND_LARGE,
+        String.format(operationFormat, "WWWW", max, max), 0, max);
+    if (entries.size() > 1) {
+      progress.setMillisToDecideToPopup(100);
+    } else {
+      progress.setMillisToDecideToPopup(0);
+      progress.setMillisToPopup(0);
+      progress.setProgress(0);
+    }
+    lastExt = entries.get(0).getExtension();
+    currentExt = lastExt;
+    updateProgressNote(0);
+
+    // progress is polled instead of being pushed by the work items
+    final WorkScheduler.CancellationToken token = new WorkScheduler.CancellationToken();
+    final Timer timer = new Timer(PROGRESS_INTERVAL, e -> updateProgress(token));
+    timer.start();
+    boolean isCancelled = false;
     try {
-      final int max = entries.size();
-      progressIndex = 0;
-      progress = new ProgressMonitor(NearInfinity.getInstance(), operation + "..." + Misc.MSG_EXPAND_LARGE,
-          String.format(operationFormat, "WWWW", max, max), 0, max);
-      if (entries.size() > 1) {
-        progress.setMillisToDecideToPopup(100);
-      } else {
-        progress.setMillisToDecideToPopup(0);
-        progress.setMillisToPopup(0);
-        progress.setProgress(progressIndex);
-      }
-      lastExt = entries.get(0).getExtension();
-      updateProgressNote();
-
-      boolean isCancelled = false;
-      try (final Threading threadPool = new Threading()) {
-        DebugTimer.getInstance().timerReset();
-        int i = 0;
-        for (final ResourceEntry entry : entries) {
-          if (progress.isCanceled()) {
-            break;
-          }
-          if (entry == null) {
-            ++i;
-            advanceProgress(false);
-            continue;
-          }
-          if (i++ % 10 == 0) {
-            final String ext = entry.getExtension();
-            if (!lastExt.equalsIgnoreCase(ext)) {
-              lastExt = ext;
-              updateProgressNote();
-            }
-          }
-
-          // XXX: workaround for keeping progress dialog note in sync with actual progress
-          while (threadPool.hasQueuedSubmissions()) {
-            try {
-              Thread.sleep(0);
-            } catch (InterruptedException e) {
-              Logger.trace(e);
-            }
-          }
-
-          threadPool.submit(newWorker(entry));
-        }
-
-        // enforcing thread termination if process has been cancelled
-        if (isCancelled) {
-          threadPool.shutdownNow();
+      DebugTimer.getInstance().timerReset();
+      // large resources first, so that they don't delay completion of the search at the end
+      isCancelled = new WorkScheduler(Threading.Priority.NORMAL, true).execute(entries, entry -> {
+        if (entry != null) {
+          currentExt = entry.getExtension();
+          workers.apply(entry).run();
         } else {
-          threadPool.shutdown();
-        }
-
-        // waiting for pending threads to terminate
-        while (!threadPool.isTerminated()) {
-          if (!isCancelled && progress.isCanceled()) {
-            threadPool.shutdownNow();
-            isCancelled = true;
-          }
-          try {
-            threadPool.awaitTermination(10L, TimeUnit.MILLISECONDS);
-          } catch (InterruptedException e) {
-            Logger.trace(e);
-          }
+          advanceProgress();
         }
-      } catch (Exception e) {
-        Logger.trace(e);
-      }
+      }, token, ResourceEntry::getResourceSize);
+    } catch (InterruptedException e) {
+      Logger.trace(e);
+      isCancelled = true;
+    } finally {
+      timer.stop();
+      closeProgress();
+    }
 
-      Logger.info(DebugTimer.getInstance().getTimerFormatted(operation + " completed"));
+    Logger.info(DebugTimer.getInstance().getTimerFormatted(operation + " completed"));
 
-      if (isCancelled) {
-        JOptionPane.showMessageDialog(parent, operation + " cancelled", "Info", JOptionPane.INFORMATION_MESSAGE);
-      }
-      return isCancelled;
-    } finally {
-      advanceProgress(true);
+    if (isCancelled) {
+      JOptionPane.showMessageDialog(parent, operation + " cancelled", "Info", JOptionPane.INFORMATION_MESSAGE);
     }
+    return isCancelled;
   }
 
-  /** Move progress along. */
+  /** Move progress along. This method can be called from any thread. */
   protected final void advanceProgress() {
-    advanceProgress(false);
+    progressIndex.incrementAndGet();
   }
 
-  /**
-   * Move progress along.
-   *
-   * @param finished If {@code true}, progress dialog is closed, otherwise progress advanced
-   */
-  private synchronized void advanceProgress(boolean finished) {
-    if (progress != null) {
-      if (finished) {
-        progressIndex = 0;
+  // Updates the progress dialog and forwards cancel requests; called by the progress timer
+  private void updateProgress(WorkScheduler.CancellationToken token) {
+    final ProgressMonitor monitor = progress;
+    if (monitor != null) {
+      if (monitor.isCanceled()) {
+        token.cancel();
+      }
+      final int index = progressIndex.get();
+      if (!lastExt.equalsIgnoreCase(currentExt) || index / 100 != lastNoteIndex / 100) {
+        lastExt = currentExt;
+        updateProgressNote(index);
+      }
+      monitor.setProgress(index);
+    }
+  }
+
+  // Closes the progress dialog
+  private void closeProgress() {
+    Threading.invokeInEventThread(() -> {
+      if (progress != null) {
         progress.close();
         progress = null;
-      } else {
-        progressIndex++;
-        if (progressIndex % 100 == 0) {
-          updateProgressNote();
-        }
-        progress.setProgress(progressIndex);
       }
-    }
+    });
   }
 
-  private void updateProgressNote() {
-    progress.setNote(String.format(operationFormat, lastExt, progressIndex, progress.getMaximum()));
+  private void updateProgressNote(int index) {
+    lastNoteIndex = index;
+    progress.setNote(String.format(operationFormat, lastExt, index, progress.getMaximum()));
   }
 }
@@ -0,0 +1,505 @@
+// Near Infinity - An Infinity Engine Browser and Editor
+// Copyright (C) 2001 Jon Olav Hauglid
+// See LICENSE.txt for license information
+
+package org.infinity.search;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.infinity.datatype.ProRef;
+import org.infinity.datatype.ResourceRef;
+import org.infinity.datatype.StringRef;
+import org.infinity.datatype.TextString;
+import org.infinity.resource.AbstractStruct;
+import org.infinity.resource.Resource;
+import org.infinity.resource.ResourceFactory;
+import org.infinity.resource.StructEntry;
+import org.infinity.resource.bcs.BcsResource;
+import org.infinity.resource.bcs.Compiler;
+import org.infinity.resource.bcs.Decompiler;
+import org.infinity.resource.bcs.ScriptType;
+import org.infinity.resource.dlg.AbstractCode;
+import org.infinity.resource.dlg.Action;
+import org.infinity.resource.key.Keyfile;
+import org.infinity.resource.key.ResourceEntry;
+import org.infinity.resource.text.PlainTextResource;
+import org.infinity.util.Logger;
+import org.infinity.util.Platform;
+import org.infinity.util.io.FileEx;
+
+/**
+ * Persistent game-wide index of the names and string references used by resources.
+ *
+ * <p>
+ * For each indexed resource the index stores the upper-cased resource references, script names, quoted literals and
+ * words found in the resource, as well as all referenced strrefs. Reference searchers use the index to skip resources
+ * which cannot contain a match. Candidates are still verified by a full search, which means that the index only has
+ * to produce a superset of the actual matches.
+ * </p>
+ *
+ * <p>
+ * Index entries are keyed by the resource name and the path of the file containing the resource, i.e. the BIFF file
+ * or the override file, and are validated by the modification time of that file. Resources without a valid entry are
+ * always searched. Entries of modified or saved resources are rebuilt on the next search. The whole
+ * index is discarded if the IDS files of the game have been modified, since they affect decompiled script code.
+ * </p>
+ */
+final class ReferenceIndex {
+  private static final int SIGNATURE = 0x4e495852; // "NIXR"
+  private static final int VERSION = 2;
+
+  /** Max. length of indexed names. Longer names can only be found in resources which contain text or code. */
+  private static final int MAX_NAME_LENGTH = 32;
+
+  /** Resource has not been indexed and must always be searched. */
+  private static final int FLAG_OPAQUE = 1;
+  /** Resource contains text or script code. */
+  private static final int FLAG_TEXT = 2;
+
+  private static final Pattern WORD_PATTERN = Pattern.compile("[A-Za-z0-9_]+");
+
+  private static ReferenceIndex instance;
+
+  private final Path indexFile;
+  private final Map<String, Document> documents = new ConcurrentHashMap<>();
+
+  private long idsStamp;
+  private volatile boolean modified;
+
+  /**
+   * Returns the reference index of the current game, loading it from disk if needed.
+   *
+   * @return The {@link ReferenceIndex}, or {@code null} if no index is available for the current game.
+   */
+  public static synchronized ReferenceIndex getInstance() {
+    final Keyfile keyfile = ResourceFactory.getKeyfile();
+    final Path file = (keyfile != null) ? getIndexFile(keyfile.getKeyfile()) : null;
+    if (file == null) {
+      return null;
+    }
+
+    if (instance == null || !instance.indexFile.equals(file)) {
+      instance = new ReferenceIndex(file);
+      try {
+        instance.read();
+      } catch (Exception e) {
+        Logger.debug(e, "Reference index not available");
+        instance.documents.clear();
+      }
+    }
+
+    final long stamp = getIdsStamp();
+    if (instance.idsStamp != stamp) {
+      instance.documents.clear();
+      instance.idsStamp = stamp;
+      instance.modified = true;
+    }
+    return instance;
+  }
+
+  private ReferenceIndex(Path indexFile) {
+    this.indexFile = Objects.requireNonNull(indexFile);
+  }
+
+  /**
+   * Returns all resources from the specified list which have not been indexed or were modified since they were
+   * indexed.
+   */
+  public List<ResourceEntry> getStaleEntries(List<ResourceEntry> entries) {
+    final List<ResourceEntry> retVal = new ArrayList<>();
+    for (final ResourceEntry entry : entries) {
+      if (entry != null) {
+        final Path path = entry.getActualPath();
+        final Document doc = documents.get(getKey(entry, path));
+        if (doc == null || !doc.isValid(path)) {
+          retVal.add(entry);
+        }
+      }
+    }
+    return retVal;
+  }
+
+  /** Indexes the specified resource. This method is thread-safe. */
+  public void update(ResourceEntry entry) {
+    final Path path = entry.getActualPath();
+    final long lastModified = getLastModified(path);
+
+    final Set<String> names = new HashSet<>();
+    final Set<Integer> strrefs = new HashSet<>();
+    int flags = 0;
+    try {
+      final Resource resource = ResourceFactory.getResource(entry);
+      if (resource instanceof BcsResource) {
+        flags |= FLAG_TEXT;
+        addScript(((BcsResource) resource).getCode(), null, names, strrefs);
+      } else if (resource instanceof PlainTextResource) {
+        flags |= FLAG_TEXT;
+        addText(((PlainTextResource) resource).getText(), names, strrefs);
+      } else if (resource instanceof AbstractStruct) {
+        if (addStruct((AbstractStruct) resource, names, strrefs)) {
+          flags |= FLAG_TEXT;
+        }
+      } else if (resource != null) {
+        flags |= FLAG_OPAQUE;
+      }
+    } catch (Exception e) {
+      Logger.debug(e, "Could not index {}", entry);
+      flags = FLAG_OPAQUE;
+      names.clear();
+      strrefs.clear();
+    }
+
+    // unsaved or virtual resources are indexed but never persisted
+    final String location = (path != null && lastModified >= 0L) ? path.toAbsolutePath().toString() : null;
+    documents.put(getKey(entry, path), new Document(location, lastModified, flags, names, strrefs));
+    modified = true;
+  }
+
+  /**
+   * Returns all resources from the specified list which may contain a match of the specified query. Resources which
+   * have not been indexed, or whose index entry doesn't reflect the current state of the resource, are always returned.
+   */
+  public List<ResourceEntry> getCandidates(List<ResourceEntry> entries, Query query) {
+    final List<ResourceEntry> retVal = new ArrayList<>();
+    for (final ResourceEntry entry : entries) {
+      if (entry != null) {
+        final Path path = entry.getActualPath();
+        final Document doc = documents.get(getKey(entry, path));
+        if (doc == null || !doc.isValid(path) || doc.matches(query)) {
+          retVal.add(entry);
+        }
+      }
+    }
+    return retVal;
+  }
+
+  /** Writes the index to disk if it has been modified. Errors are logged but otherwise ignored. */
+  public synchronized void save() {
+    if (!modified) {
+      return;
+    }
+
+    Path tempFile = null;
+    try {
+      Files.createDirectories(indexFile.getParent());
+      tempFile = Files.createTempFile(indexFile.getParent(), "xref", ".tmp");
+      try (DataOutputStream dos = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile)))) {
+        write(dos);
+      }
+      Files.move(tempFile, indexFile, StandardCopyOption.REPLACE_EXISTING);
+      tempFile = null;
+      modified = false;
+    } catch (Exception e) {
+      Logger.warn(e, "Could not write reference index: {}", indexFile);
+    } finally {
+      if (tempFile != null) {
+        try {
+          Files.deleteIfExists(tempFile);
+        } catch (IOException e) {
+          Logger.trace(e);
+        }
+      }
+    }
+  }
+
+  private void read() throws IOException {
+    if (!FileEx.create(indexFile).isFile()) {
+      return;
+    }
+
+    try (DataInputStream dis = new DataInputStream(new BufferedInputStream(Files.newInputStream(indexFile)))) {
+      if (dis.readInt() != SIGNATURE || dis.readInt() != VERSION) {
+        throw new IOException("Unsupported reference index format");
+      }
+      idsStamp = dis.readLong();
+      final int numDocs = dis.readInt();
+      for (int i = 0; i < numDocs; i++) {
+        final String key = dis.readUTF();
+        documents.put(key, Document.read(dis));
+      }
+    }
+  }
+
+  private void write(DataOutputStream dos) throws IOException {
+    final List<Map.Entry<String, Document>> list = new ArrayList<>();
+    for (final Map.Entry<String, Document> entry : documents.entrySet()) {
+      if (entry.getValue().location != null) {
+        list.add(entry);
+      }
+    }
+
+    dos.writeInt(SIGNATURE);
+    dos.writeInt(VERSION);
+    dos.writeLong(idsStamp);
+    dos.writeInt(list.size());
+    for (final Map.Entry<String, Document> entry : list) {
+      dos.writeUTF(entry.getKey());
+      entry.getValue().write(dos);
+    }
+  }
+
+  // Adds names and strrefs of the structure and all substructures. Returns whether script code has been found.
+  private static boolean addStruct(AbstractStruct struct, Set<String> names, Set<Integer> strrefs) {
+    boolean retVal = false;
+    for (final StructEntry field : struct.getFields()) {
+      if (field instanceof ResourceRef) {
+        addName(getResRef(((ResourceRef) field).getResourceName()), names);
+      } else if (field instanceof ProRef) {
+        final ResourceEntry entry = ((ProRef) field).getSelectedEntry();
+        if (entry != null) {
+          addName(entry.getResourceRef(), names);
+        }
+      } else if (field instanceof TextString) {
+        addName(((TextString) field).getText(), names);
+      } else if (field instanceof StringRef) {
+        strrefs.add(((StringRef) field).getValue());
+      } else if (field instanceof AbstractCode) {
+        final AbstractCode code = (AbstractCode) field;
+        final String source = code.getText();
+        addLiterals(source, names);
+        final ScriptType type = (code instanceof Action) ? ScriptType.ACTION : ScriptType.TRIGGER;
+        final Compiler compiler = new Compiler(source, type);
+        final String compiled = compiler.getCode();
+        if (compiler.getErrors().isEmpty()) {
+          addScript(compiled, type, names, strrefs);
+        }
+        retVal = true;
+      } else if (field instanceof AbstractStruct) {
+        retVal |= addStruct((AbstractStruct) field, names, strrefs);
+      }
+    }
+    return retVal;
+  }
+
+  // Adds names and strrefs of the decompiled script code
+  private static void addScript(String code, ScriptType type, Set<String> names, Set<Integer> strrefs) {
+    final Decompiler decompiler = (type != null) ? new Decompiler(code, type, true) : new Decompiler(code, true);
+    decompiler.setGenerateComments(false);
+    decompiler.setGenerateResourcesUsed(true);
+    try {
+      final String script = decompiler.decompile();
+      addLiterals(script, names);
+      addWords(script, names);
+      strrefs.addAll(decompiler.getStringRefsUsed());
+    } catch (Exception e) {
+      Logger.trace(e);
+    }
+  }
+
+  // Adds words and numbers of the text content
+  private static void addText(String text, Set<String> names, Set<Integer> strrefs) {
+    addWords(text, names);
+    final Matcher m = StringReferenceSearcher.NUMBER_PATTERN.matcher(text);
+    while (m.find()) {
+      try {
+        final long value = Long.parseLong(m.group());
+        if (value >= Integer.MIN_VALUE && value <= Integer.MAX_VALUE) {
+          strrefs.add((int) value);
+        }
+      } catch (NumberFormatException e) {
+        // number out of range
+      }
+    }
+  }
+
+  // Adds all words, including words without area or global prefixes
+  private static void addWords(String text, Set<String> names) {
+    final Matcher m = WORD_PATTERN.matcher(text);
+    while (m.find()) {
+      final String word = m.group().toUpperCase(Locale.ENGLISH);
+      addName(word, names);
+      if (word.length() > 3 && (word.startsWith("AP_") || word.startsWith("GA_"))) {
+        addName(word.substring(3), names);
+      }
+    }
+  }
+
+  // Adds the content between any two consecutive quotation marks
+  private static void addLiterals(String text, Set<String> names) {
+    int start = text.indexOf('"');
+    while (start >= 0) {
+      final int end = text.indexOf('"', start + 1);
+      if (end < 0) {
+        break;
+      }
+      addName(text.substring(start + 1, end), names);
+      start = end;
+    }
+  }
+
+  private static void addName(String name, Set<String> names) {
+    if (name != null && !name.isEmpty() && name.length() <= MAX_NAME_LENGTH) {
+      names.add(name.toUpperCase(Locale.ENGLISH));
+    }
+  }
+
+  // Returns the resource name without extension
+  private static String getResRef(String resourceName) {
+    final int p = resourceName.lastIndexOf('.');
+    return (p >= 0) ? resourceName.substring(0, p) : resourceName;
+  }
+
+  // Returns the index key of the resource: its name and the file that contains it, since a BIFF file contains many
+  // resources and resources of the same name can be provided by different files
+  private static String getKey(ResourceEntry entry, Path path) {
+    final String name = entry.getResourceName().toUpperCase(Locale.ENGLISH);
+    return (path != null) ? name + '@' + path.toAbsolutePath() : name;
+  }
+
+  // Returns a value that identifies the current state of all IDS files
+  private static long getIdsStamp() {
+    long retVal = 1L;
+    for (final ResourceEntry entry : ResourceFactory.getResources("IDS")) {
+      final Path path = entry.getActualPath();
+      retVal = 31L * retVal + getKey(entry, path).hashCode();
+      retVal = 31L * retVal + getLastModified(path);
+    }
+    return retVal;
+  }
+
+  private static long getLastModified(Path path) {
+    if (path != null) {
+      try {
+        return Files.getLastModifiedTime(path).toMillis();
+      } catch (Exception e) {
+        Logger.trace(e);
+      }
+    }
+    return -1L;
+  }
+
+  // Returns the index file associated with the specified KEY file
+  private static Path getIndexFile(Path keyFile) {
+    try {
+      final String id = String.format("%08x", keyFile.toAbsolutePath().normalize().toString().hashCode());
+      return Platform.getTempDirectory().resolve("ni-cache").resolve("xref-" + id + ".idx");
+    } catch (Exception e) {
+      Logger.debug(e);
+    }
+    return null;
+  }
+
+  // -------------------------- INNER CLASSES --------------------------
+
+  /** Names and strrefs of a reference search. A resource matches if it contains any of them. */
+  public static final class Query {
+    private final Set<String> names = new HashSet<>();
+    private final Set<Integer> strrefs = new HashSet<>();
+
+    /** Set if names can not be found reliably in text or code by the index. */
+    private boolean irregular;
+
+    /** Adds a resource name without extension, script name or symbol to the query. {@code null} is ignored. */
+    public Query addName(String name) {
+      if (name != null && !name.isEmpty()) {
+        names.add(name.toUpperCase(Locale.ENGLISH));
+        irregular |= name.length() > MAX_NAME_LENGTH || !WORD_PATTERN.matcher(name).matches();
+      }
+      return this;
+    }
+
+    /** Adds a string reference to the query. */
+    public Query addStringRef(int strref) {
+      strrefs.add(strref);
+      return this;
+    }
+  }
+
+  /** Index data of a single resource. */
+  private static final class Document {
+    private final String location;
+    private final long lastModified;
+    private final int flags;
+    private final String[] names;
+    private final int[] strrefs;
+
+    public static Document read(DataInputStream dis) throws IOException {
+      final String location = dis.readUTF();
+      final long lastModified = dis.readLong();
+      final int flags = dis.readInt();
+      final String[] names = new String[dis.readInt()];
+      for (int i = 0; i < names.length; i++) {
+        names[i] = dis.readUTF();
+      }
+      final int[] strrefs = new int[dis.readInt()];
+      for (int i = 0; i < strrefs.length; i++) {
+        strrefs[i] = dis.readInt();
+      }
+      return new Document(location, lastModified, flags, names, strrefs);
+    }
+
+    public Document(String location, long lastModified, int flags, Set<String> names, Set<Integer> strrefs) {
+      this(location, lastModified, flags, names.toArray(new String[names.size()]),
+          strrefs.stream().mapToInt(Integer::intValue).toArray());
+      Arrays.sort(this.names);
+      Arrays.sort(this.strrefs);
+    }
+
+    private Document(String location, long lastModified, int flags, String[] names, int[] strrefs) {
+      this.location = location;
+      this.lastModified = lastModified;
+      this.flags = flags;
+      this.names = names;
+      this.strrefs = strrefs;
+    }
+
+    /** Returns whether the document still reflects the current state of the resource in the specified file. */
+    public boolean isValid(Path path) {
+      if (location == null) {
+        return false;
+      }
+      return path != null && location.equals(path.toAbsolutePath().toString())
+          && lastModified == getLastModified(path);
+    }
+
+    /** Returns whether the resource may contain a match of the specified query. */
+    public boolean matches(Query query) {
+      if ((flags & FLAG_OPAQUE) != 0 || (query.irregular && (flags & FLAG_TEXT) != 0)) {
+        return true;
+      }
+      for (final String name : query.names) {
+        if (Arrays.binarySearch(names, name) >= 0) {
+          return true;
+        }
+      }
+      for (final Integer strref : query.strrefs) {
+        if (Arrays.binarySearch(strrefs, strref) >= 0) {
+          return true;
+        }
+      }
+      return false;
+    }
+
+    public void write(DataOutputStream dos) throws IOException {
+      dos.writeUTF(location);
+      dos.writeLong(lastModified);
+      dos.writeInt(flags);
+      dos.writeInt(names.length);
+      for (final String name : names) {
+        dos.writeUTF(name);
+      }
+      dos.writeInt(strrefs.length);
+      for (final int strref : strrefs) {
+        dos.writeInt(strref);
+      }
+    }
+  }
+}
@@ -20,6 +20,7 @@
 import org.infinity.resource.bcs.BcsResource;
 import org.infinity.resource.bcs.Compiler;
 import org.infinity.resource.bcs.Decompiler;
+import org.infinity.resource.bcs.ScriptReferenceMatcher;
 import org.infinity.resource.bcs.ScriptType;
 import org.infinity.resource.cre.CreResource;
 import org.infinity.resource.dlg.AbstractCode;
@@ -37,6 +38,8 @@
 public final class ReferenceSearcher extends AbstractReferenceSearcher {
   /** Optional alternate name to search for. */
   private String creDeathVar;
+  /** Preselects scripts which may contain references. */
+  private volatile ScriptReferenceMatcher scriptMatcher;
 
   public ReferenceSearcher(ResourceEntry targetEntry, Component parent) {
     this(targetEntry, AbstractReferenceSearcher.FILE_TYPES, parent);
@@ -61,6 +64,16 @@ public ReferenceSearcher(ResourceEntry targetEntry, String[] fileTypes, Componen
     }
   }
 
+  @Override
+  ReferenceIndex.Query getIndexQuery() {
+    final ReferenceIndex.Query query = new ReferenceIndex.Query();
+    query.addName(targetEntry.getResourceRef()).addName(creDeathVar);
+    if (targetEntry.getExtension().equalsIgnoreCase("SPL")) {
+      query.addName(org.infinity.resource.spl.Viewer.getSymbolicName(targetEntry, false));
+    }
+    return query;
+  }
+
   @Override
   protected void search(ResourceEntry entry, Resource resource) {
     if (resource instanceof DlgResource) {
@@ -93,7 +106,7 @@ private void searchDialog(ResourceEntry entry, AbstractStruct dialog) {
           final ScriptType type = sourceCode instanceof Action ? ScriptType.ACTION : ScriptType.TRIGGER;
           final Compiler compiler = new Compiler(sourceCode.getText(), type);
           String code = compiler.getCode();
-          if (compiler.getErrors().isEmpty()) {
+          if (compiler.getErrors().isEmpty() && getScriptMatcher().matches(code)) {
             final Decompiler decompiler = new Decompiler(code, type, true);
             decompiler.setGenerateComments(false);
             decompiler.setGenerateResourcesUsed(true);
@@ -156,6 +169,9 @@ private void searchSave(ResourceEntry entry, SavResource savfile) {
   }
 
   private void searchScript(ResourceEntry entry, BcsResource bcsfile) {
+    if (!getScriptMatcher().matches(bcsfile.getCode())) {
+      return;
+    }
     Decompiler decompiler = new Decompiler(bcsfile.getCode(), true);
     decompiler.setGenerateComments(false);
     decompiler.setGenerateResourcesUsed(true);
@@ -193,6 +209,19 @@ private void searchScript(ResourceEntry entry, BcsResource bcsfile) {
     }
   }
 
+  // Returns the matcher for the target resource, script name and spell symbol
+  private ScriptReferenceMatcher getScriptMatcher() {
+    if (scriptMatcher == null) {
+      final ScriptReferenceMatcher matcher = new ScriptReferenceMatcher();
+      matcher.addName(targetEntry.getResourceRef()).addName(creDeathVar);
+      if (targetEntry.getExtension().equalsIgnoreCase("SPL")) {
+        matcher.addSymbol(org.infinity.resource.spl.Viewer.getSymbolicName(targetEntry, false));
+      }
+      scriptMatcher = matcher;
+    }
+    return scriptMatcher;
+  }
+
   private void searchStruct(ResourceEntry entry, AbstractStruct struct) {
     final String name = targetEntry.getResourceName();
     for (final StructEntry o : struct.getFields()) {
@@ -21,6 +21,7 @@
 import org.infinity.resource.are.AreResource;
 import org.infinity.resource.bcs.BcsResource;
 import org.infinity.resource.bcs.Decompiler;
+import org.infinity.resource.bcs.ScriptReferenceMatcher;
 import org.infinity.resource.cre.CreResource;
 import org.infinity.resource.dlg.AbstractCode;
 import org.infinity.resource.dlg.DlgResource;
@@ -37,6 +38,11 @@ public ScriptReferenceSearcher(ResourceEntry bcsScript, Component parent) {
     super(bcsScript, getSupportedTypes(), parent);
   }
 
+  @Override
+  ReferenceIndex.Query getIndexQuery() {
+    return new ReferenceIndex.Query().addName(targetEntry.getResourceRef());
+  }
+
   @Override
   protected void search(ResourceEntry entry, Resource resource) {
     if (resource instanceof BcsResource) {
@@ -83,6 +89,9 @@ private void searchScript(ResourceEntry entry, String script, StructEntry ref) {
   }
 
   private void searchScript(ResourceEntry entry, BcsResource bcsFile) {
+    if (!new ScriptReferenceMatcher().addName(targetEntry.getResourceRef()).matches(bcsFile.getCode())) {
+      return;
+    }
     final Decompiler decompiler = new Decompiler(bcsFile.getCode(), true);
     decompiler.setGenerateComments(false);
     decompiler.setGenerateResourcesUsed(true);
@@ -19,4 +19,16 @@ public interface SearchClient {
    * @param nr Index of the matched object
    */
   void hitFound(int nr);
+
+  /**
+   * Returns the indices of all objects which may contain the specified literal search term. Returned objects are still
+   * matched individually, which allows clients to return a superset of the actual matches.
+   *
+   * @param term      The literal search term.
+   * @param wholeWord Whether the search term has to match whole words only.
+   * @return Sorted array of object indices, or {@code null} if all objects have to be searched.
+   */
+  default int[] getCandidates(String term, boolean wholeWord) {
+    return null;
+  }
 }
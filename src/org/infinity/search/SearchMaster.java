@@ -14,6 +14,7 @@
 import java.awt.Insets;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
+import java.util.Arrays;
 import java.util.regex.Pattern;
 import java.util.regex.PatternSyntaxException;
 
@@ -190,6 +191,7 @@ public void run() {
     }
 
     index = 0;
+    final String literal = cbregex.isSelected() ? null : term;
     if (!cbregex.isSelected()) {
       term = Pattern.quote(term);
     }
@@ -214,7 +216,12 @@ public void run() {
     cbcase.setEnabled(false);
     cbregex.setEnabled(false);
     tfinput.setEnabled(false);
+    // literal search terms allow the client to skip objects which cannot match
+    final int[] candidates = (literal != null) ? slave.getCandidates(literal, cbwhole.isSelected()) : null;
     while (true) {
+      if (candidates != null) {
+        index = getNextCandidate(candidates, index, rbdown.isSelected());
+      }
       String s = slave.getText(index);
       if (s == null) {
         break;
@@ -257,4 +264,21 @@ public void run() {
   }
 
   // --------------------- End Interface Runnable ---------------------
+
+  /**
+   * Returns the nearest candidate index starting at {@code index} in search direction. Returns -1 if no further
+   * candidates are available.
+   */
+  private static int getNextCandidate(int[] candidates, int index, boolean down) {
+    int pos = Arrays.binarySearch(candidates, index);
+    if (pos >= 0) {
+      return index;
+    }
+    pos = -pos - 1;
+    if (down) {
+      return (pos < candidates.length) ? candidates[pos] : -1;
+    } else {
+      return (pos > 0) ? candidates[pos - 1] : -1;
+    }
+  }
 }
@@ -16,6 +16,7 @@
 import org.infinity.resource.bcs.BcsResource;
 import org.infinity.resource.bcs.Compiler;
 import org.infinity.resource.bcs.Decompiler;
+import org.infinity.resource.bcs.ScriptReferenceMatcher;
 import org.infinity.resource.bcs.ScriptType;
 import org.infinity.resource.dlg.AbstractCode;
 import org.infinity.resource.dlg.Action;
@@ -46,6 +47,8 @@ public final class StringReferenceSearcher extends AbstractReferenceSearcher {
 
   /** Searched string reference value. */
   private final int searchvalue;
+  /** Preselects scripts which may contain the string reference. */
+  private final ScriptReferenceMatcher scriptMatcher;
 
   /**
    * Creates finder that searches localizable string in the resources.
@@ -56,6 +59,12 @@ public final class StringReferenceSearcher extends AbstractReferenceSearcher {
   public StringReferenceSearcher(int stringRef, Component parent) {
     super(null, FILE_TYPES, parent);
     this.searchvalue = stringRef;
+    this.scriptMatcher = new ScriptReferenceMatcher().addStringRef(stringRef);
+  }
+
+  @Override
+  ReferenceIndex.Query getIndexQuery() {
+    return new ReferenceIndex.Query().addStringRef(searchvalue);
   }
 
   @Override
@@ -90,7 +99,7 @@ private void searchDialog(ResourceEntry entry, AbstractStruct dialog) {
         try {
           final ScriptType type = sourceCode instanceof Action ? ScriptType.ACTION : ScriptType.TRIGGER;
           final Compiler compiler = new Compiler(sourceCode.getText(), type);
-          if (compiler.getErrors().isEmpty()) {
+          if (compiler.getErrors().isEmpty() && scriptMatcher.matches(compiler.getCode())) {
             final Decompiler decompiler = new Decompiler(compiler.getCode(), type, true);
             decompiler.setGenerateComments(false);
             decompiler.setGenerateResourcesUsed(true);
@@ -130,6 +139,9 @@ private void searchSave(ResourceEntry entry, SavResource savfile) {
   }
 
   private void searchScript(ResourceEntry entry, BcsResource bcsfile) {
+    if (!scriptMatcher.matches(bcsfile.getCode())) {
+      return;
+    }
     final Decompiler decompiler = new Decompiler(bcsfile.getCode(), true);
     decompiler.setGenerateComments(false);
     decompiler.setGenerateResourcesUsed(true);
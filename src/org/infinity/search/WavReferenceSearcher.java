@@ -14,6 +14,7 @@
 import org.infinity.resource.StructEntry;
 import org.infinity.resource.bcs.BcsResource;
 import org.infinity.resource.bcs.Decompiler;
+import org.infinity.resource.bcs.ScriptReferenceMatcher;
 import org.infinity.resource.key.ResourceEntry;
 import org.infinity.resource.text.PlainTextResource;
 import org.infinity.util.StringTable;
@@ -24,6 +25,20 @@ public WavReferenceSearcher(ResourceEntry targetEntry, Component parent) {
     super(targetEntry, AbstractReferenceSearcher.FILE_TYPES, parent);
   }
 
+  @Override
+  ReferenceIndex.Query getIndexQuery() {
+    final ReferenceIndex.Query query = new ReferenceIndex.Query().addName(targetEntry.getResourceRef());
+    // strings which are associated with the sound
+    final String name = targetEntry.getResourceName();
+    for (int i = 0, count = StringTable.getNumEntries(); i < count; i++) {
+      final String sound = StringTable.getSoundResource(i);
+      if (!sound.isEmpty() && name.equalsIgnoreCase(sound + ".WAV")) {
+        query.addStringRef(i);
+      }
+    }
+    return query;
+  }
+
   @Override
   protected void search(ResourceEntry entry, Resource resource) {
     if (resource instanceof AbstractStruct) {
@@ -56,6 +71,9 @@ private void searchText(ResourceEntry entry, PlainTextResource text) {
   }
 
   private void searchScript(ResourceEntry entry, BcsResource bcsFile) {
+    if (!new ScriptReferenceMatcher().addName(targetEntry.getResourceRef()).matches(bcsFile.getCode())) {
+      return;
+    }
     final Decompiler decompiler = new Decompiler(bcsFile.getCode(), true);
     decompiler.setGenerateComments(false);
     decompiler.setGenerateResourcesUsed(true);
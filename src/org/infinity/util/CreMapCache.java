@@ -4,6 +4,7 @@
 
 package org.infinity.util;
 
+import java.awt.GraphicsEnvironment;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -126,7 +127,10 @@ private static String normalized(String s) {
   private static void initialize() {
     if (!isInitialized()) {
       Runnable worker = () -> {
-        StatusBar statusBar = NearInfinity.getInstance().getStatusBar();
+        StatusBar statusBar = null;
+        if (!GraphicsEnvironment.isHeadless() && NearInfinity.getInstance() != null) {
+          statusBar = NearInfinity.getInstance().getStatusBar();
+        }
         String message = "Gathering creature and area names ...";
         String oldMessage = null;
         if (statusBar != null) {
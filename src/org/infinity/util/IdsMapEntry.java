@@ -7,7 +7,7 @@
 import java.util.ArrayDeque;
 import java.util.Iterator;
 
-import org.infinity.gui.menu.BrowserMenuBar;
+import org.infinity.AppOption;
 
 /**
  * Mapping from several symbolic names to an integer and vice versa. Used for script purposes and for mapping the file
@@ -37,7 +37,7 @@ public int getNumSymbols() {
 
   /** Returns the symbolic name depending on the current global option. */
   public String getSymbol() {
-    return BrowserMenuBar.getInstance().getOptions().showLastIdsSymbol() ? getLastSymbol() : getFirstSymbol();
+    return AppOption.IDS_SYMBOL_DISPLAY.getBoolValue() ? getLastSymbol() : getFirstSymbol();
   }
 
   /** Returns the first available symbolic name. */
@@ -7,7 +7,9 @@
 import java.io.IOException;
 import java.io.PrintWriter;
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.nio.channels.FileChannel;
+import java.nio.channels.SeekableByteChannel;
 import java.nio.charset.Charset;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -15,10 +17,13 @@
 import java.nio.file.StandardOpenOption;
 import java.nio.file.attribute.FileTime;
 import java.time.Instant;
-import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.EnumMap;
-import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.stream.IntStream;
 
 import org.infinity.NearInfinity;
 import org.infinity.datatype.DecNumber;
@@ -26,12 +31,13 @@
 import org.infinity.datatype.ResourceRef;
 import org.infinity.exceptions.AbortException;
 import org.infinity.gui.StringEditor;
-import org.infinity.gui.menu.BrowserMenuBar;
+import org.infinity.gui.menu.OptionsMenuItem;
 import org.infinity.resource.AbstractStruct;
 import org.infinity.resource.Profile;
 import org.infinity.resource.StructEntry;
 import org.infinity.updater.Utils;
 import org.infinity.util.io.FileEx;
+import org.infinity.util.io.FileManager;
 import org.infinity.util.io.StreamUtils;
 
 /**
@@ -70,6 +76,9 @@ public enum Format {
     }
 
     public String format(String text, int strRef) {
+      if (this == NONE && text != null) {
+        return text;
+      }
       return String.format(format, text, strRef);
     }
   }
@@ -89,6 +98,9 @@ public String format(String text, int strRef) {
   /** Default string returned if a requested string is unavailable. */
   public static final String DEFAULT_STRING = "No such index";
 
+  /** Min. time span (in ms) between two checks for external modifications of a TLK file. */
+  private static final long MODIFIED_CHECK_INTERVAL = 2000L;
+
   private static final EnumMap<Type, StringTable> TLK_TABLE = new EnumMap<>(Type.class);
 
   private static Charset charset = null;
@@ -123,9 +135,9 @@ public static boolean hasFemaleTable() {
   public static Charset getCharset() {
     if (charset == null) {
       try {
-        setCharset(BrowserMenuBar.getInstance().getOptions().getSelectedCharset());
+        setCharset(OptionsMenuItem.getTextCharset());
       } catch (Throwable t) {
-        // returns a temporary value if BrowserMenuBar has not yet been initialized
+        // returns a temporary value if application options have not yet been initialized
         return Profile.getDefaultCharset();
       }
     }
@@ -635,7 +647,8 @@ public static boolean isModified(Type type) {
   }
 
   /**
-   * Ensures that all available entries of the specified string table are fully loaded into memory.
+   * Ensures that all available entries of the specified string table are available for lookup. Entries are stored in
+   * compact form and strings are decoded on demand, so this operation is cheap.
    *
    * @param type The string table
    */
@@ -648,7 +661,7 @@ public static void ensureFullyLoaded(Type type) {
   }
 
   /**
-   * Ensures that all available entries of all available string table are fully loaded into memory.
+   * Ensures that all available entries of all available string table are available for lookup.
    */
   public static void ensureFullyLoaded() {
     ensureFullyLoaded(Type.MALE);
@@ -657,6 +670,49 @@ public static void ensureFullyLoaded() {
     }
   }
 
+  /**
+   * Makes sure that the full-text index of the specified string table is available. The index is loaded from the cache
+   * if it matches the current state of the TLK file, otherwise it is built from scratch.
+   *
+   * @param type The string table
+   */
+  public static void ensureIndexed(Type type) {
+    try {
+      instance(type)._ensureIndexed();
+    } catch (StringTableUnavailableException e) {
+      // ignore
+    }
+  }
+
+  /**
+   * Makes sure that the full-text indices of all available string tables are available.
+   */
+  public static void ensureIndexed() {
+    ensureIndexed(Type.MALE);
+    if (hasFemaleTable()) {
+      ensureIndexed(Type.FEMALE);
+    }
+  }
+
+  /**
+   * Returns the indices of all strings in the specified string table which may contain the given literal search term.
+   * Search is case-insensitive. Returned strings are a superset of the actual matches and have to be verified by the
+   * caller.
+   *
+   * @param type      The string table
+   * @param term      The literal search term.
+   * @param wholeWord Whether the search term has to match whole words only.
+   * @return Sorted array of string indices, or {@code null} if the search term cannot be handled by the index.
+   */
+  public static int[] getSearchCandidates(Type type, String term, boolean wholeWord) {
+    try {
+      return instance(type)._getSearchCandidates(term, wholeWord);
+    } catch (StringTableUnavailableException e) {
+      // ignore
+    }
+    return null;
+  }
+
   /**
    * Adds a new empty string entry to the male string table and returns its index.
    *
@@ -921,7 +977,9 @@ public static boolean exportText(Type type, Path outFile, ProgressCallback callb
    * <ul>
    * <li>{@code %Variables%} (will not be evaluated, may cause issues if % is used as string delimiter)</li>
    * <li>negative indices (will be ignored)</li>
+   * <li>indices in the range of virtual strrefs (will be ignored)</li>
    * </ul>
+   * Changes are applied to the string tables in a single batch after the whole file has been parsed successfully.
    *
    * @param inFile   Path to text file that should be imported.
    * @param reset    Indicates whether original entries are removed before the import operation.
@@ -930,17 +988,38 @@ public static boolean exportText(Type type, Path outFile, ProgressCallback callb
    *         The string table may be incomplete in this case.
    */
   public static boolean importTra(Path inFile, boolean reset, ProgressCallback callback) {
+    if (inFile == null) {
+      return false;
+    }
+
     boolean retVal = false;
+    try {
+      final List<TraFile.Entry> entries = TraFile.read(inFile, getCharset());
+      final StringTable tableMale = instance(Type.MALE);
+      final StringTable tableFemale = hasFemaleTable() ? instance(Type.FEMALE) : null;
 
-    // Pattern regCmtLine = Pattern.compile("//.*$");
-    // Pattern regCmtBlock = Pattern.compile("/\\*.*\\*/", Pattern.DOTALL);
-    // Pattern[] regStrings = new Pattern[]{ Pattern.compile("\"[^\"]*\"", Pattern.DOTALL),
-    // Pattern.compile("~~~~~.*?~~~~~", Pattern.DOTALL),
-    // Pattern.compile("~[^~]*~", Pattern.DOTALL),
-    // Pattern.compile("%[^%]*%", Pattern.DOTALL) };
-    // Pattern regResRef = Pattern.compile("\\[[^\\[\\]]{1,8}\\]");
+      if (callback != null) {
+        callback.init(entries.size());
+      }
+      final StringEntry[] entriesMale = tableMale._prepareImport(entries, false, reset, callback);
+      final StringEntry[] entriesFemale = (tableFemale != null) ? tableFemale._prepareImport(entries, true, reset, null)
+          : null;
 
-    // TODO: create separate TRA importer class
+      // applying changes in a single batch
+      tableMale._applyImport(entriesMale, reset);
+      if (tableFemale != null) {
+        tableFemale._applyImport(entriesFemale, reset);
+      }
+      retVal = true;
+    } catch (AbortException e) {
+      Logger.debug(e);
+    } catch (Exception e) {
+      Logger.error(e, "Could not import TRA file: {}", inFile);
+    } finally {
+      if (callback != null) {
+        callback.done(retVal);
+      }
+    }
 
     return retVal;
   }
@@ -960,29 +1039,32 @@ public static boolean exportTra(Path outFile, ProgressCallback callback) {
 
     try {
       tableMale = instance(Type.MALE);
-      tableMale._ensureFullyLoaded();
+      tableMale._checkTableModified();
       tableFemale = hasFemaleTable() ? instance(Type.FEMALE) : null;
       if (tableFemale != null) {
-        tableFemale._ensureFullyLoaded();
+        tableFemale._checkTableModified();
       }
     } catch (StringTableUnavailableException e) {
       return false;
     }
 
+    final int numEntries = tableMale._getNumEntries();
     if (callback != null) {
-      callback.init(tableMale._getNumEntries());
+      callback.init(numEntries);
     }
-    boolean retVal = true;
-    try (PrintWriter writer = new PrintWriter(outFile.toFile(), getCharset().name())) {
-      String newline = System.lineSeparator();
+    boolean retVal = false;
+    try {
+      final String newline = System.lineSeparator();
+
       // writing header
+      final StringBuilder header = new StringBuilder();
       String niPath = Utils.getJarFileName(NearInfinity.class);
       if (niPath.isEmpty()) {
         niPath = "Near Infinity";
       }
       niPath += " (" + NearInfinity.getVersion() + ")";
-      writer.println("// creator : " + niPath);
-      writer.println("// game    : " + Profile.getGameRoot().toString());
+      header.append("// creator : ").append(niPath).append(newline);
+      header.append("// game    : ").append(Profile.getGameRoot().toString()).append(newline);
 
       Path pathDialog = tableMale._getPath();
       try {
@@ -990,9 +1072,9 @@ public static boolean exportTra(Path outFile, ProgressCallback callback) {
       } catch (IllegalArgumentException e) {
         Logger.trace(e);
       }
-      writer.println("// dialog  : " + pathDialog);
+      header.append("// dialog  : ").append(pathDialog).append(newline);
 
-      writer.print("// dialogF : ");
+      header.append("// dialogF : ");
       if (tableFemale != null) {
         pathDialog = tableFemale._getPath();
         try {
@@ -1000,70 +1082,50 @@ public static boolean exportTra(Path outFile, ProgressCallback callback) {
         } catch (IllegalArgumentException e) {
           Logger.trace(e);
         }
-        writer.println(pathDialog);
+        header.append(pathDialog).append(newline);
       } else {
-        writer.println("(none)");
+        header.append("(none)").append(newline);
       }
-      writer.println();
+      header.append(newline);
 
       // writing tra lines
-      int numEntries = tableMale._getNumEntries();
-      int colWidth = Integer.toString(numEntries - 1).length() + 2;
-      for (int idx = 0; idx < numEntries; idx++) {
-        if (callback != null) {
-          retVal = callback.progress(idx);
-          if (!retVal) {
-            break;
-          }
-        }
-
-        String traNum = "@" + idx;
-        writer.print(traNum);
-        for (int n = 0, cnt = colWidth - traNum.length(); n < cnt; n++) {
-          writer.print(' ');
+      final int colWidth = Integer.toString(numEntries - 1).length() + 2;
+      TraFile.write(outFile, getCharset(), header.toString(), numEntries, (sb, idx) -> {
+        final int start = sb.length();
+        sb.append('@').append(idx);
+        for (int n = sb.length() - start; n < colWidth; n++) {
+          sb.append(' ');
         }
-        writer.print("= ");
+        sb.append("= ");
 
         // writing male string
-        String msg1 = tableMale._getStringRef(idx, Format.NONE).replaceAll("\r?\n", newline);
-        String res1 = tableMale._getSoundResource(idx);
-        String delim = "~";
-        if (msg1.indexOf('~') >= 0) {
-          if (msg1.indexOf('"') < 0) {
-            delim = "\"";
-          } else {
-            delim = "~~~~~";
-          }
-        }
-        writer.print(delim + msg1 + delim);
+        final String msg1 = tableMale._getText(idx).replaceAll("\r?\n", newline);
+        final String res1 = tableMale._getSoundResource(idx);
+        String delim = TraFile.getDelimiter(msg1);
+        sb.append(delim).append(msg1).append(delim);
         if (!res1.isEmpty()) {
-          writer.print(" [" + res1 + "]");
+          sb.append(" [").append(res1).append(']');
         }
 
         // writing female string
         if (tableFemale != null) {
-          String msg2 = tableFemale._getStringRef(idx, Format.NONE).replaceAll("\r?\n", newline);
-          String res2 = tableFemale._getSoundResource(idx);
+          final String msg2 = tableFemale._getText(idx).replaceAll("\r?\n", newline);
+          final String res2 = tableFemale._getSoundResource(idx);
           if (!msg2.equals(msg1) || !res2.equals(res1)) {
-            delim = "~";
-            if (msg1.indexOf('~') >= 0) {
-              if (msg1.indexOf('"') < 0) {
-                delim = "\"";
-              } else {
-                delim = "~~~~~";
-              }
-            }
-            writer.print(" " + delim + msg2 + delim);
+            delim = TraFile.getDelimiter(msg2);
+            sb.append(' ').append(delim).append(msg2).append(delim);
             if (!res2.isEmpty()) {
-              writer.print(" [" + res2 + "]");
+              sb.append(" [").append(res2).append(']');
             }
           }
         }
-        writer.println();
-      }
+        sb.append(newline);
+      }, callback);
+      retVal = true;
+    } catch (AbortException e) {
+      Logger.debug(e);
     } catch (IOException e) {
       Logger.error(e);
-      retVal = false;
     } finally {
       if (callback != null) {
         callback.done(retVal);
@@ -1096,18 +1158,26 @@ private static StringTable instance(Type type) throws StringTableUnavailableExce
     return retVal;
   }
 
-  private final ArrayList<StringEntry> entries = new ArrayList<>();
-  private final HashMap<Integer, Integer> entriesVirtual = new HashMap<>();
+  /** Size of the TLK file header. */
+  private static final int HEADER_SIZE = 18;
+  /** Size of a single entry in the TLK entry table. */
+  private static final int ENTRY_SIZE = 26;
+
+  private final Object lock = new Object();
+  private final ConcurrentHashMap<Integer, Integer> entriesVirtual = new ConcurrentHashMap<>();
   private final Path tlkPath;
   private final StringTable.Type tlkType;
 
-  // cached TLK header data
-  private int numEntries, ofsStrings;
-  private ByteBuffer headerData;
-  private int entriesPending;
-  // private boolean fullyLoaded;
+  // read-only view of the whole TLK file (little endian); header fields and text of entries are decoded from it
+  private volatile ByteBuffer tlkData;
+
+  // compact storage of string entries; replaced as a whole when entries are added, removed or reordered
+  private volatile EntryStore store = EntryStore.EMPTY;
+  // full-text index of the strings, created on demand
+  private volatile StringTableIndex textIndex;
 
   private FileTime lastModified;
+  private volatile long nextModifiedCheck;
   private short langId;
   private boolean initialized;
   private boolean modified;
@@ -1118,7 +1188,6 @@ private StringTable(Type tlkType, Path tlkPath) {
     }
     this.tlkType = tlkType;
     this.tlkPath = tlkPath;
-    this.numEntries = 0;
     _init();
   }
 
@@ -1135,21 +1204,22 @@ private short _getLanguageId() {
   }
 
   private int _getNumEntries() {
-    return entries.size();
+    return store.count;
   }
 
   private int _getTranslatedIndex(int index) {
     if (Profile.isEnhancedEdition() && index >= STRREF_VIRTUAL) {
-      if (entriesVirtual.containsKey(index)) {
-        index = entriesVirtual.get(index);
+      final Integer strref = entriesVirtual.get(index);
+      if (strref != null) {
+        index = strref;
       } else {
         final Table2da engineTable = Table2daCache.get("ENGINEST.2DA");
         int row = index - STRREF_VIRTUAL;
         if (engineTable != null && row < engineTable.getRowCount()) {
           try {
-            int strref = Integer.parseInt(engineTable.get(row, 1));
-            entriesVirtual.put(index, strref);
-            index = strref;
+            int value = Integer.parseInt(engineTable.get(row, 1));
+            entriesVirtual.put(index, value);
+            index = value;
           } catch (NumberFormatException e) {
             Logger.error(e);
           }
@@ -1161,8 +1231,8 @@ private int _getTranslatedIndex(int index) {
 
   private String _getStringRef(int index, Format fmt) throws IndexOutOfBoundsException {
     index = _getTranslatedIndex(index);
-    StringEntry entry = _getEntry(index);
-    return (fmt == null ? format : fmt).format(entry.getText(), index);
+    _checkTableModified();
+    return (fmt == null ? format : fmt).format(_getText(index), index);
   }
 
   private void _setStringRef(int index, String text) throws IndexOutOfBoundsException {
@@ -1170,7 +1240,16 @@ private void _setStringRef(int index, String text) throws IndexOutOfBoundsExcept
   }
 
   private String _getSoundResource(int index) throws IndexOutOfBoundsException {
-    return _getEntry(_getTranslatedIndex(index)).getSoundRef();
+    index = _getTranslatedIndex(index);
+    _checkTableModified();
+    final EntryStore es = store;
+    final StringEntry entry = _getLoadedEntry(es, index);
+    if (entry != null) {
+      return entry.getSoundRef();
+    }
+    final ByteBuffer data = tlkData;
+    final int ofs = _getEntryHeaderOffset(data, _getFileIndex(es, index));
+    return (ofs >= 0) ? _decodeSoundRef(data, ofs) : StringEntry.getInvalidEntry().getSoundRef();
   }
 
   private void _setSoundResource(int index, String resRef) throws IndexOutOfBoundsException {
@@ -1178,7 +1257,16 @@ private void _setSoundResource(int index, String resRef) throws IndexOutOfBounds
   }
 
   private short _getFlags(int index) throws IndexOutOfBoundsException {
-    return _getEntry(_getTranslatedIndex(index)).getFlags();
+    index = _getTranslatedIndex(index);
+    _checkTableModified();
+    final EntryStore es = store;
+    final StringEntry entry = _getLoadedEntry(es, index);
+    if (entry != null) {
+      return entry.getFlags();
+    }
+    final ByteBuffer data = tlkData;
+    final int ofs = _getEntryHeaderOffset(data, _getFileIndex(es, index));
+    return (ofs >= 0) ? data.getShort(ofs) : StringEntry.getInvalidEntry().getFlags();
   }
 
   private void _setFlags(int index, short value) throws IndexOutOfBoundsException {
@@ -1186,7 +1274,16 @@ private void _setFlags(int index, short value) throws IndexOutOfBoundsException
   }
 
   private int _getVolume(int index) throws IndexOutOfBoundsException {
-    return _getEntry(_getTranslatedIndex(index)).getVolume();
+    index = _getTranslatedIndex(index);
+    _checkTableModified();
+    final EntryStore es = store;
+    final StringEntry entry = _getLoadedEntry(es, index);
+    if (entry != null) {
+      return entry.getVolume();
+    }
+    final ByteBuffer data = tlkData;
+    final int ofs = _getEntryHeaderOffset(data, _getFileIndex(es, index));
+    return (ofs >= 0) ? data.getInt(ofs + 10) : StringEntry.getInvalidEntry().getVolume();
   }
 
   private void _setVolume(int index, int value) throws IndexOutOfBoundsException {
@@ -1194,55 +1291,86 @@ private void _setVolume(int index, int value) throws IndexOutOfBoundsException {
   }
 
   private int _getPitch(int index) throws IndexOutOfBoundsException {
-    return _getEntry(_getTranslatedIndex(index)).getPitch();
+    index = _getTranslatedIndex(index);
+    _checkTableModified();
+    final EntryStore es = store;
+    final StringEntry entry = _getLoadedEntry(es, index);
+    if (entry != null) {
+      return entry.getPitch();
+    }
+    final ByteBuffer data = tlkData;
+    final int ofs = _getEntryHeaderOffset(data, _getFileIndex(es, index));
+    return (ofs >= 0) ? data.getInt(ofs + 14) : StringEntry.getInvalidEntry().getPitch();
   }
 
   private void _setPitch(int index, int value) throws IndexOutOfBoundsException {
     _getEntry(_getTranslatedIndex(index)).setPitch(value);
   }
 
+  /** Returns the unformatted text of the specified entry. Does not lock the table. */
+  private String _getText(int index) {
+    final EntryStore es = store;
+    final StringEntry entry = _getLoadedEntry(es, index);
+    if (entry != null) {
+      return entry.getText();
+    }
+    return _decodeText(tlkData, _getFileIndex(es, index), index);
+  }
+
   // Always returns a non-null StringEntry instance
   private StringEntry _getEntry(int index) throws IndexOutOfBoundsException {
     index = _getTranslatedIndex(index);
-    _ensureIndexIsLoaded(index);
-    StringEntry entry;
-    if (index >= 0 && index < entries.size()) {
-      entry = entries.get(index);
-    } else {
-      entry = StringEntry.getInvalidEntry();
+    _checkTableModified();
+    StringEntry entry = _getLoadedEntry(store, index);
+    if (entry == null) {
+      synchronized (lock) {
+        final EntryStore es = store;
+        if (index >= 0 && index < es.count) {
+          entry = es.promoted.get(index);
+          if (entry == null) {
+            entry = _loadEntry(es, index);
+            es.promoted.set(index, entry);
+          }
+        }
+      }
     }
-    return entry;
+    return (entry != null) ? entry : StringEntry.getInvalidEntry();
+  }
+
+  /**
+   * Returns the {@link StringEntry} object of the specified index if the entry has been edited or requested
+   * explicitly. Returns {@code null} otherwise. Does not lock the table.
+   */
+  private static StringEntry _getLoadedEntry(EntryStore es, int index) {
+    return (index >= 0 && index < es.count) ? es.promoted.get(index) : null;
+  }
+
+  /** Returns the index of the specified entry in the TLK file, or -1 if not available. Does not lock the table. */
+  private static int _getFileIndex(EntryStore es, int index) {
+    return (index >= 0 && index < es.count) ? es.fileIndices[index] : -1;
   }
 
   private void _init() {
     if (!_initialized()) {
       _updateTableModified();
-      synchronized (entries) {
-        try (FileChannel ch = _open()) {
+      synchronized (lock) {
+        try {
+          final ByteBuffer data = _load();
+
           // parsing header
-          String sig = StreamUtils.readString(ch, 8);
+          String sig = StreamUtils.readString(data, 0, 8);
           if (!"TLK V1  ".equals(sig)) {
             throw new Exception("Invalid TLK signature");
           }
 
-          langId = StreamUtils.readShort(ch);
-          numEntries = StreamUtils.readInt(ch);
-          ofsStrings = StreamUtils.readInt(ch);
-
-          int bufferSize = 26 * numEntries;
-          headerData = StreamUtils.getByteBuffer(bufferSize);
-          if (ch.read(headerData) < bufferSize) {
+          langId = data.getShort(8);
+          final int count = data.getInt(10);
+          if (count < 0 || HEADER_SIZE + (long) ENTRY_SIZE * count > data.limit()) {
             throw new Exception("Not enough data");
           }
-          headerData.position(0);
 
-          // fill cache with placeholder string entries
-          entries.ensureCapacity(numEntries + 10);
-          while (entries.size() < numEntries) {
-            entries.add(null);
-          }
-
-          entriesPending = numEntries;
+          tlkData = data;
+          store = EntryStore.create(count);
           initialized = true;
         } catch (Exception e) {
           Logger.error(e);
@@ -1251,6 +1379,20 @@ private void _init() {
     }
   }
 
+  /**
+   * Checks whether the TLK file has been modified externally and reloads the table if needed. The check is performed
+   * at most once per {@link #MODIFIED_CHECK_INTERVAL}.
+   */
+  private void _checkTableModified() {
+    final long now = System.currentTimeMillis();
+    if (now >= nextModifiedCheck) {
+      nextModifiedCheck = now + MODIFIED_CHECK_INTERVAL;
+      if (_isTableModified()) {
+        _reset();
+      }
+    }
+  }
+
   private boolean _isTableModified() {
     try {
       return !lastModified.equals(Files.getLastModifiedTime(_getPath()));
@@ -1267,6 +1409,7 @@ private void _updateTableModified() {
       lastModified = FileTime.from(Instant.now());
       Logger.warn(e);
     }
+    nextModifiedCheck = System.currentTimeMillis() + MODIFIED_CHECK_INTERVAL;
   }
 
   private boolean _initialized() {
@@ -1274,60 +1417,132 @@ private boolean _initialized() {
   }
 
   private void _reset() {
-    synchronized (entries) {
-      entries.clear();
-      headerData = null;
-      ofsStrings = numEntries = entriesPending = -1;
+    synchronized (lock) {
+      store = EntryStore.EMPTY;
+      tlkData = null;
+      textIndex = null;
       initialized = false;
       _resetModified();
     }
     _init();
   }
 
-  private FileChannel _open() throws IOException {
-    return FileChannel.open(_getPath(), StandardOpenOption.READ);
+  /**
+   * Returns a read-only view of the whole TLK file. The content is read into memory instead of mapping the file, since
+   * a mapping cannot be released explicitly and would prevent replacing or deleting the file on some platforms.
+   */
+  private ByteBuffer _load() throws IOException {
+    try (SeekableByteChannel ch = Files.newByteChannel(_getPath(), StandardOpenOption.READ)) {
+      final long size = ch.size();
+      if (size > Integer.MAX_VALUE) {
+        throw new IOException("TLK file too big: " + _getPath());
+      }
+      final ByteBuffer data = StreamUtils.getByteBuffer((int) size);
+      ch.read(data);
+      data.position(0);
+      return data.asReadOnlyBuffer().order(ByteOrder.LITTLE_ENDIAN);
+    }
   }
 
-  private StringEntry _loadEntry(FileChannel ch, int index)
-      throws IOException, IndexOutOfBoundsException, IllegalArgumentException {
-    if (index < 0 || index >= _getNumEntries()) {
+  /** Returns the offset of the specified entry header in {@code data}, or -1 if not available. */
+  private static int _getEntryHeaderOffset(ByteBuffer data, int fileIndex) {
+    if (data != null && fileIndex >= 0 && fileIndex < data.getInt(10)) {
+      return HEADER_SIZE + fileIndex * ENTRY_SIZE;
+    }
+    return -1;
+  }
+
+  // Uses absolute reads only since the buffer may be accessed concurrently
+  private static String _decodeSoundRef(ByteBuffer data, int headerOfs) {
+    final byte[] buf = new byte[8];
+    int len = 0;
+    while (len < buf.length && (buf[len] = data.get(headerOfs + 2 + len)) != 0) {
+      len++;
+    }
+    return new String(buf, 0, len, Misc.CHARSET_DEFAULT);
+  }
+
+  /**
+   * Returns the absolute offset of the text data of the specified entry in {@code data}. Returns -1 if the entry is not
+   * available or does not contain valid text data.
+   */
+  private static int _getTextOffset(ByteBuffer data, int fileIndex) {
+    final int ofs = _getEntryHeaderOffset(data, fileIndex);
+    if (ofs < 0) {
+      return -1;
+    }
+    final int ofsString = data.getInt(14) + data.getInt(ofs + 18);
+    final int lenString = data.getInt(ofs + 22);
+    if (lenString <= 0) {
+      return -1;
+    }
+    if (ofsString < 0 || ofsString + lenString > data.limit() || ofsString + lenString < 0) {
+      Logger.error("Error: Illegal offset {} for string entry {}", ofsString, fileIndex);
+      return -1;
+    }
+    return ofsString;
+  }
+
+  /** Returns the length of the text data of the specified entry in {@code data}. */
+  private static int _getTextLength(ByteBuffer data, int fileIndex) {
+    return (_getTextOffset(data, fileIndex) >= 0) ? data.getInt(_getEntryHeaderOffset(data, fileIndex) + 22) : 0;
+  }
+
+  /** Returns the raw text data of the specified entry. Returns {@code null} if the entry is not available. */
+  private static byte[] _getTextBytes(ByteBuffer data, int fileIndex) {
+    if (_getEntryHeaderOffset(data, fileIndex) < 0) {
+      return null;
+    }
+    final int ofsString = _getTextOffset(data, fileIndex);
+    if (ofsString < 0) {
+      return new byte[0];
+    }
+    final byte[] retVal = new byte[_getTextLength(data, fileIndex)];
+    final ByteBuffer bb = data.duplicate();
+    bb.position(ofsString);
+    bb.get(retVal);
+    return retVal;
+  }
+
+  /** Decodes the text of the specified entry directly from {@code data}. Does not lock the table. */
+  private static String _decodeText(ByteBuffer data, int fileIndex, int index) {
+    final byte[] buffer = _getTextBytes(data, fileIndex);
+    if (buffer == null) {
+      return StringEntry.getInvalidEntry().getText();
+    }
+    return _decodeText(buffer, index);
+  }
+
+  private static String _decodeText(byte[] buffer, int index) {
+    if (buffer.length == 0) {
+      return "";
+    }
+    String text = new String(buffer, getCharset());
+    if (!CharsetDetector.getLookup().isExcluded(index)) {
+      text = CharsetDetector.getLookup().decodeString(text);
+    }
+    return text;
+  }
+
+  // Creates a StringEntry object from the data of the specified entry in the TLK file
+  private StringEntry _loadEntry(EntryStore es, int index) throws IndexOutOfBoundsException {
+    if (index < 0 || index >= es.count) {
       throw new IndexOutOfBoundsException();
     }
 
-    StringEntry entry = null;
-    if (ch != null) {
-      int ofs = index * 26; // rel. offset entry
-      headerData.position(ofs);
-      short flags = headerData.getShort();
-      String soundRef = StreamUtils.readString(headerData, 8);
-      int volume = headerData.getInt();
-      int pitch = headerData.getInt();
-      int ofsString = ofsStrings + headerData.getInt();
-      int lenString = headerData.getInt();
-      headerData.position(0);
-      String text;
-      byte[] buffer = null;
-      if (lenString > 0) {
-        try {
-          ch.position(ofsString);
-          final ByteBuffer bb = ByteBuffer.allocate(lenString);
-          ch.read(bb);
-          bb.flip();
-          buffer = bb.array();
-          text = new String(buffer, getCharset());
-          if (!CharsetDetector.getLookup().isExcluded(index)) {
-            text = CharsetDetector.getLookup().decodeString(text);
-          }
-        } catch (IllegalArgumentException e) {
-          Logger.error("Error: Illegal offset {} for string entry {}", ofsString, index);
-          text = "";
-        }
-      } else {
-        text = "";
-      }
-      entry = new StringEntry(this, flags, soundRef, volume, pitch, text, buffer);
+    final ByteBuffer data = tlkData;
+    final int fileIndex = es.fileIndices[index];
+    final int ofs = _getEntryHeaderOffset(data, fileIndex);
+    if (ofs < 0) {
+      return new StringEntry(this);
     }
-    return entry;
+    short flags = data.getShort(ofs);
+    String soundRef = _decodeSoundRef(data, ofs);
+    int volume = data.getInt(ofs + 10);
+    int pitch = data.getInt(ofs + 14);
+    byte[] buffer = _getTextBytes(data, fileIndex);
+    String text = _decodeText(buffer, index);
+    return new StringEntry(this, flags, soundRef, volume, pitch, text, buffer);
   }
 
   private int _insertEntry(int index) throws IndexOutOfBoundsException {
@@ -1344,10 +1559,26 @@ private int _insertEntry(int index, StringEntry newEntry) throws IndexOutOfBound
       newEntry.parent = this;
     }
 
-    _ensureFullyLoaded();
+    _checkTableModified();
     newEntry.setModified();
-    synchronized (entries) {
-      entries.add(index, newEntry);
+    synchronized (lock) {
+      final EntryStore es = store;
+      final int count = es.count;
+      final int[] newIndices = new int[count + 1];
+      final StringEntry[] newPromoted = new StringEntry[count + 1];
+      System.arraycopy(es.fileIndices, 0, newIndices, 0, index);
+      final StringEntry[] promoted = es.toArray();
+      System.arraycopy(promoted, 0, newPromoted, 0, index);
+      System.arraycopy(es.fileIndices, index, newIndices, index + 1, count - index);
+      System.arraycopy(promoted, index, newPromoted, index + 1, count - index);
+      newIndices[index] = -1;
+      newPromoted[index] = newEntry;
+      store = new EntryStore(newIndices, newPromoted);
+
+      final StringTableIndex fullTextIndex = textIndex;
+      if (fullTextIndex != null) {
+        fullTextIndex.insert(index, newEntry.getText());
+      }
     }
 
     return index;
@@ -1358,78 +1589,261 @@ private void _removeEntry(int index) throws IndexOutOfBoundsException {
       throw new IndexOutOfBoundsException();
     }
 
-    _ensureFullyLoaded();
-    synchronized (entries) {
-      entries.remove(index);
+    _checkTableModified();
+    synchronized (lock) {
+      final EntryStore es = store;
+      final int count = es.count;
+      final int[] newIndices = new int[count - 1];
+      final StringEntry[] newPromoted = new StringEntry[count - 1];
+      System.arraycopy(es.fileIndices, 0, newIndices, 0, index);
+      final StringEntry[] promoted = es.toArray();
+      System.arraycopy(promoted, 0, newPromoted, 0, index);
+      System.arraycopy(es.fileIndices, index + 1, newIndices, index, count - index - 1);
+      System.arraycopy(promoted, index + 1, newPromoted, index, count - index - 1);
+      store = new EntryStore(newIndices, newPromoted);
+
+      final StringTableIndex fullTextIndex = textIndex;
+      if (fullTextIndex != null) {
+        fullTextIndex.remove(index);
+      }
     }
     _setModified();
   }
 
-  // Loads all remaining string entries from file
+  /**
+   * Creates string entries for the specified TRA entries without modifying the table. Attributes of existing strings
+   * are preserved. Returns an array of new string entries by index, with {@code null} for unaffected indices.
+   */
+  private StringEntry[] _prepareImport(List<TraFile.Entry> entries, boolean female, boolean reset,
+      ProgressCallback callback) throws AbortException {
+    _checkTableModified();
+    synchronized (lock) {
+      final EntryStore es = store;
+      int count = reset ? 0 : es.count;
+      for (final TraFile.Entry entry : entries) {
+        if (entry.index < STRREF_VIRTUAL) {
+          count = Math.max(count, entry.index + 1);
+        }
+      }
+
+      final StringEntry[] retVal = new StringEntry[count];
+      final ByteBuffer data = tlkData;
+      for (int i = 0, size = entries.size(); i < size; i++) {
+        if (callback != null && !callback.progress(i)) {
+          throw new AbortException("Operation cancelled");
+        }
+        final TraFile.Entry entry = entries.get(i);
+        if (entry.index >= STRREF_VIRTUAL) {
+          continue;
+        }
+
+        final String text = (female && entry.textFemale != null) ? entry.textFemale : entry.text;
+        String sound = (female && entry.soundFemale != null) ? entry.soundFemale : entry.sound;
+        if (sound.length() > 8) {
+          sound = sound.substring(0, 8);
+        }
+
+        short flags = 0;
+        int volume = 0;
+        int pitch = 0;
+        if (!reset && entry.index < es.count) {
+          final StringEntry oldEntry = es.promoted.get(entry.index);
+          final int ofs = (oldEntry == null) ? _getEntryHeaderOffset(data, es.fileIndices[entry.index]) : -1;
+          if (oldEntry != null) {
+            flags = oldEntry.getFlags();
+            volume = oldEntry.getVolume();
+            pitch = oldEntry.getPitch();
+          } else if (ofs >= 0) {
+            flags = data.getShort(ofs);
+            volume = data.getInt(ofs + 10);
+            pitch = data.getInt(ofs + 14);
+          }
+        }
+        flags |= FLAGS_HAS_TEXT;
+        if (!sound.isEmpty()) {
+          flags |= FLAGS_HAS_SOUND;
+        }
+
+        final StringEntry newEntry = new StringEntry(this, flags, sound, volume, pitch, text, null);
+        newEntry.modified = true;
+        retVal[entry.index] = newEntry;
+      }
+      return retVal;
+    }
+  }
+
+  /**
+   * Applies string entries created by {@link #_prepareImport} to the table. Existing {@code StringEntry} objects are
+   * updated in place by their setters. Undefined entries beyond the current table size are filled with empty placeholders.
+   */
+  private void _applyImport(StringEntry[] imported, boolean reset) {
+    synchronized (lock) {
+      final EntryStore es = store;
+      final int oldCount = reset ? 0 : es.count;
+      final int count = Math.max(oldCount, imported.length);
+      final int[] newIndices = new int[count];
+      final StringEntry[] newPromoted = new StringEntry[count];
+      System.arraycopy(es.fileIndices, 0, newIndices, 0, oldCount);
+      System.arraycopy(es.toArray(), 0, newPromoted, 0, oldCount);
+      Arrays.fill(newIndices, oldCount, count, -1);
+
+      for (int idx = 0; idx < count; idx++) {
+        final StringEntry newEntry = (idx < imported.length) ? imported[idx] : null;
+        final StringEntry oldEntry = newPromoted[idx];
+        if (newEntry != null && oldEntry != null) {
+          // setters keep modified state and encoded text of the entry in sync
+          oldEntry.setFlags(newEntry.getFlags());
+          oldEntry.setSoundRef(newEntry.getSoundRef());
+          oldEntry.setVolume(newEntry.getVolume());
+          oldEntry.setPitch(newEntry.getPitch());
+          oldEntry.setText(newEntry.getText());
+          oldEntry.clearList();
+        } else if (newEntry != null) {
+          newPromoted[idx] = newEntry;
+        } else if (idx >= oldCount) {
+          newPromoted[idx] = new StringEntry(this);
+          newPromoted[idx].modified = true;
+        }
+      }
+
+      store = new EntryStore(newIndices, newPromoted);
+      textIndex = null;
+      _setModified();
+    }
+  }
+
+  /**
+   * Makes sure that the table reflects the current state of the TLK file. Strings are stored in compact form and
+   * decoded on demand, so no entries have to be loaded into memory.
+   */
   private void _ensureFullyLoaded() {
-    if (_isTableModified()) {
-      _reset();
+    _checkTableModified();
+  }
+
+  // Returns whether entries have been added, removed or reordered since the TLK file has been loaded
+  private boolean _isStructureModified() {
+    final ByteBuffer data = tlkData;
+    final EntryStore es = store;
+    if (data == null || data.getInt(10) != es.count) {
+      return true;
     }
+    for (int i = 0, count = es.count; i < count; i++) {
+      if (es.fileIndices[i] != i) {
+        return true;
+      }
+    }
+    return false;
+  }
 
-    if (entriesPending > 0) {
-      synchronized (entries) {
-        try (FileChannel ch = _open()) {
-          for (int idx = 0, num = _getNumEntries(); idx < num; idx++) {
-            if (entries.get(idx) == null) {
-              StringEntry entry = _loadEntry(ch, idx);
-              if (entry != null) {
-                entries.set(idx, entry);
-              } else {
-                throw new Exception();
-              }
+  private void _resetEntries() {
+    if (_isModified()) {
+      boolean reload = false;
+      synchronized (lock) {
+        if (_isStructureModified()) {
+          reload = true;
+        } else {
+          final AtomicReferenceArray<StringEntry> promoted = store.promoted;
+          for (int idx = 0; idx < promoted.length(); idx++) {
+            final StringEntry entry = promoted.get(idx);
+            if (entry != null && entry.isModified()) {
+              promoted.set(idx, null);
             }
           }
-          entriesPending = 0;
-        } catch (Exception e) {
-          Logger.error(e);
+          textIndex = null;
+          _resetModified();
+        }
+      }
+      if (reload) {
+        _reset();
+      }
+    }
+  }
+
+  private StringTableIndex _ensureIndexed() {
+    _checkTableModified();
+    StringTableIndex retVal = textIndex;
+    if (retVal == null) {
+      synchronized (lock) {
+        retVal = textIndex;
+        if (retVal == null && _initialized()) {
+          // persisted index is only valid for the unmodified TLK file
+          final boolean persistent = !_isModified() && !_isStructureModified();
+          if (persistent) {
+            retVal = StringTableIndex.load(_getIndexPath(), tlkData.limit(), lastModified.toMillis(),
+                _getNumEntries());
+          }
+          if (retVal == null) {
+            retVal = StringTableIndex.build(_getNumEntries(), this::_getText);
+            if (persistent) {
+              retVal.save(_getIndexPath(), tlkData.limit(), lastModified.toMillis());
+            }
+          }
+          textIndex = retVal;
         }
       }
     }
+    return retVal;
   }
 
-  // Makes sure the specified string entry is loaded into memory
-  private void _ensureIndexIsLoaded(int index) {
-    if (_isTableModified()) {
-      _reset();
+  private int[] _getSearchCandidates(String term, boolean wholeWord) {
+    final StringTableIndex fullTextIndex = _ensureIndexed();
+    if (fullTextIndex == null) {
+      return null;
     }
+    _updateIndex(fullTextIndex);
+    return fullTextIndex.find(term, wholeWord);
+  }
 
-    index = _getTranslatedIndex(index);
-    if (entriesPending > 0 && index >= 0 && index < _getNumEntries() && entries.get(index) == null) {
-      synchronized (entries) {
-        try (FileChannel ch = _open()) {
-          StringEntry entry = _loadEntry(ch, index);
+  // Applies pending text changes of string entries to the full-text index
+  private void _updateIndex(StringTableIndex fullTextIndex) {
+    if (fullTextIndex.hasDirtyEntries()) {
+      synchronized (lock) {
+        final Map<StringEntry, String> dirtyEntries = fullTextIndex.takeDirtyEntries();
+        final AtomicReferenceArray<StringEntry> promoted = store.promoted;
+        for (int idx = 0; idx < promoted.length() && !dirtyEntries.isEmpty(); idx++) {
+          final StringEntry entry = promoted.get(idx);
           if (entry != null) {
-            entries.set(index, entry);
-            entriesPending--;
-          } else {
-            throw new Exception();
+            final String oldText = dirtyEntries.remove(entry);
+            if (oldText != null) {
+              fullTextIndex.update(idx, oldText, entry.getText());
+            }
           }
-        } catch (Exception e) {
-          Logger.error(e);
         }
       }
     }
   }
 
-  private void _resetEntries() {
-    if (_isModified()) {
-      synchronized (entries) {
-        for (int idx = 0, cnt = entries.size(); idx < cnt; idx++) {
-          if (entries.get(idx) != null && entries.get(idx).isModified()) {
-            entries.set(idx, null);
-            entriesPending++;
-          }
-        }
-        _resetModified();
+  // Persists the full-text index for the current state of the TLK file
+  private void _saveIndex() {
+    final StringTableIndex fullTextIndex = textIndex;
+    final ByteBuffer data = tlkData;
+    if (fullTextIndex != null && data != null) {
+      _updateIndex(fullTextIndex);
+      fullTextIndex.save(_getIndexPath(), data.limit(), lastModified.toMillis());
+    }
+  }
+
+  // Called by string entries of this table whenever their text has changed
+  private void _textChanged(StringEntry entry, String oldText) {
+    synchronized (lock) {
+      final StringTableIndex fullTextIndex = textIndex;
+      if (fullTextIndex != null) {
+        fullTextIndex.markDirty(entry, oldText);
       }
     }
   }
 
+  // Returns the cache file of the full-text index associated with this table
+  private Path _getIndexPath() {
+    try {
+      final String id = String.format("%08x", _getPath().toAbsolutePath().normalize().toString().hashCode());
+      return Platform.getTempDirectory().resolve("ni-cache").resolve("tlk-" + id + ".idx");
+    } catch (Exception e) {
+      Logger.debug(e);
+    }
+    return null;
+  }
+
   private boolean _isModified() {
     return modified;
   }
@@ -1460,11 +1874,15 @@ private void _write(Path tlkPath, ProgressCallback callback) throws Exception {
       throw new NullPointerException();
     }
 
-    _ensureFullyLoaded();
-    synchronized (entries) {
+    _checkTableModified();
+    synchronized (lock) {
       boolean success = false;
+      final boolean isTlkPath = tlkPath.equals(_getPath());
+      final ByteBuffer data = tlkData;
+      final EntryStore es = store;
 
       // 1. backing up current string table file if needed
+      // (the view of the TLK file remains valid after the file has been moved)
       Path pathBackup = null;
       if (FileEx.create(tlkPath).isFile()) {
         String name = tlkPath.getFileName().toString();
@@ -1485,66 +1903,79 @@ private void _write(Path tlkPath, ProgressCallback callback) throws Exception {
         callback.init(_getNumEntries());
       }
       try (FileChannel ch = FileChannel.open(tlkPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
-          StandardOpenOption.TRUNCATE_EXISTING)) {
-        int headerSize = 18;
-        int entrySize = 26;
-        int numEntries = _getNumEntries();
-        int ofsStrings = headerSize + (numEntries * entrySize);
-
-        // write global header
-        ByteBuffer buffer = StreamUtils.getByteBuffer(headerSize);
+          StandardOpenOption.TRUNCATE_EXISTING);
+          FileChannel source = _openSource(isTlkPath ? pathBackup : _getPath(), data)) {
+        int numEntries = es.count;
+        int ofsStrings = HEADER_SIZE + (numEntries * ENTRY_SIZE);
+
+        // only text of edited or new entries needs to be encoded
+        final byte[][] encoded = _encodeEntries(es);
+
+        // write global header and entry headers
+        ByteBuffer buffer = StreamUtils.getByteBuffer(ofsStrings);
         buffer.position(0);
         buffer.put("TLK V1  ".getBytes(Misc.CHARSET_DEFAULT));
         buffer.putShort(_getLanguageId());
         buffer.putInt(numEntries);
         buffer.putInt(ofsStrings);
-        buffer.position(0);
-        ch.write(buffer);
 
-        // write entry headers
-        ArrayList<byte[]> stringList = new ArrayList<>(numEntries);
-        buffer = StreamUtils.getByteBuffer(entrySize);
         int curStringOfs = 0;
-        CharsetDetector.CharLookup lookup = CharsetDetector.getLookup();
-        for (int idx = 0, count = entries.size(); idx < count; idx++) {
-          final StringEntry entry = entries.get(idx);
-          // apply character encoding if required
-          String text;
-          if (lookup.isExcluded(idx)) {
-            text = entry.getText();
+        for (int idx = 0; idx < numEntries; idx++) {
+          final int length;
+          if (encoded[idx] != null) {
+            final StringEntry entry = es.promoted.get(idx);
+            length = encoded[idx].length;
+            buffer.putShort(entry.getFlags());
+            buffer.put(entry.getSoundRefBytes());
+            buffer.putInt(entry.getVolume());
+            buffer.putInt(entry.getPitch());
           } else {
-            text = lookup.encodeString(entry.getText());
+            final int ofs = _getEntryHeaderOffset(data, es.fileIndices[idx]);
+            length = _getTextLength(data, es.fileIndices[idx]);
+            for (int i = 0; i < 18; i++) {
+              buffer.put(data.get(ofs + i));
+            }
           }
-          byte[] data = entry.getTextBytes(text);
-          byte[] soundRef = entry.getSoundRefBytes();
-          buffer.position(0);
-          buffer.putShort(entry.getFlags());
-          buffer.put(soundRef);
-          buffer.putInt(entry.getVolume());
-          buffer.putInt(entry.getPitch());
           buffer.putInt(curStringOfs);
-          buffer.putInt(data.length);
-          buffer.position(0);
+          buffer.putInt(length);
+          curStringOfs += length;
+        }
+        buffer.position(0);
+        while (buffer.hasRemaining()) {
           ch.write(buffer);
-          stringList.add(data);
-          curStringOfs += data.length;
         }
 
-        // write strings
-        int index = 0;
-        for (final byte[] data : stringList) {
+        // write strings; adjacent text regions of unchanged entries are copied in a single operation
+        int runStart = -1;
+        int runEnd = -1;
+        for (int idx = 0; idx < numEntries; idx++) {
           if (callback != null) {
-            success = callback.progress(index++);
+            success = callback.progress(idx);
             if (!success) {
               throw new AbortException("Operation cancelled");
             }
           }
-          buffer = StreamUtils.getByteBuffer(data);
-          buffer.position(0);
-          buffer.put(data);
-          buffer.position(0);
-          ch.write(buffer);
+          if (encoded[idx] != null) {
+            _copyRegion(data, source, runStart, runEnd, ch);
+            runStart = runEnd = -1;
+            buffer = ByteBuffer.wrap(encoded[idx]);
+            while (buffer.hasRemaining()) {
+              ch.write(buffer);
+            }
+          } else {
+            final int ofs = _getTextOffset(data, es.fileIndices[idx]);
+            final int length = _getTextLength(data, es.fileIndices[idx]);
+            if (ofs < 0 || length == 0) {
+              continue;
+            }
+            if (ofs != runEnd) {
+              _copyRegion(data, source, runStart, runEnd, ch);
+              runStart = ofs;
+            }
+            runEnd = ofs + length;
+          }
         }
+        _copyRegion(data, source, runStart, runEnd, ch);
 
         _resetModified();
         success = true;
@@ -1553,10 +1984,36 @@ private void _write(Path tlkPath, ProgressCallback callback) throws Exception {
       } catch (Exception e) {
         Logger.trace(e);
       } finally {
-        // 3. removing or restoring backup
+        // 3. updating view of the TLK file
+        if (isTlkPath && success) {
+          try {
+            tlkData = _load();
+            // entries match the TLK file now, which allows subsequent writes to copy them unchanged
+            final StringEntry[] newPromoted = es.toArray();
+            for (final StringEntry entry : newPromoted) {
+              if (entry != null) {
+                entry.resetModified();
+              }
+            }
+            store = EntryStore.create(newPromoted);
+            _updateTableModified();
+            _saveIndex();
+          } catch (IOException e) {
+            Logger.error(e);
+            _updateTableModified();
+          }
+        }
+
+        // 4. removing or restoring backup
         if (pathBackup != null) {
           if (success) {
-            Files.delete(pathBackup);
+            try {
+              Files.delete(pathBackup);
+            } catch (IOException e) {
+              // file may still be opened by another process
+              Logger.warn(e, "Could not delete backup file: {}", pathBackup);
+              FileDeletionHook.getInstance().registerFile(pathBackup);
+            }
           } else {
             Files.move(pathBackup, _getPath(), StandardCopyOption.REPLACE_EXISTING);
           }
@@ -1569,14 +2026,91 @@ private void _write(Path tlkPath, ProgressCallback callback) throws Exception {
     }
   }
 
+  /**
+   * Encodes the text of all entries which are new or have been modified. Encoding is performed in parallel. Returns the
+   * encoded text for each entry, or {@code null} if the raw data of the entry can be copied from the TLK file.
+   */
+  private static byte[][] _encodeEntries(EntryStore es) {
+    final StringEntry[] promoted = es.toArray();
+    final byte[][] retVal = new byte[es.count][];
+    final int[] indices = IntStream.range(0, es.count)
+        .filter(idx -> promoted[idx] != null && (promoted[idx].isModified() || es.fileIndices[idx] < 0))
+        .toArray();
+    final CharsetDetector.CharLookup lookup = CharsetDetector.getLookup();
+    Arrays.stream(indices).parallel().forEach(idx -> {
+      // apply character encoding if required
+      final StringEntry entry = promoted[idx];
+      final String text = lookup.isExcluded(idx) ? entry.getText() : lookup.encodeString(entry.getText());
+      retVal[idx] = entry.getTextBytes(text);
+    });
+    return retVal;
+  }
+
+  /**
+   * Opens the TLK file that is backed by the specified view for reading. Returns {@code null} if the file is not
+   * located on the default filesystem or does not match the view.
+   */
+  private static FileChannel _openSource(Path path, ByteBuffer data) {
+    if (path != null && data != null && FileManager.isDefaultFileSystem(path)) {
+      FileChannel ch = null;
+      try {
+        ch = FileChannel.open(path, StandardOpenOption.READ);
+        if (ch.size() == data.limit()) {
+          return ch;
+        }
+      } catch (IOException e) {
+        Logger.debug(e, "Could not open TLK file: {}", path);
+      }
+      if (ch != null) {
+        try {
+          ch.close();
+        } catch (IOException e) {
+          Logger.trace(e);
+        }
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Copies the specified region of the old TLK file to the output channel. Data is transferred directly from the source
+   * channel if available, otherwise it is taken from the view of the TLK file.
+   */
+  private static void _copyRegion(ByteBuffer data, FileChannel source, int start, int end, FileChannel ch)
+      throws IOException {
+    if (start < 0 || end <= start) {
+      return;
+    }
+
+    long pos = start;
+    if (source != null) {
+      while (pos < end) {
+        final long count = source.transferTo(pos, end - pos, ch);
+        if (count <= 0L) {
+          break;
+        }
+        pos += count;
+      }
+    }
+
+    if (pos < end) {
+      final ByteBuffer buffer = data.duplicate();
+      buffer.limit(end);
+      buffer.position((int) pos);
+      while (buffer.hasRemaining()) {
+        ch.write(buffer);
+      }
+    }
+  }
+
   // Export as list of human-readable text entries
   private void _exportText(Path outFile, ProgressCallback callback) throws IOException {
     if (outFile == null) {
       throw new IOException("Output file not specified");
     }
 
-    _ensureFullyLoaded();
-    synchronized (entries) {
+    _checkTableModified();
+    synchronized (lock) {
       if (callback != null) {
         callback.init(_getNumEntries());
       }
@@ -1590,9 +2124,8 @@ private void _exportText(Path outFile, ProgressCallback callback) throws IOExcep
               break;
             }
           }
-          StringEntry entry = entries.get(idx);
           writer.println(idx + ":");
-          writer.println(entry.getText().replaceAll("\r?\n", newline));
+          writer.println(_getText(idx).replaceAll("\r?\n", newline));
           writer.println();
         }
       } catch (Exception e) {
@@ -1608,6 +2141,51 @@ private void _exportText(Path outFile, ProgressCallback callback) throws IOExcep
 
   // -------------------------- INNER CLASSES --------------------------
 
+  /**
+   * Compact storage of the string entries. Instances are published as a whole, so that lock-free readers always see
+   * matching file indices and entries. Only entries of the {@code promoted} array may be set in place. The array is an
+   * {@link AtomicReferenceArray}, so that entries set under the table lock are safely visible to lock-free readers.
+   */
+  private static final class EntryStore {
+    private static final EntryStore EMPTY = new EntryStore(new int[0], new StringEntry[0]);
+
+    /** Maps table indices to entry indices in the TLK file, or -1 for new entries. */
+    private final int[] fileIndices;
+    /** Full StringEntry objects of edited or explicitly requested entries, {@code null} otherwise. */
+    private final AtomicReferenceArray<StringEntry> promoted;
+    /** Number of string entries. */
+    private final int count;
+
+    /** Creates a storage of the specified number of unmodified entries of the TLK file. */
+    private static EntryStore create(int count) {
+      return create(new StringEntry[count]);
+    }
+
+    /** Creates a storage of the specified entries which match the entries of the TLK file by index. */
+    private static EntryStore create(StringEntry[] promoted) {
+      final int[] fileIndices = new int[promoted.length];
+      for (int i = 0; i < fileIndices.length; i++) {
+        fileIndices[i] = i;
+      }
+      return new EntryStore(fileIndices, promoted);
+    }
+
+    private EntryStore(int[] fileIndices, StringEntry[] promoted) {
+      this.fileIndices = fileIndices;
+      this.promoted = new AtomicReferenceArray<>(promoted);
+      this.count = fileIndices.length;
+    }
+
+    /** Returns a snapshot of the {@code promoted} entries as a new array. */
+    private StringEntry[] toArray() {
+      final StringEntry[] retVal = new StringEntry[count];
+      for (int i = 0; i < retVal.length; i++) {
+        retVal[i] = promoted.get(i);
+      }
+      return retVal;
+    }
+  }
+
   // Manages a single string entry
   public static class StringEntry extends AbstractStruct {
     // Default entry for non-existing indices
@@ -1726,8 +2304,12 @@ public void setText(String newText) {
       }
 
       if (!normalizedText(newText).equals(normalizedText(text))) {
+        final String oldText = text;
         text = newText;
         setModified();
+        if (parent != null) {
+          parent._textChanged(this, oldText);
+        }
       }
     }
 
@@ -0,0 +1,479 @@
+// Near Infinity - An Infinity Engine Browser and Editor
+// Copyright (C) 2001 Jon Olav Hauglid
+// See LICENSE.txt for license information
+
+package org.infinity.util;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.IntFunction;
+
+/**
+ * Inverted full-text index over the strings of a single string table.
+ *
+ * <p>
+ * The index maps lower-cased words and character trigrams to the sorted list of string indices that contain them. It
+ * returns candidates for literal substring and whole word searches, which have to be verified by the caller. Posting
+ * lists are stored as delta-encoded variable-length integers to keep the memory footprint small.
+ * </p>
+ */
+final class StringTableIndex {
+  private static final int SIGNATURE = 0x4e495449; // "NITI"
+  private static final int VERSION = 1;
+
+  /** Number of characters per n-gram. */
+  private static final int GRAM_LENGTH = 3;
+
+  private final Map<String, Postings> tokens = new HashMap<>();
+  private final Map<Long, Postings> grams = new HashMap<>();
+
+  /** Entries with modified text which have not yet been applied to the index, mapped to their previous text. */
+  private final Map<StringTable.StringEntry, String> dirtyEntries = new IdentityHashMap<>();
+
+  private int numEntries;
+
+  /**
+   * Creates an index over the specified number of strings.
+   *
+   * @param numEntries   Number of strings.
+   * @param textProvider Returns the text of the string at the specified index.
+   */
+  public static StringTableIndex build(int numEntries, IntFunction<String> textProvider) {
+    final StringTableIndex retVal = new StringTableIndex();
+    final Map<String, PostingsBuilder> tokenBuilders = new HashMap<>();
+    final Map<Long, PostingsBuilder> gramBuilders = new HashMap<>();
+    for (int idx = 0; idx < numEntries; idx++) {
+      final String text = textProvider.apply(idx);
+      for (final String token : getTokens(text)) {
+        tokenBuilders.computeIfAbsent(token, k -> new PostingsBuilder()).add(idx);
+      }
+      for (final long gram : getGrams(text)) {
+        gramBuilders.computeIfAbsent(gram, k -> new PostingsBuilder()).add(idx);
+      }
+    }
+    tokenBuilders.forEach((k, v) -> retVal.tokens.put(k, v.build()));
+    gramBuilders.forEach((k, v) -> retVal.grams.put(k, v.build()));
+    retVal.numEntries = numEntries;
+    return retVal;
+  }
+
+  /**
+   * Loads a persisted index from the specified file. Returns {@code null} if the file is not available or does not
+   * match the specified string table state.
+   */
+  public static StringTableIndex load(Path file, long tlkSize, long tlkTime, int numEntries) {
+    if (file == null || !Files.isRegularFile(file)) {
+      return null;
+    }
+
+    try (DataInputStream dis = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+      if (dis.readInt() != SIGNATURE || dis.readInt() != VERSION || dis.readLong() != tlkSize
+          || dis.readLong() != tlkTime || dis.readInt() != numEntries) {
+        return null;
+      }
+
+      final StringTableIndex retVal = new StringTableIndex();
+      retVal.numEntries = numEntries;
+      for (int i = 0, count = dis.readInt(); i < count; i++) {
+        final String key = dis.readUTF();
+        retVal.tokens.put(key, Postings.read(dis));
+      }
+      for (int i = 0, count = dis.readInt(); i < count; i++) {
+        final long key = dis.readLong();
+        retVal.grams.put(key, Postings.read(dis));
+      }
+      return retVal;
+    } catch (Exception e) {
+      Logger.debug(e, "Could not load string table index: {}", file);
+    }
+    return null;
+  }
+
+  private StringTableIndex() {
+  }
+
+  /** Writes the index to the specified file. Errors are logged but otherwise ignored. */
+  public synchronized void save(Path file, long tlkSize, long tlkTime) {
+    if (file == null) {
+      return;
+    }
+
+    Path tempFile = null;
+    try {
+      Files.createDirectories(file.getParent());
+      tempFile = Files.createTempFile(file.getParent(), "tlkindex", ".tmp");
+      try (DataOutputStream dos = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile)))) {
+        dos.writeInt(SIGNATURE);
+        dos.writeInt(VERSION);
+        dos.writeLong(tlkSize);
+        dos.writeLong(tlkTime);
+        dos.writeInt(numEntries);
+        dos.writeInt(tokens.size());
+        for (final Map.Entry<String, Postings> entry : tokens.entrySet()) {
+          dos.writeUTF(entry.getKey());
+          entry.getValue().write(dos);
+        }
+        dos.writeInt(grams.size());
+        for (final Map.Entry<Long, Postings> entry : grams.entrySet()) {
+          dos.writeLong(entry.getKey());
+          entry.getValue().write(dos);
+        }
+      }
+      Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING);
+      tempFile = null;
+    } catch (Exception e) {
+      Logger.warn(e, "Could not write string table index: {}", file);
+    } finally {
+      if (tempFile != null) {
+        try {
+          Files.deleteIfExists(tempFile);
+        } catch (IOException e) {
+          Logger.trace(e);
+        }
+      }
+    }
+  }
+
+  /** Returns the number of indexed strings. */
+  public synchronized int getNumEntries() {
+    return numEntries;
+  }
+
+  /**
+   * Returns the indices of all strings which may contain the specified literal search term, in ascending order. Returns
+   * {@code null} if the term cannot be handled by the index.
+   *
+   * @param term      The literal search term.
+   * @param wholeWord Whether the term is matched as whole word only.
+   */
+  public synchronized int[] find(String term, boolean wholeWord) {
+    if (term == null) {
+      return null;
+    }
+
+    final List<Postings> lists = new ArrayList<>();
+    if (wholeWord) {
+      final Set<String> keys = getTokens(term);
+      if (keys.isEmpty()) {
+        return null;
+      }
+      for (final String key : keys) {
+        lists.add(tokens.get(key));
+      }
+    } else {
+      final long[] keys = getGrams(term);
+      if (keys.length == 0) {
+        return null;
+      }
+      for (final long key : keys) {
+        lists.add(grams.get(key));
+      }
+    }
+
+    if (lists.contains(null)) {
+      return new int[0];
+    }
+    lists.sort((a, b) -> Integer.compare(a.size, b.size));
+    int[] retVal = lists.get(0).toArray();
+    for (int i = 1, size = lists.size(); i < size && retVal.length > 0; i++) {
+      retVal = intersect(retVal, lists.get(i).toArray());
+    }
+    return retVal;
+  }
+
+  /** Registers a string entry whose text has been changed. Changes are applied by {@link #takeDirtyEntries()}. */
+  public synchronized void markDirty(StringTable.StringEntry entry, String oldText) {
+    dirtyEntries.putIfAbsent(entry, oldText);
+  }
+
+  /** Returns and clears the list of string entries with modified text, mapped to their previous text. */
+  public synchronized Map<StringTable.StringEntry, String> takeDirtyEntries() {
+    final Map<StringTable.StringEntry, String> retVal = new IdentityHashMap<>(dirtyEntries);
+    dirtyEntries.clear();
+    return retVal;
+  }
+
+  /** Returns whether text changes of string entries are pending. */
+  public synchronized boolean hasDirtyEntries() {
+    return !dirtyEntries.isEmpty();
+  }
+
+  /** Updates the index after the text of the string at the specified index has changed. */
+  public synchronized void update(int index, String oldText, String newText) {
+    final Set<String> oldTokens = getTokens(oldText);
+    final Set<String> newTokens = getTokens(newText);
+    for (final String token : oldTokens) {
+      if (!newTokens.contains(token)) {
+        removeValue(tokens, token, index);
+      }
+    }
+    for (final String token : newTokens) {
+      if (!oldTokens.contains(token)) {
+        addValue(tokens, token, index);
+      }
+    }
+
+    final long[] oldGrams = getGrams(oldText);
+    final long[] newGrams = getGrams(newText);
+    for (final long gram : oldGrams) {
+      if (Arrays.binarySearch(newGrams, gram) < 0) {
+        removeValue(grams, gram, index);
+      }
+    }
+    for (final long gram : newGrams) {
+      if (Arrays.binarySearch(oldGrams, gram) < 0) {
+        addValue(grams, gram, index);
+      }
+    }
+  }
+
+  /** Updates the index after a string has been inserted at the specified index. */
+  public synchronized void insert(int index, String text) {
+    for (final Postings postings : tokens.values()) {
+      postings.shift(index, 1);
+    }
+    for (final Postings postings : grams.values()) {
+      postings.shift(index, 1);
+    }
+    numEntries++;
+    update(index, null, text);
+  }
+
+  /** Updates the index after the string at the specified index has been removed. */
+  public synchronized void remove(int index) {
+    tokens.values().removeIf(postings -> postings.shift(index, -1));
+    grams.values().removeIf(postings -> postings.shift(index, -1));
+    numEntries--;
+  }
+
+  private static <K> void addValue(Map<K, Postings> map, K key, int value) {
+    final Postings postings = map.get(key);
+    if (postings == null) {
+      map.put(key, Postings.of(new int[] { value }));
+    } else {
+      postings.add(value);
+    }
+  }
+
+  private static <K> void removeValue(Map<K, Postings> map, K key, int value) {
+    final Postings postings = map.get(key);
+    if (postings != null && postings.remove(value)) {
+      map.remove(key);
+    }
+  }
+
+  // Returns the intersection of two sorted arrays
+  private static int[] intersect(int[] a, int[] b) {
+    final int[] retVal = new int[Math.min(a.length, b.length)];
+    int count = 0;
+    for (int i = 0, j = 0; i < a.length && j < b.length;) {
+      if (a[i] < b[j]) {
+        i++;
+      } else if (a[i] > b[j]) {
+        j++;
+      } else {
+        retVal[count++] = a[i];
+        i++;
+        j++;
+      }
+    }
+    return Arrays.copyOf(retVal, count);
+  }
+
+  // ASCII word characters; splitting at all other characters yields a superset of \b matches for any Java version
+  private static boolean isWordChar(char ch) {
+    return (ch >= 'a' && ch <= 'z') || (ch >= 'A' && ch <= 'Z') || (ch >= '0' && ch <= '9') || ch == '_';
+  }
+
+  /** Returns the set of lower-cased words in the specified text. */
+  static Set<String> getTokens(String text) {
+    final Set<String> retVal = new HashSet<>();
+    if (text != null) {
+      int start = -1;
+      for (int i = 0, len = text.length(); i <= len; i++) {
+        final boolean isWord = (i < len) && isWordChar(text.charAt(i));
+        if (isWord && start < 0) {
+          start = i;
+        } else if (!isWord && start >= 0) {
+          retVal.add(toLowerCase(text, start, i));
+          start = -1;
+        }
+      }
+    }
+    return retVal;
+  }
+
+  /** Returns the sorted set of lower-cased character trigrams in the specified text. */
+  static long[] getGrams(String text) {
+    if (text == null || text.length() < GRAM_LENGTH) {
+      return new long[0];
+    }
+    final int count = text.length() - GRAM_LENGTH + 1;
+    final long[] retVal = new long[count];
+    long gram = 0L;
+    for (int i = 0, len = text.length(); i < len; i++) {
+      gram = ((gram << 16) | Character.toLowerCase(text.charAt(i))) & 0xffffffffffffL;
+      if (i >= GRAM_LENGTH - 1) {
+        retVal[i - GRAM_LENGTH + 1] = gram;
+      }
+    }
+    Arrays.sort(retVal);
+    int unique = 0;
+    for (int i = 0; i < retVal.length; i++) {
+      if (i == 0 || retVal[i] != retVal[unique - 1]) {
+        retVal[unique++] = retVal[i];
+      }
+    }
+    return Arrays.copyOf(retVal, unique);
+  }
+
+  private static String toLowerCase(String text, int start, int end) {
+    final char[] buf = new char[end - start];
+    for (int i = start; i < end; i++) {
+      buf[i - start] = Character.toLowerCase(text.charAt(i));
+    }
+    return new String(buf);
+  }
+
+  // -------------------------- INNER CLASSES --------------------------
+
+  /** Sorted list of string indices, stored as delta-encoded variable-length integers. */
+  private static class Postings {
+    private byte[] data;
+    private int size;
+
+    public static Postings of(int[] values) {
+      final Postings retVal = new Postings();
+      retVal.encode(values, values.length);
+      return retVal;
+    }
+
+    public static Postings read(DataInputStream dis) throws IOException {
+      final Postings retVal = new Postings();
+      retVal.size = dis.readInt();
+      retVal.data = new byte[dis.readInt()];
+      dis.readFully(retVal.data);
+      return retVal;
+    }
+
+    public void write(DataOutputStream dos) throws IOException {
+      dos.writeInt(size);
+      dos.writeInt(data.length);
+      dos.write(data);
+    }
+
+    public int[] toArray() {
+      final int[] retVal = new int[size];
+      int value = -1;
+      for (int i = 0, pos = 0; i < size; i++) {
+        int delta = 0;
+        int shift = 0;
+        byte b;
+        do {
+          b = data[pos++];
+          delta |= (b & 0x7f) << shift;
+          shift += 7;
+        } while (b < 0);
+        value += delta;
+        retVal[i] = value;
+      }
+      return retVal;
+    }
+
+    /** Adds the specified value to the list. */
+    public void add(int value) {
+      final int[] values = toArray();
+      int pos = Arrays.binarySearch(values, value);
+      if (pos < 0) {
+        pos = -pos - 1;
+        final int[] newValues = new int[values.length + 1];
+        System.arraycopy(values, 0, newValues, 0, pos);
+        newValues[pos] = value;
+        System.arraycopy(values, pos, newValues, pos + 1, values.length - pos);
+        encode(newValues, newValues.length);
+      }
+    }
+
+    /** Removes the specified value from the list. Returns whether the list is empty afterwards. */
+    public boolean remove(int value) {
+      final int[] values = toArray();
+      final int pos = Arrays.binarySearch(values, value);
+      if (pos >= 0) {
+        System.arraycopy(values, pos + 1, values, pos, values.length - pos - 1);
+        encode(values, values.length - 1);
+      }
+      return size == 0;
+    }
+
+    /**
+     * Adjusts all values greater than or equal to {@code index} by {@code delta}. A negative delta removes
+     * {@code index} from the list first. Returns whether the list is empty afterwards.
+     */
+    public boolean shift(int index, int delta) {
+      final int[] values = toArray();
+      if (values.length == 0 || values[values.length - 1] < index) {
+        return size == 0;
+      }
+      int count = 0;
+      for (final int value : values) {
+        if (value < index) {
+          values[count++] = value;
+        } else if (delta > 0 || value != index) {
+          values[count++] = value + delta;
+        }
+      }
+      encode(values, count);
+      return size == 0;
+    }
+
+    private void encode(int[] values, int count) {
+      final byte[] buf = new byte[count * 5];
+      int pos = 0;
+      int last = -1;
+      for (int i = 0; i < count; i++) {
+        int delta = values[i] - last;
+        last = values[i];
+        while ((delta & ~0x7f) != 0) {
+          buf[pos++] = (byte) ((delta & 0x7f) | 0x80);
+          delta >>>= 7;
+        }
+        buf[pos++] = (byte) delta;
+      }
+      data = Arrays.copyOf(buf, pos);
+      size = count;
+    }
+  }
+
+  /** Collects ascending string indices for a posting list. */
+  private static class PostingsBuilder {
+    private int[] values = new int[4];
+    private int size;
+
+    public void add(int value) {
+      if (size == values.length) {
+        values = Arrays.copyOf(values, size * 2);
+      }
+      values[size++] = value;
+    }
+
+    public Postings build() {
+      final Postings retVal = new Postings();
+      retVal.encode(values, size);
+      return retVal;
+    }
+  }
+}
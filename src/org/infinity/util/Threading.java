@@ -13,9 +13,12 @@
 import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.ForkJoinTask;
 import java.util.concurrent.Future;
+import java.util.concurrent.RecursiveAction;
 import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
@@ -28,6 +31,12 @@
 
 /**
  * A convenience class for performing multiple tasks in parallel.
+ *
+ * <p>
+ * By default tasks are executed by a fixed thread pool. Alternatively a work-stealing pool can be used, which allows
+ * tasks to split their work into subtasks by {@link #forEachRange(int, int, RangeOperation)} that are picked up by
+ * idle threads of the pool.
+ * </p>
  */
 public class Threading implements AutoCloseable {
   /** Controls the amount of threads to allocate by a new thread pool. */
@@ -74,6 +83,18 @@ public String toString() {
     }
   }
 
+  /** Performs an operation on a range of indices. */
+  @FunctionalInterface
+  public interface RangeOperation {
+    /**
+     * Performs the operation.
+     *
+     * @param start First index of the range, inclusive.
+     * @param end   Last index of the range, exclusive.
+     */
+    void perform(int start, int end);
+  }
+
   /** Defines the total number of threads that can be executed in parallel on the current system. */
   public static final int MAX_THREADS_AVAILABLE = Runtime.getRuntime().availableProcessors();
 
@@ -84,7 +105,7 @@ public String toString() {
   /** Stores submitted tasks for internal evaluation purposes. */
   private final List<Future<?>> taskList = new LinkedList<>();
 
-  private final ThreadPoolExecutor executor;
+  private final ExecutorService executor;
   private final int numThreads;
 
   private boolean closed;
@@ -105,18 +126,35 @@ public Threading() {
    *                   pool.
    */
   public Threading(Priority priority) {
-    this(calculateThreadCount(priority));
+    this(priority, false);
   }
 
   /**
    * Initializes a new {@link Threading} object.
    *
-   * @param numThreads Max. number of active threads.
+   * @param priority     {@link Priority} value that is used to calculate the optimal number of threads for this thread
+   *                       pool.
+   * @param workStealing Specify {@code true} to execute tasks by a work-stealing {@link ForkJoinPool}, which supports
+   *                       splitting tasks into subtasks. Specify {@code false} to use a fixed thread pool.
+   */
+  public Threading(Priority priority, boolean workStealing) {
+    this(calculateThreadCount(priority), workStealing);
+  }
+
+  /**
+   * Initializes a new {@link Threading} object.
+   *
+   * @param numThreads   Max. number of active threads.
+   * @param workStealing Whether to use a work-stealing thread pool.
    * @throws IllegalArgumentException if <code>numThreads <= 0</code>.
    */
-  private Threading(int numThreads) {
+  private Threading(int numThreads, boolean workStealing) {
     this.numThreads = getValidatedThreadCount(numThreads);
-    this.executor = (ThreadPoolExecutor) Executors.newFixedThreadPool(getThreadCount());
+    if (workStealing) {
+      this.executor = new ForkJoinPool(getThreadCount());
+    } else {
+      this.executor = Executors.newFixedThreadPool(getThreadCount());
+    }
     allocateThreads();
   }
 
@@ -149,7 +187,15 @@ public boolean hasTasks(boolean forceUpdate) {
    * @return the number of threads.
    */
   public int getActiveThreadCount() {
-    return executor.getActiveCount();
+    if (executor instanceof ForkJoinPool) {
+      return ((ForkJoinPool) executor).getActiveThreadCount();
+    }
+    return ((ThreadPoolExecutor) executor).getActiveCount();
+  }
+
+  /** Returns {@code true} if tasks are executed by a work-stealing thread pool. */
+  public boolean isWorkStealing() {
+    return executor instanceof ForkJoinPool;
   }
 
   /**
@@ -158,7 +204,10 @@ public int getActiveThreadCount() {
    * @return {@code true} if there are any queued submissions.
    */
   public boolean hasQueuedSubmissions() {
-    return !executor.getQueue().isEmpty();
+    if (executor instanceof ForkJoinPool) {
+      return ((ForkJoinPool) executor).hasQueuedSubmissions();
+    }
+    return !((ThreadPoolExecutor) executor).getQueue().isEmpty();
   }
 
   /**
@@ -167,16 +216,38 @@ public boolean hasQueuedSubmissions() {
    * @return the number of queued submissions.
    */
   public int getQueuedSubmissionCount() {
-    return executor.getQueue().size();
+    if (executor instanceof ForkJoinPool) {
+      return ((ForkJoinPool) executor).getQueuedSubmissionCount();
+    }
+    return ((ThreadPoolExecutor) executor).getQueue().size();
   }
 
   /**
    * Returns the {@link ThreadPoolExecutor} object used to perform background tasks.
    *
    * @return {@link ThreadPoolExecutor}.
+   * @throws IllegalStateException if tasks are executed by a work-stealing thread pool.
+   * @see #getWorkStealingPool()
    */
   public ThreadPoolExecutor getExecutor() {
-    return executor;
+    if (executor instanceof ThreadPoolExecutor) {
+      return (ThreadPoolExecutor) executor;
+    }
+    throw new IllegalStateException("Thread pool is work-stealing");
+  }
+
+  /**
+   * Returns the {@link ForkJoinPool} object used to perform background tasks in work-stealing mode.
+   *
+   * @return {@link ForkJoinPool}.
+   * @throws IllegalStateException if tasks are not executed by a work-stealing thread pool.
+   * @see #getExecutor()
+   */
+  public ForkJoinPool getWorkStealingPool() {
+    if (executor instanceof ForkJoinPool) {
+      return (ForkJoinPool) executor;
+    }
+    throw new IllegalStateException("Thread pool is not work-stealing");
   }
 
   /**
@@ -549,6 +620,33 @@ public static <T, R> R invokeInEventThread(Function<T, R> function, T arg, R def
     }
   }
 
+  /**
+   * Performs the specified operation on the index range {@code [0, count)} in parallel. The range is split into
+   * subranges of at least {@code minRangeSize} indices which are processed as separate tasks.
+   *
+   * <p>
+   * When called from a task of a work-stealing {@link Threading} pool the subtasks are executed by the same pool, which
+   * allows idle threads to help with large tasks. Otherwise the subtasks are executed by the common pool. This method
+   * returns when all subranges have been processed.
+   * </p>
+   *
+   * @param count        Number of indices.
+   * @param minRangeSize Min. number of indices per subrange.
+   * @param operation    Operation to perform on each subrange. Must be safe to call concurrently.
+   */
+  public static void forEachRange(int count, int minRangeSize, RangeOperation operation) {
+    Objects.requireNonNull(operation, "Operation is null");
+    if (count <= 0) {
+      return;
+    }
+    final RangeTask task = new RangeTask(0, count, Math.max(1, minRangeSize), operation);
+    if (ForkJoinTask.inForkJoinPool()) {
+      task.invoke();
+    } else {
+      ForkJoinPool.commonPool().invoke(task);
+    }
+  }
+
   /**
    * Calculates the number of threads to reserve based on the given {@code priority}.
    *
@@ -583,4 +681,31 @@ public static int getAvailableThreads() {
   private static int getValidatedThreadCount(int numThreads) {
     return Math.max(1, Math.min(MAX_THREADS_AVAILABLE, numThreads));
   }
+
+  // -------------------------- INNER CLASSES --------------------------
+
+  /** Recursively splits an index range into subranges. */
+  private static class RangeTask extends RecursiveAction {
+    private final int start;
+    private final int end;
+    private final int minRangeSize;
+    private final RangeOperation operation;
+
+    public RangeTask(int start, int end, int minRangeSize, RangeOperation operation) {
+      this.start = start;
+      this.end = end;
+      this.minRangeSize = minRangeSize;
+      this.operation = operation;
+    }
+
+    @Override
+    protected void compute() {
+      if (end - start < 2 * minRangeSize) {
+        operation.perform(start, end);
+      } else {
+        final int mid = (start + end) >>> 1;
+        invokeAll(new RangeTask(start, mid, minRangeSize, operation), new RangeTask(mid, end, minRangeSize, operation));
+      }
+    }
+  }
 }
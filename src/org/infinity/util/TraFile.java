@@ -0,0 +1,329 @@
+// Near Infinity - An Infinity Engine Browser and Editor
+// Copyright (C) 2001 Jon Olav Hauglid
+// See LICENSE.txt for license information
+
+package org.infinity.util;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.stream.IntStream;
+
+import org.infinity.exceptions.AbortException;
+
+/**
+ * Bulk reader and writer for WeiDU TRA files.
+ *
+ * <p>
+ * TRA files are read into memory as a whole and parsed in parallel partitions. Partitions start at lines beginning with
+ * a {@code @} character. If a partition boundary turns out to be located inside a string or comment, the whole file is
+ * parsed sequentially instead. Entries are written in chunks which are formatted in parallel.
+ * </p>
+ *
+ * <p>
+ * Supported syntax: {@code @index = ~text~ [SOUND] ~female text~ [SOUND]}, where text may be delimited by {@code ~},
+ * {@code "}, {@code %} or {@code ~~~~~}. Line and block comments are skipped.
+ * </p>
+ */
+final class TraFile {
+  /** Number of entries formatted or parsed by a single task. */
+  private static final int CHUNK_SIZE = 4096;
+  /** Min. size of a TRA file (in characters) to be parsed in parallel. */
+  private static final int MIN_PARALLEL_SIZE = 1 << 20;
+  /** Size of the output buffer, in characters. */
+  private static final int BUFFER_SIZE = 1 << 20;
+
+  /** A single parsed TRA entry. */
+  public static final class Entry {
+    /** String index. */
+    public final int index;
+    /** Text of the entry, with normalized line breaks. */
+    public final String text;
+    /** Sound resource of the entry. Never {@code null}. */
+    public final String sound;
+    /** Text of the female variant, or {@code null} if not specified. */
+    public final String textFemale;
+    /** Sound resource of the female variant, or {@code null} if not specified. */
+    public final String soundFemale;
+
+    private Entry(int index, String text, String sound, String textFemale, String soundFemale) {
+      this.index = index;
+      this.text = text;
+      this.sound = sound;
+      this.textFemale = textFemale;
+      this.soundFemale = soundFemale;
+    }
+  }
+
+  /**
+   * Reads and parses the specified TRA file.
+   *
+   * @param file    The TRA file.
+   * @param charset Character encoding of the TRA file.
+   * @return List of entries in the order they are defined in the file.
+   * @throws IOException if the file could not be read or contains syntax errors.
+   */
+  public static List<Entry> read(Path file, Charset charset) throws IOException {
+    String content = new String(Files.readAllBytes(file), charset);
+    if (!content.isEmpty() && content.charAt(0) == '\uFEFF') {
+      content = content.substring(1);
+    }
+    return parse(content);
+  }
+
+  /**
+   * Parses the specified TRA content.
+   *
+   * @throws IOException if the content contains syntax errors.
+   */
+  public static List<Entry> parse(String content) throws IOException {
+    final List<Integer> bounds = getPartitions(content);
+    if (bounds.size() > 2) {
+      try {
+        final List<List<Entry>> results = new ArrayList<>();
+        IntStream.range(0, bounds.size() - 1).parallel()
+            .mapToObj(i -> {
+              try {
+                return new Parser(content, bounds.get(i), bounds.get(i + 1)).parse();
+              } catch (IOException e) {
+                // partition boundary may be located inside a string or comment
+                return null;
+              }
+            })
+            .forEachOrdered(results::add);
+        if (!results.contains(null)) {
+          final List<Entry> retVal = new ArrayList<>();
+          results.forEach(retVal::addAll);
+          return retVal;
+        }
+      } catch (Exception e) {
+        Logger.trace(e);
+      }
+    }
+    return new Parser(content, 0, content.length()).parse();
+  }
+
+  /**
+   * Writes TRA entries to the specified file. Entries are formatted in parallel chunks and written in ascending order.
+   *
+   * @param file       The output file.
+   * @param charset    Character encoding of the output file.
+   * @param header     Text written before the entries.
+   * @param numEntries Number of entries to write.
+   * @param formatter  Appends the TRA definition of the entry at the specified index to the buffer.
+   * @param callback   Optional callback that is notified about the progress.
+   * @throws IOException    if the file could not be written.
+   * @throws AbortException if the operation has been cancelled by the callback.
+   */
+  public static void write(Path file, Charset charset, String header, int numEntries,
+      BiConsumer<StringBuilder, Integer> formatter, StringTable.ProgressCallback callback)
+      throws IOException, AbortException {
+    final int numChunks = (numEntries + CHUNK_SIZE - 1) / CHUNK_SIZE;
+    final int batchSize = Math.max(1, Runtime.getRuntime().availableProcessors() * 2);
+    try (Writer writer = new BufferedWriter(new OutputStreamWriter(Files.newOutputStream(file), charset),
+        BUFFER_SIZE)) {
+      writer.write(header);
+      for (int batch = 0; batch < numChunks; batch += batchSize) {
+        final int first = batch;
+        final String[] chunks = IntStream.range(first, Math.min(numChunks, first + batchSize)).parallel()
+            .mapToObj(chunk -> {
+              final StringBuilder sb = new StringBuilder(CHUNK_SIZE * 64);
+              for (int idx = chunk * CHUNK_SIZE, end = Math.min(numEntries, idx + CHUNK_SIZE); idx < end; idx++) {
+                formatter.accept(sb, idx);
+              }
+              return sb.toString();
+            })
+            .toArray(String[]::new);
+
+        for (int i = 0; i < chunks.length; i++) {
+          if (callback != null) {
+            for (int idx = (first + i) * CHUNK_SIZE, end = Math.min(numEntries, idx + CHUNK_SIZE); idx < end; idx++) {
+              if (!callback.progress(idx)) {
+                throw new AbortException("Operation cancelled");
+              }
+            }
+          }
+          writer.write(chunks[i]);
+        }
+      }
+    }
+  }
+
+  /** Returns the string delimiter for the specified text. */
+  public static String getDelimiter(String text) {
+    if (text.indexOf('~') < 0) {
+      return "~";
+    } else if (text.indexOf('"') < 0) {
+      return "\"";
+    } else {
+      return "~~~~~";
+    }
+  }
+
+  // Returns the start offsets of all partitions, followed by the end offset of the content
+  private static List<Integer> getPartitions(String content) {
+    final List<Integer> retVal = new ArrayList<>();
+    retVal.add(0);
+    final int length = content.length();
+    if (length >= MIN_PARALLEL_SIZE) {
+      final int numPartitions = Runtime.getRuntime().availableProcessors() * 4;
+      final int partitionSize = Math.max(CHUNK_SIZE * 16, length / numPartitions);
+      int pos = partitionSize;
+      while (pos < length) {
+        final int start = content.indexOf("\n@", pos);
+        if (start < 0) {
+          break;
+        }
+        retVal.add(start + 1);
+        pos = start + 1 + partitionSize;
+      }
+    }
+    retVal.add(length);
+    return retVal;
+  }
+
+  private TraFile() {
+  }
+
+  // -------------------------- INNER CLASSES --------------------------
+
+  /** Parses TRA entries in a range of the content. */
+  private static class Parser {
+    private final String content;
+    private final int end;
+    private int pos;
+
+    public Parser(String content, int start, int end) {
+      this.content = content;
+      this.pos = start;
+      this.end = end;
+    }
+
+    public List<Entry> parse() throws IOException {
+      final List<Entry> retVal = new ArrayList<>();
+      skipWhitespace();
+      while (pos < end) {
+        expect('@');
+        final int index = parseNumber();
+        skipWhitespace();
+        expect('=');
+        skipWhitespace();
+        final String text = parseString();
+        skipWhitespace();
+        final String sound = (peek() == '[') ? parseSound() : "";
+        skipWhitespace();
+        String textFemale = null;
+        String soundFemale = null;
+        if (isStringStart()) {
+          textFemale = parseString();
+          skipWhitespace();
+          soundFemale = (peek() == '[') ? parseSound() : "";
+          skipWhitespace();
+        }
+        // negative indices are not supported
+        if (index >= 0) {
+          retVal.add(new Entry(index, text, sound, textFemale, soundFemale));
+        }
+      }
+      return retVal;
+    }
+
+    private int peek() {
+      return (pos < end) ? content.charAt(pos) : -1;
+    }
+
+    private boolean isStringStart() {
+      final int ch = peek();
+      return ch == '~' || ch == '"' || ch == '%';
+    }
+
+    private void expect(char ch) throws IOException {
+      if (peek() != ch) {
+        throw error("'" + ch + "' expected");
+      }
+      pos++;
+    }
+
+    private int parseNumber() throws IOException {
+      final int start = pos;
+      if (peek() == '-') {
+        pos++;
+      }
+      while (pos < end && Character.isDigit(content.charAt(pos))) {
+        pos++;
+      }
+      try {
+        return Integer.parseInt(content.substring(start, pos));
+      } catch (NumberFormatException e) {
+        throw error("Invalid index");
+      }
+    }
+
+    private String parseString() throws IOException {
+      final String delim;
+      if (content.startsWith("~~~~~", pos)) {
+        delim = "~~~~~";
+      } else if (isStringStart()) {
+        delim = String.valueOf(content.charAt(pos));
+      } else {
+        throw error("String expected");
+      }
+      final int start = pos + delim.length();
+      final int stop = content.indexOf(delim, start);
+      if (stop < 0 || stop + delim.length() > end) {
+        throw error("Unterminated string");
+      }
+      pos = stop + delim.length();
+      final String text = content.substring(start, stop);
+      return (text.indexOf('\r') >= 0) ? text.replace("\r\n", "\n") : text;
+    }
+
+    private String parseSound() throws IOException {
+      final int stop = content.indexOf(']', pos);
+      if (stop < 0 || stop >= end) {
+        throw error("Unterminated sound reference");
+      }
+      final String retVal = content.substring(pos + 1, stop).trim();
+      pos = stop + 1;
+      return retVal;
+    }
+
+    // Skips whitespace and comments
+    private void skipWhitespace() throws IOException {
+      while (pos < end) {
+        final char ch = content.charAt(pos);
+        if (Character.isWhitespace(ch)) {
+          pos++;
+        } else if (content.startsWith("//", pos)) {
+          final int stop = content.indexOf('\n', pos);
+          pos = (stop < 0 || stop >= end) ? end : stop + 1;
+        } else if (content.startsWith("/*", pos)) {
+          final int stop = content.indexOf("*/", pos + 2);
+          if (stop < 0 || stop + 2 > end) {
+            throw error("Unterminated comment");
+          }
+          pos = stop + 2;
+        } else {
+          break;
+        }
+      }
+    }
+
+    private IOException error(String msg) {
+      int line = 1;
+      for (int i = 0, stop = Math.min(pos, content.length()); i < stop; i++) {
+        if (content.charAt(i) == '\n') {
+          line++;
+        }
+      }
+      return new IOException(msg + " (line " + line + ")");
+    }
+  }
+}
@@ -0,0 +1,278 @@
+// Near Infinity - An Infinity Engine Browser and Editor
+// Copyright (C) 2001 Jon Olav Hauglid
+// See LICENSE.txt for license information
+
+package org.infinity.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.ToLongFunction;
+
+/**
+ * Processes a sequence of work items by a fixed number of worker threads.
+ *
+ * <p>
+ * Items are handed off to the worker threads through a bounded queue. The submitting thread blocks while the queue is
+ * full, which limits the number of pending items regardless of the total number of items to process. Progress is
+ * tracked by atomic counters that can be polled by other threads, e.g. by a Swing timer that updates a progress
+ * dialog.
+ * </p>
+ *
+ * <p>
+ * Items can be processed in order of decreasing cost to prevent a few expensive items at the end of the sequence from
+ * delaying the completion of the whole operation. The costs of all items are evaluated in parallel by
+ * {@link Threading#forEachRange(int, int, Threading.RangeOperation)} before processing starts, so that the order
+ * applies to the whole sequence. In work-stealing mode the worker threads are part of a
+ * {@link java.util.concurrent.ForkJoinPool}, which allows expensive items to split their work into subtasks that are
+ * processed by otherwise idle threads.
+ * </p>
+ */
+public class WorkScheduler {
+  /** A token that can be used to cancel the operation of a {@link WorkScheduler} from any thread. */
+  public static final class CancellationToken {
+    private volatile boolean cancelled;
+
+    /** Requests cancellation. Items that are already being processed are completed. */
+    public void cancel() {
+      cancelled = true;
+    }
+
+    /** Returns whether cancellation has been requested. */
+    public boolean isCancelled() {
+      return cancelled;
+    }
+  }
+
+  /** Number of queued items per worker thread. */
+  private static final int ITEMS_PER_THREAD = 2;
+  /** Min. number of items per task when evaluating item costs. */
+  private static final int COST_RANGE_SIZE = 64;
+  /** Interval (in ms) for checking the cancellation token while waiting for free queue space. */
+  private static final long HANDOFF_TIMEOUT = 50L;
+
+  /** Marks the end of the item sequence for a worker thread. */
+  private static final Object END = new Object();
+  /** Represents {@code null} items in the queue. */
+  private static final Object NULL_ITEM = new Object();
+
+  private final AtomicInteger submitted = new AtomicInteger();
+  private final AtomicInteger completed = new AtomicInteger();
+  private final Threading.Priority priority;
+  private final boolean workStealing;
+
+  /** Creates a new work scheduler with {@link Threading.Priority#NORMAL}. */
+  public WorkScheduler() {
+    this(Threading.Priority.NORMAL);
+  }
+
+  /**
+   * Creates a new work scheduler.
+   *
+   * @param priority {@link Threading.Priority} value that is used to calculate the number of worker threads.
+   */
+  public WorkScheduler(Threading.Priority priority) {
+    this(priority, false);
+  }
+
+  /**
+   * Creates a new work scheduler.
+   *
+   * @param priority     {@link Threading.Priority} value that is used to calculate the number of worker threads.
+   * @param workStealing Specify {@code true} to run the worker threads in a work-stealing thread pool.
+   */
+  public WorkScheduler(Threading.Priority priority, boolean workStealing) {
+    this.priority = (priority != null) ? priority : Threading.Priority.NORMAL;
+    this.workStealing = workStealing;
+  }
+
+  /** Returns the number of items that have been handed off to worker threads by the current operation. */
+  public int getSubmittedCount() {
+    return submitted.get();
+  }
+
+  /** Returns the number of items that have been processed by the current operation. */
+  public int getCompletedCount() {
+    return completed.get();
+  }
+
+  /**
+   * Performs the specified action for each item in order of decreasing cost. This method blocks until all items have
+   * been processed or the operation has been cancelled. Exceptions thrown by the action are logged and do not abort the
+   * operation.
+   *
+   * @param <T>    Type of the items.
+   * @param items  Items to process. May contain {@code null} items which are passed to the action as is.
+   * @param action Action to perform for each item.
+   * @param token  Token for cancelling the operation. Specify {@code null} if the operation can not be cancelled.
+   * @param cost   Returns an estimate of the processing cost of a non-{@code null} item, e.g. the data size. It is
+   *                 evaluated once per item before processing starts and must be safe to call concurrently. Items of
+   *                 equal cost are processed in sequence order. {@code null} items are processed last.
+   * @return {@code true} if the operation has been cancelled, {@code false} otherwise.
+   * @throws InterruptedException if the calling thread has been interrupted while waiting.
+   */
+  public <T> boolean execute(Iterable<? extends T> items, Consumer<? super T> action, CancellationToken token,
+      ToLongFunction<? super T> cost) throws InterruptedException {
+    Objects.requireNonNull(items, "Items are null");
+    Objects.requireNonNull(cost, "Cost function is null");
+
+    final List<T> list = new ArrayList<>();
+    items.forEach(list::add);
+    final long[] costs = new long[list.size()];
+    Threading.forEachRange(costs.length, COST_RANGE_SIZE, (start, end) -> {
+      for (int i = start; i < end; i++) {
+        final T item = list.get(i);
+        costs[i] = (item != null) ? cost.applyAsLong(item) : Long.MIN_VALUE;
+      }
+    });
+
+    final List<Ranked<T>> ranked = new ArrayList<>(costs.length);
+    for (int i = 0; i < costs.length; i++) {
+      ranked.add(new Ranked<>(list.get(i), costs[i]));
+    }
+    // stable sort: items of equal cost remain in sequence order
+    ranked.sort((a, b) -> Long.compare(b.cost, a.cost));
+
+    final List<T> ordered = new ArrayList<>(ranked.size());
+    for (final Ranked<T> item : ranked) {
+      ordered.add(item.item);
+    }
+    return execute(ordered, action, token);
+  }
+
+  /**
+   * Performs the specified action for each item. This method blocks until all items have been processed or the
+   * operation has been cancelled. Exceptions thrown by the action are logged and do not abort the operation.
+   *
+   * @param <T>    Type of the items.
+   * @param items  Items to process. May contain {@code null} items which are passed to the action as is.
+   * @param action Action to perform for each item.
+   * @param token  Token for cancelling the operation. Specify {@code null} if the operation can not be cancelled.
+   * @return {@code true} if the operation has been cancelled, {@code false} otherwise.
+   * @throws InterruptedException if the calling thread has been interrupted while waiting.
+   */
+  public <T> boolean execute(Iterable<? extends T> items, Consumer<? super T> action, CancellationToken token)
+      throws InterruptedException {
+    Objects.requireNonNull(items, "Items are null");
+    Objects.requireNonNull(action, "Action is null");
+    final CancellationToken cancellation = (token != null) ? token : new CancellationToken();
+
+    submitted.set(0);
+    completed.set(0);
+    try (final Threading threadPool = new Threading(priority, workStealing)) {
+      final int numThreads = threadPool.getThreadCount();
+      final BlockingQueue<Object> queue = new ArrayBlockingQueue<>(numThreads * ITEMS_PER_THREAD);
+      final List<Future<?>> workers = new ArrayList<>(numThreads);
+      for (int i = 0; i < numThreads; i++) {
+        workers.add(threadPool.submit(() -> consume(queue, action, cancellation)));
+      }
+
+      // producer
+      for (final T item : items) {
+        if (!handOff(queue, (item != null) ? item : NULL_ITEM, cancellation)) {
+          break;
+        }
+        submitted.incrementAndGet();
+      }
+
+      // signaling end of sequence to all workers
+      for (int i = 0; i < numThreads; i++) {
+        if (!handOff(queue, END, cancellation)) {
+          // workers are leaving anyway; free space is guaranteed after clearing the queue
+          queue.clear();
+          for (int j = 0; j < numThreads; j++) {
+            queue.offer(END);
+          }
+          break;
+        }
+      }
+
+      for (final Future<?> worker : workers) {
+        try {
+          worker.get();
+        } catch (ExecutionException e) {
+          Logger.error(e);
+        }
+      }
+    } catch (InterruptedException e) {
+      cancellation.cancel();
+      throw e;
+    } catch (Exception e) {
+      Logger.error(e);
+    }
+    return cancellation.isCancelled();
+  }
+
+  // Blocks until the item could be added to the queue. Returns false if the operation has been cancelled.
+  private static boolean handOff(BlockingQueue<Object> queue, Object item, CancellationToken token)
+      throws InterruptedException {
+    while (!token.isCancelled()) {
+      if (queue.offer(item, HANDOFF_TIMEOUT, TimeUnit.MILLISECONDS)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  // Waits for the next queued item. Worker threads of a work-stealing pool are compensated while waiting, so that
+  // subtasks of other items can still be processed.
+  private static Object take(BlockingQueue<Object> queue) throws InterruptedException {
+    if (!ForkJoinTask.inForkJoinPool()) {
+      return queue.take();
+    }
+
+    final Object[] item = new Object[1];
+    ForkJoinPool.managedBlock(new ForkJoinPool.ManagedBlocker() {
+      @Override
+      public boolean block() throws InterruptedException {
+        if (item[0] == null) {
+          item[0] = queue.take();
+        }
+        return true;
+      }
+
+      @Override
+      public boolean isReleasable() {
+        return item[0] != null || (item[0] = queue.poll()) != null;
+      }
+    });
+    return item[0];
+  }
+
+  // Processes queued items until the end of the sequence is reached or the operation is cancelled
+  @SuppressWarnings("unchecked")
+  private <T> void consume(BlockingQueue<Object> queue, Consumer<? super T> action, CancellationToken token) {
+    try {
+      for (Object item = take(queue); item != END && !token.isCancelled(); item = take(queue)) {
+        try {
+          action.accept((item != NULL_ITEM) ? (T) item : null);
+        } catch (Exception e) {
+          Logger.error(e);
+        }
+        completed.incrementAndGet();
+      }
+    } catch (InterruptedException e) {
+      Logger.trace(e);
+    }
+  }
+
+  /** Item with its cost. */
+  private static final class Ranked<T> {
+    private final T item;
+    private final long cost;
+
+    public Ranked(T item, long cost) {
+      this.item = item;
+      this.cost = cost;
+    }
+  }
+}
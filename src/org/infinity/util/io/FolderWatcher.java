@@ -0,0 +1,157 @@
+// Near Infinity - An Infinity Engine Browser and Editor
+// Copyright (C) 2001 Jon Olav Hauglid
+// See LICENSE.txt for license information
+
+package org.infinity.util.io;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import javax.swing.SwingUtilities;
+
+import org.infinity.util.Logger;
+
+/**
+ * Watches a number of folders for created, modified or deleted files and reports the changes in batches.
+ *
+ * <p>
+ * Events are collected until no further events arrive for {@link #BATCH_DELAY} milliseconds, or until events have
+ * been collected for {@link #MAX_BATCH_DURATION} milliseconds. The changed paths are then passed to the consumer on
+ * the Event Dispatch Thread. Paths are reported only once per batch regardless of the number of events. Consumers
+ * should check the current state of the file system to determine the kind of change.
+ * </p>
+ *
+ * <p>
+ * If events were lost by the underlying {@link WatchService} then the path of the watched folder itself is reported.
+ * Only folders on the default filesystem can be watched. Subfolders are not watched.
+ * </p>
+ */
+public class FolderWatcher implements AutoCloseable {
+  /** Time span without further events (in ms) before a batch of changes is reported. */
+  public static final long BATCH_DELAY = 500L;
+
+  /** Max. time span (in ms) for collecting events before a batch of changes is reported. */
+  public static final long MAX_BATCH_DURATION = 5000L;
+
+  private final WatchService watchService;
+  private final Map<WatchKey, Path> watchKeys = new HashMap<>();
+  private final Consumer<Set<Path>> consumer;
+  private final Thread thread;
+
+  private volatile boolean closed;
+
+  /**
+   * Creates a new {@code FolderWatcher} for the specified folders. Folders which are not located on the default
+   * filesystem or do not exist are skipped.
+   *
+   * @param folders  Collection of folders to watch.
+   * @param consumer Consumer that receives the changed paths on the Event Dispatch Thread.
+   * @throws IOException if the watch service could not be created.
+   */
+  public FolderWatcher(Collection<Path> folders, Consumer<Set<Path>> consumer) throws IOException {
+    this.consumer = Objects.requireNonNull(consumer);
+    this.watchService = FileSystems.getDefault().newWatchService();
+    try {
+      for (final Path folder : Objects.requireNonNull(folders)) {
+        if (folder != null && FileManager.isDefaultFileSystem(folder) && FileEx.create(folder).isDirectory()) {
+          final WatchKey key = folder.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+              StandardWatchEventKinds.ENTRY_DELETE, StandardWatchEventKinds.ENTRY_MODIFY);
+          watchKeys.put(key, folder);
+        }
+      }
+    } catch (IOException e) {
+      watchService.close();
+      throw e;
+    }
+
+    thread = new Thread(this::run, "FolderWatcher");
+    thread.setDaemon(true);
+    thread.start();
+  }
+
+  /** Returns the folders that are watched by this instance. */
+  public Collection<Path> getFolders() {
+    return Collections.unmodifiableCollection(watchKeys.values());
+  }
+
+  /** Stops watching the folders. Pending changes are discarded. */
+  @Override
+  public void close() {
+    if (!closed) {
+      closed = true;
+      try {
+        watchService.close();
+      } catch (IOException e) {
+        Logger.trace(e);
+      }
+      thread.interrupt();
+    }
+  }
+
+  /** Returns whether this watcher has been closed. */
+  public boolean isClosed() {
+    return closed;
+  }
+
+  private void run() {
+    try {
+      while (!closed) {
+        final Set<Path> changes = new LinkedHashSet<>();
+        WatchKey key = watchService.take();
+        final long startTime = System.currentTimeMillis();
+        while (key != null) {
+          collectChanges(key, changes);
+          if (System.currentTimeMillis() - startTime >= MAX_BATCH_DURATION) {
+            break;
+          }
+          key = watchService.poll(BATCH_DELAY, TimeUnit.MILLISECONDS);
+        }
+
+        if (!changes.isEmpty() && !closed) {
+          SwingUtilities.invokeLater(() -> {
+            if (!closed) {
+              consumer.accept(changes);
+            }
+          });
+        }
+      }
+    } catch (InterruptedException | ClosedWatchServiceException e) {
+      // watcher has been closed
+    } catch (Exception e) {
+      Logger.error(e);
+    }
+  }
+
+  // Adds the paths of all pending events of the specified key to the change set
+  private void collectChanges(WatchKey key, Set<Path> changes) {
+    final Path folder = watchKeys.get(key);
+    for (final WatchEvent<?> event : key.pollEvents()) {
+      if (folder == null) {
+        continue;
+      }
+      if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+        changes.add(folder);
+      } else if (event.context() instanceof Path) {
+        changes.add(folder.resolve((Path) event.context()));
+      }
+    }
+    if (!key.reset()) {
+      Logger.debug("Folder is no longer watched: {}", folder);
+    }
+  }
+}